@@ -0,0 +1,163 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.ITestContext;
+
+import com.hotels.heat.core.environment.EnvironmentHandler;
+import com.hotels.heat.core.handlers.PropertyHandler;
+import com.hotels.heat.core.handlers.TestSuiteHandler;
+import com.hotels.heat.core.runner.TestBaseRunner;
+import com.hotels.heat.core.specificexception.HeatException;
+import com.hotels.heat.core.utils.CsvRowStore;
+import com.hotels.heat.core.utils.TestCaseUtils;
+import com.hotels.heat.core.utils.TestSuiteJsonReader;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+
+
+/**
+ * Fixtures shared by the benchmarks: the 'hotel search' test suite (100 test cases, some of them expanded from a csv file)
+ * and the response of the service, with 100 hotels. The fixtures are read from the classpath as files, as HEAT does
+ * during a real run.
+ */
+final class BenchmarkFixtures {
+
+    static final String SUITE_NAME = "HOTEL_SEARCH";
+    static final String SUITE_PATH = "/benchmarks/suites/HotelSearchSuite.json";
+    static final String RESPONSE_PATH = "/benchmarks/responses/hotelSearch.json";
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Prepares the environment of the suite and loads its general settings and 'beforeTestSuite' variables, as the runner does.
+     * @return the utils of the loaded suite
+     */
+    static TestCaseUtils loadSuite() {
+        TestCaseUtils tcUtils = prepareEnvironment();
+        drain(tcUtils.jsonReader(SUITE_PATH, testContext()));
+        return tcUtils;
+    }
+
+    /**
+     * Prepares the environment handler and the test case utils of the suite, without loading any suite.
+     * @return the utils of the suite
+     */
+    static TestCaseUtils prepareEnvironment() {
+        TestSuiteHandler testSuiteHandler = TestSuiteHandler.getInstance();
+        if (testSuiteHandler.getEnvironmentHandler() == null) {
+            testSuiteHandler.setEnvironmentHandler(new EnvironmentHandler((PropertyHandler) null));
+        }
+        testSuiteHandler.populateTestCaseUtils();
+        return testSuiteHandler.getTestCaseUtils();
+    }
+
+    /**
+     * Test cases of the suite, parsed again at each call: the test case handlers modify the maps they process.
+     * @param tcUtils the utils of the loaded suite
+     * @return the test cases, with the csv ones already expanded
+     */
+    static List<Map<String, Object>> readTestCases(TestCaseUtils tcUtils) {
+        Iterator<Object[]> iterator = new TestSuiteJsonReader(resourceFile(SUITE_PATH))
+            .testCaseIterator(csvFile -> tcUtils.getCsvRowStore(csvFile).size());
+        List<Map<String, Object>> testCases = new ArrayList();
+        iterator.forEachRemaining(testCase -> testCases.add((Map<String, Object>) testCase[0]));
+        return testCases;
+    }
+
+    /**
+     * Row of the csv file of a test case expanded from a 'csv_preloadFile' test case, as the single mode runner does.
+     * @param tcUtils the utils of the loaded suite
+     * @param testCase the test case
+     * @return the row, empty if the test case is not related to a csv file
+     */
+    static Map<String, Object> csvRow(TestCaseUtils tcUtils, Map<String, Object> testCase) {
+        Map<String, Object> row = new HashMap();
+        Object csvFile = testCase.get(TestCaseUtils.JSONPATH_CSV_PRELOAD_FILE);
+        if (csvFile != null) {
+            CsvRowStore csvRowStore = tcUtils.getCsvRowStore((String) csvFile);
+            String testCaseId = testCase.get(TestBaseRunner.ATTR_TESTCASE_ID).toString();
+            row.putAll(csvRowStore.getRow(Integer.parseInt(testCaseId.substring(testCaseId.lastIndexOf('_') + 1))));
+        }
+        return row;
+    }
+
+    /**
+     * @return the body of the 'hotel search' response
+     */
+    static String responseBody() {
+        try {
+            return new String(Files.readAllBytes(resourceFile(RESPONSE_PATH).toPath()), StandardCharsets.UTF_8);
+        } catch (IOException oEx) {
+            throw new HeatException("unable to read '" + RESPONSE_PATH + "': " + oEx.getLocalizedMessage(), oEx);
+        }
+    }
+
+    /**
+     * New response of the service, not yet parsed by any handler.
+     * @param body the body of the response
+     * @return the response
+     */
+    static Response response(String body) {
+        ResponseBuilder rspBuilder = new ResponseBuilder();
+        rspBuilder.setStatusCode(200);
+        rspBuilder.setContentType(ContentType.JSON);
+        rspBuilder.setBody(body);
+        return rspBuilder.build();
+    }
+
+    /**
+     * TestNG context of the suite: only its name is used while loading the suite.
+     * @return the context
+     */
+    static ITestContext testContext() {
+        return (ITestContext) Proxy.newProxyInstance(ITestContext.class.getClassLoader(), new Class[]{ITestContext.class},
+            (proxy, method, args) -> "getName".equals(method.getName()) ? SUITE_NAME : null);
+    }
+
+    static int drain(Iterator<Object[]> iterator) {
+        int testCases = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            testCases++;
+        }
+        return testCases;
+    }
+
+    private static File resourceFile(String path) {
+        URL url = BenchmarkFixtures.class.getResource(path);
+        if (url == null) {
+            throw new HeatException("the fixture '" + path + "' does not exist");
+        }
+        return new File(url.getPath());
+    }
+
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hotels.heat.core.handlers.TestSuiteHandler;
+import com.hotels.heat.core.runner.TestCaseContext;
+import com.hotels.heat.core.utils.DataExtractionSupport;
+
+import io.restassured.response.Response;
+
+
+/**
+ * Benchmark of {@link DataExtractionSupport#process(Object, Response, Map)}, with the actual values of the checks of the
+ * suite: a path of the response, a regular expression extraction and an occurrence count.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataExtractionBenchmark {
+
+    private static final String PATH = "${path[results[42].address.city]}";
+
+    private DataExtractionSupport dataExtractionSupport;
+    private Response response;
+    private Map<String, Object> regexpExtraction;
+    private Map<String, Object> occurrenceOf;
+    private final Map<Integer, Map<String, String>> flowParameters = new HashMap();
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.loadSuite();
+        dataExtractionSupport = new DataExtractionSupport(TestSuiteHandler.getInstance().getLogUtils());
+        response = BenchmarkFixtures.response(BenchmarkFixtures.responseBody());
+        TestCaseContext.open(BenchmarkFixtures.SUITE_NAME, "001");
+
+        regexpExtraction = new HashMap();
+        regexpExtraction.put(DataExtractionSupport.REGEXP_JSON_ELEMENT, "HOTEL_(.*?)_ID");
+        regexpExtraction.put(DataExtractionSupport.STRING_TO_PARSE_JSON_ELEMENT, "HOTEL_${path[results[42].hotelId]}_ID");
+        occurrenceOf = new HashMap();
+        occurrenceOf.put(DataExtractionSupport.OCCURRENCE_JSON_ELEMENT, "R042-");
+        occurrenceOf.put(DataExtractionSupport.STRING_TO_PARSE_JSON_ELEMENT, "${path[results[42].rooms.code]}");
+    }
+
+    @TearDown
+    public void tearDown() {
+        TestCaseContext.close();
+    }
+
+    @Benchmark
+    public String path() {
+        return dataExtractionSupport.process(PATH, response, flowParameters);
+    }
+
+    @Benchmark
+    public String regexpExtraction() {
+        return dataExtractionSupport.process(regexpExtraction, response, flowParameters);
+    }
+
+    @Benchmark
+    public String occurrenceOf() {
+        return dataExtractionSupport.process(occurrenceOf, response, flowParameters);
+    }
+
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hotels.heat.core.runner.TestCaseContext;
+import com.hotels.heat.core.utils.log.LoggingUtils;
+
+
+/**
+ * Benchmark of the logging methods of {@link LoggingUtils} at the default log level (info), where the debug and trace
+ * messages, the most frequent ones in HEAT, are discarded. The error details are the prefix of all the HEAT exceptions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private LoggingUtils logUtils;
+
+    @Setup
+    public void setUp() {
+        System.setProperty("logLevel", LoggingUtils.LOG_LEVEL_INFO);
+        logUtils = new LoggingUtils();
+        TestCaseContext.open(BenchmarkFixtures.SUITE_NAME, "001");
+    }
+
+    @TearDown
+    public void tearDown() {
+        TestCaseContext.close();
+    }
+
+    @Benchmark
+    public void debug() {
+        logUtils.debug("substitution '${preload[API_KEY]}'");
+    }
+
+    @Benchmark
+    public void traceWithParameters() {
+        logUtils.trace("key:'{}' / NEW value: '{}'", "key", "BENCHMARK-API-KEY-0001");
+    }
+
+    @Benchmark
+    public String exceptionDetails() {
+        return logUtils.getExceptionDetails();
+    }
+
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hotels.heat.core.checks.FieldCheck;
+import com.hotels.heat.core.handlers.OperationHandler;
+import com.hotels.heat.core.runner.TestBaseRunner;
+import com.hotels.heat.core.runner.TestCaseContext;
+import com.hotels.heat.core.specificexception.HeatException;
+import com.hotels.heat.core.utils.TestCaseUtils;
+
+import io.restassured.response.Response;
+
+
+/**
+ * Benchmark of {@link OperationHandler#execute()} on all the field checks of a test case of the suite, as compiled when the suite is loaded.
+ * Each invocation checks a new response, so that the parsing of the body is measured once per test case, as in a real run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperationBenchmark {
+
+    private static final String FIELD_CHECK = "fieldCheck";
+    private static final String EXPECTS = "expects";
+    private static final String TEST_CASE_ID = "050";
+
+    private String responseBody;
+    private List<FieldCheck> fieldChecks;
+    private TestCaseContext tcContext;
+
+    @Setup
+    public void setUp() {
+        TestCaseUtils tcUtils = BenchmarkFixtures.loadSuite();
+        responseBody = BenchmarkFixtures.responseBody();
+        Map<String, Object> testCase = BenchmarkFixtures.readTestCases(tcUtils).stream()
+            .filter(tc -> TEST_CASE_ID.equals(tc.get(TestBaseRunner.ATTR_TESTCASE_ID)))
+            .findFirst()
+            .orElseThrow(() -> new HeatException("test case '" + TEST_CASE_ID + "' not found in the suite"));
+        fieldChecks = tcUtils.takeCheckPlan(testCase).getFieldChecks((List) ((Map<String, Object>) testCase.get(EXPECTS)).get(FIELD_CHECK));
+        tcContext = TestCaseContext.open(BenchmarkFixtures.SUITE_NAME, TEST_CASE_ID);
+    }
+
+    @TearDown
+    public void tearDown() {
+        TestCaseContext.close();
+    }
+
+    @Benchmark
+    public boolean execute() {
+        Response response = BenchmarkFixtures.response(responseBody);
+        boolean isExecutionOk = true;
+        for (FieldCheck fieldCheck : fieldChecks) {
+            isExecutionOk &= new OperationHandler(fieldCheck, response).execute();
+        }
+        tcContext.getResponseJsonCache().clear();
+        if (!isExecutionOk) {
+            throw new HeatException("the field checks of the benchmark have to succeed");
+        }
+        return isExecutionOk;
+    }
+
+}
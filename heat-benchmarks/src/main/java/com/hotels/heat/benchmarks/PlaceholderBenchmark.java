@@ -0,0 +1,103 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hotels.heat.core.handlers.PlaceholderHandler;
+import com.hotels.heat.core.runner.TestCaseContext;
+
+import io.restassured.response.Response;
+
+
+/**
+ * Benchmark of {@link PlaceholderHandler#placeholderProcessString(String)}, with the kinds of placeholders of a test case:
+ * preloaded variables, paths of the response, heat modules and a request body mixing all of them.
+ * The response is parsed once, as it happens for all the checks of a test case.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlaceholderBenchmark {
+
+    private static final String PRELOAD = "key=${preload[API_KEY]}&locale=${preload[LOCALE]}&currency=${preload[CURRENCY]}";
+    private static final String PATH = "${path[results[42].name]} - ${path[results[42].address.city]} (${path[results[42].price.amount]})";
+    private static final String MODULE = "${TODAY+10_YYYY-MM-dd}";
+    private static final String REQUEST_BODY;
+
+    static {
+        StringBuilder body = new StringBuilder("{\"site\":\"${preload[SITE]}\",\"checkIn\":\"${preload[CHECK_IN]}\",\"rooms\":[");
+        for (int i = 0; i < 20; i++) {
+            body.append(i > 0 ? "," : "").append("{\"code\":\"${path[results[").append(i).append("].rooms[0].code]}\",\"currency\":\"")
+                .append("${preload[CURRENCY]}\",\"client\":\"${preload[CLIENT]}\",\"note\":\"room ").append(i).append("\"}");
+        }
+        REQUEST_BODY = body.append("]}").toString();
+    }
+
+    private Response response;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.loadSuite();
+        response = BenchmarkFixtures.response(BenchmarkFixtures.responseBody());
+        TestCaseContext.open(BenchmarkFixtures.SUITE_NAME, "001");
+    }
+
+    @TearDown
+    public void tearDown() {
+        TestCaseContext.close();
+    }
+
+    @Benchmark
+    public Object preloadPlaceholders() {
+        return new PlaceholderHandler().placeholderProcessString(PRELOAD);
+    }
+
+    @Benchmark
+    public Object pathPlaceholders() {
+        PlaceholderHandler placeholderHandler = new PlaceholderHandler();
+        placeholderHandler.setResponse(response);
+        return placeholderHandler.placeholderProcessString(PATH);
+    }
+
+    @Benchmark
+    public Object modulePlaceholder() {
+        return new PlaceholderHandler().placeholderProcessString(MODULE);
+    }
+
+    @Benchmark
+    public Object requestBody() {
+        PlaceholderHandler placeholderHandler = new PlaceholderHandler();
+        placeholderHandler.setResponse(response);
+        return placeholderHandler.placeholderProcessString(REQUEST_BODY);
+    }
+
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testng.ITestContext;
+
+import com.hotels.heat.core.utils.TestCaseUtils;
+
+
+/**
+ * Benchmark of {@link TestCaseUtils#jsonReader(String, ITestContext)}: loading of the suite (general settings and
+ * 'beforeTestSuite' variables) and iteration on all its test cases, with the csv ones expanded, as the data provider does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuiteReaderBenchmark {
+
+    private TestCaseUtils tcUtils;
+    private ITestContext context;
+
+    @Setup
+    public void setUp() {
+        tcUtils = BenchmarkFixtures.prepareEnvironment();
+        context = BenchmarkFixtures.testContext();
+    }
+
+    @Benchmark
+    public int jsonReader() {
+        return BenchmarkFixtures.drain(tcUtils.jsonReader(BenchmarkFixtures.SUITE_PATH, context));
+    }
+
+}
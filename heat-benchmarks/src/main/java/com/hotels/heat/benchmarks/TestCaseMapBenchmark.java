@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.hotels.heat.core.handlers.PlaceholderHandler;
+import com.hotels.heat.core.handlers.TestCaseMapHandler;
+import com.hotels.heat.core.runner.TestBaseRunner;
+import com.hotels.heat.core.runner.TestCaseContext;
+import com.hotels.heat.core.utils.TestCaseUtils;
+
+
+/**
+ * Benchmark of {@link TestCaseMapHandler#retrieveProcessedMap()} on all the test cases of the suite, as the single mode
+ * runner resolves them before sending the requests. The handler modifies the maps it processes, so the test cases are
+ * parsed again before each invocation (outside the measured time): a single invocation processes the whole suite.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TestCaseMapBenchmark {
+
+    private TestCaseUtils tcUtils;
+    private List<Map<String, Object>> testCases;
+
+    @Setup
+    public void setUp() {
+        tcUtils = BenchmarkFixtures.loadSuite();
+    }
+
+    @Setup(Level.Invocation)
+    public void readTestCases() {
+        testCases = BenchmarkFixtures.readTestCases(tcUtils);
+    }
+
+    @TearDown
+    public void tearDown() {
+        TestCaseContext.close();
+    }
+
+    @Benchmark
+    public void retrieveProcessedMap(Blackhole blackhole) {
+        for (Map<String, Object> testCase : testCases) {
+            TestCaseContext.open(BenchmarkFixtures.SUITE_NAME, testCase.get(TestBaseRunner.ATTR_TESTCASE_ID).toString());
+            PlaceholderHandler placeholderHandler = new PlaceholderHandler();
+            placeholderHandler.setPreloadedVariables(tcUtils.getBeforeSuiteVariables());
+            placeholderHandler.addCsvFileVariables(BenchmarkFixtures.csvRow(tcUtils, testCase));
+            blackhole.consume(new TestCaseMapHandler(testCase, placeholderHandler).retrieveProcessedMap());
+        }
+    }
+
+}
@@ -24,15 +24,18 @@ import java.util.Set;
 
 import org.testng.ITestContext;
 
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
 import com.hotels.heat.core.handlers.AssertionHandler;
 import com.hotels.heat.core.handlers.OperationHandler;
 import com.hotels.heat.core.handlers.TestSuiteHandler;
 import com.hotels.heat.core.specificexception.HeatException;
+import com.hotels.heat.core.utils.JsonSchemaCache;
+import com.hotels.heat.core.utils.ResponseJsonCache;
 import com.hotels.heat.core.utils.TestCaseUtils;
 import com.hotels.heat.core.utils.log.LoggingUtils;
 
 import io.restassured.http.Header;
-import io.restassured.module.jsv.JsonSchemaValidator;
 import io.restassured.response.Response;
 
 
@@ -123,7 +126,7 @@ public class BasicChecks {
             if (expectedRespCode != null) {
                 String currentStatusCode = String.valueOf(((Response) responses).getStatusCode());
                 logUtils.debug("check response code: current '{}' / expected '{}'", currentStatusCode, expectedRespCode);
-                isCheckOk &= assertionHandler.assertion(isBlocking, "assertEquals", logUtils.getTestCaseDetails() + "{checkResponseCode} ", currentStatusCode, expectedRespCode);
+                isCheckOk &= assertionHandler.assertEquals(isBlocking, currentStatusCode, expectedRespCode, () -> logUtils.getTestCaseDetails() + "{checkResponseCode} ");
             }
         } else {
             throw new HeatException(logUtils.getExceptionDetails() + "not any 'expects' found");
@@ -149,12 +152,12 @@ public class BasicChecks {
         String jsonSchemaPathToCheck = tcUtils.getRspJsonSchemaPath(expectedParams.get(JSON_SCHEMA_TO_CHECK_JSON_ELEMENT));
         if (expectedParams.containsKey(JSON_SCHEMA_TO_CHECK_JSON_ELEMENT) && jsonSchemaPathToCheck != null) {
             logUtils.debug("starting json schema validation");
-            try {
-                getClass().getResourceAsStream("/" + jsonSchemaPathToCheck).available();
-                isCheckOk &= validateSchema(isBlocking, (Response) responses, jsonSchemaPathToCheck);
-            } catch (Exception oEx) {
-                assertionHandler.assertion(isBlocking, "fail",
-                        logUtils.getTestCaseDetails() + "BasicChecks - jsonSchemaValidation -- the file '/" + jsonSchemaPathToCheck + "' does not exist");
+            JsonSchema jsonSchema = JsonSchemaCache.getInstance().getSchema(jsonSchemaPathToCheck);
+            if (jsonSchema != null) {
+                isCheckOk &= validateSchema(isBlocking, (Response) responses, jsonSchema);
+            } else {
+                isCheckOk = assertionHandler.fail(isBlocking,
+                    () -> logUtils.getTestCaseDetails() + "BasicChecks - jsonSchemaValidation -- the file '/" + jsonSchemaPathToCheck + "' does not exist");
             }
         } else {
             logUtils.debug("json schema validation disabled");
@@ -169,19 +172,21 @@ public class BasicChecks {
      * test stops running, otherwise it will go on running with the other checks
      * (the final result does not change)
      * @param resp Response retrieved
-     * @param jsonSchemaPath path of the json schema to use for the check
+     * @param jsonSchema compiled json schema to use for the check
      * @return true if the check is ok, false otherwise
      */
-    private boolean validateSchema(boolean isBlocking, Response resp, String jsonSchemaPath) {
+    private boolean validateSchema(boolean isBlocking, Response resp, JsonSchema jsonSchema) {
         boolean isCheckOk = true;
         try {
-            JsonSchemaValidator validator = JsonSchemaValidator.matchesJsonSchemaInClasspath(jsonSchemaPath);
-            resp.then().assertThat().body(validator);
-            logUtils.debug("json schema validation OK");
+            // the body is validated as already parsed for the other checks of the test case
+            ProcessingReport report = JsonSchemaCache.validate(jsonSchema, ResponseJsonCache.documentOf(resp));
+            isCheckOk = assertionHandler.assertTrue(isBlocking, report.isSuccess(), () -> logUtils.getTestCaseDetails()
+                    + "BasicChecks - validateSchema >> validation schema failed. -- report: " + report);
+            logUtils.debug("json schema validation {}", isCheckOk ? "OK" : "NOT OK");
         } catch (Exception oEx) {
             isCheckOk = false;
             logUtils.error("json schema validation NOT OK");
-            assertionHandler.assertion(isBlocking, "fail", logUtils.getTestCaseDetails()
+            assertionHandler.fail(isBlocking, () -> logUtils.getTestCaseDetails()
                     + "BasicChecks - validateSchema >> validation schema failed. -- exception: "
                     + oEx.getLocalizedMessage());
         }
@@ -212,21 +217,20 @@ public class BasicChecks {
 
                     logUtils.debug("header check: currentHeader = '{}'/ headerExpectedValue = '{}'",
                         currentHeader, headerExpectedValue);
-                    isCheckOk &= assertionHandler.assertion(isBlocking, "assertEquals", logUtils.getTestCaseDetails() + "check on header '" + headerName + "'-- ",
-                            currentHeader, headerExpectedValue);
+                    isCheckOk &= assertionHandler.assertEquals(isBlocking, currentHeader, headerExpectedValue,
+                        () -> logUtils.getTestCaseDetails() + "check on header '" + headerName + "'-- ");
                 } else {
                     ArrayList<String> headerExpectedValues = (ArrayList<String>) headerEntry.getValue();
                     logUtils.debug("header name '{}'", headerName);
 
                     List<Header> headers = ((Response) responses).getHeaders().getList(headerName);
-                    isCheckOk &= assertionHandler.assertion(isBlocking, "assertEquals", logUtils.getTestCaseDetails() + "check on header '" + headerName + "'-- ",
-                            headerExpectedValues.size(), headers.size());
+                    isCheckOk &= assertionHandler.assertEquals(isBlocking, headerExpectedValues.size(), headers.size(),
+                        () -> logUtils.getTestCaseDetails() + "check on header '" + headerName + "'-- ");
 
                     for (String expectedHeader : headerExpectedValues) {
-                        isCheckOk &= assertionHandler.assertion(isBlocking, "assertTrue", logUtils.getTestCaseDetails() + "check on header '" + headerName
-                                        + "' The expected value is '" + expectedHeader + "' - The returned values are " + headers + "-- ",
-                                headers.stream().anyMatch(header -> header.getValue().equals(expectedHeader))
-                            );
+                        isCheckOk &= assertionHandler.assertTrue(isBlocking, headers.stream().anyMatch(header -> header.getValue().equals(expectedHeader)),
+                            () -> logUtils.getTestCaseDetails() + "check on header '" + headerName
+                                + "' The expected value is '" + expectedHeader + "' - The returned values are " + headers + "-- ");
                     }
                 }
             }
@@ -256,8 +260,8 @@ public class BasicChecks {
                 String cookieExpectedValue = cookieEntry.getValue();
                 logUtils.debug("cookie name '{}'", cookieName);
                 String currentCookie = ((Response) responses).getCookie(cookieName);
-                isCheckOk &= assertionHandler.assertion(isBlocking, "assertEquals", logUtils.getTestCaseDetails() + "check on cookie '" + cookieName + "'-- ",
-                        currentCookie, cookieExpectedValue);
+                isCheckOk &= assertionHandler.assertEquals(isBlocking, currentCookie, cookieExpectedValue,
+                    () -> logUtils.getTestCaseDetails() + "check on cookie '" + cookieName + "'-- ");
             }
         }
         return isCheckOk;
@@ -265,7 +269,8 @@ public class BasicChecks {
 
     /**
      * This method reads all the EXPECTS_JSON_ELEMENT block from the json input
-     * file and considers all its internal "fieldCheck" blocks.
+     * file and considers all its internal "fieldCheck" blocks, compiled in the
+     * {@link CheckPlan} of the test case.
      * @param testCaseParams it is the map representing the json input file.
      */
     private boolean fieldChecks(Map testCaseParams) {
@@ -276,18 +281,14 @@ public class BasicChecks {
         boolean isBlocking = TestSuiteHandler.getInstance().getTestCaseUtils().getSystemParamOnBlocking();
         Map<String, Object> expectedParams = (Map<String, Object>) testCaseParams.get(EXPECTS_JSON_ELEMENT);
         if (expectedParams.containsKey(FIELD_CHECK_JSON_ELEMENT)) {
-            List<Map<String, Object>> fieldCheckMaps = (ArrayList<Map<String, Object>>) expectedParams.get(FIELD_CHECK_JSON_ELEMENT);
+            List<FieldCheck> fieldChecks = CheckPlan.current().getFieldChecks((List) expectedParams.get(FIELD_CHECK_JSON_ELEMENT));
 
-            for (Map<String, Object> fieldCheck : fieldCheckMaps) {
-                String checkBlockdescription = "";
-                if (fieldCheck.containsKey(DESCRIPTION_JSON_ELEMENT)) {
-                    checkBlockdescription = (String) fieldCheck.get(DESCRIPTION_JSON_ELEMENT);
-                }
+            for (FieldCheck fieldCheck : fieldChecks) {
                 boolean isConditionVerified = true;
-                logUtils.trace("SINGLE CHECK BLOCK {}", fieldCheck.toString());
-                if (fieldCheck.containsKey(CONDITION_JSON_ELEMENT)) {
-                    logUtils.debug("{} --> There are some conditions for this check!", checkBlockdescription);
-                    isConditionVerified = conditionVerification((ArrayList<Object>) fieldCheck.get(CONDITION_JSON_ELEMENT), checkBlockdescription);
+                logUtils.trace("SINGLE CHECK BLOCK {}", fieldCheck);
+                if (!fieldCheck.getConditions().isEmpty()) {
+                    logUtils.debug("{} --> There are some conditions for this check!", getCheckDescription(fieldCheck));
+                    isConditionVerified = conditionVerification(fieldCheck.getConditions(), getCheckDescription(fieldCheck));
                 }
                 if (isConditionVerified) {
                     isCheckOk &= singleBlockCheck(isBlocking, fieldCheck);
@@ -300,23 +301,14 @@ public class BasicChecks {
     }
 
     /**
-     * Retireving of the MANDATORY "description" field present in each check
+     * Retireving of the "description" field present in each check
      * block.
      *
-     * @param fieldCheck it is the map representing the single check block from
-     * the json input file.
-     * @return the string with the check description
+     * @param fieldCheck it is the compiled check block from the json input file.
+     * @return the string with the check description, empty if it is not present
      */
-    private String getCheckDescription(Map fieldCheck) {
-        String description = "";
-        try {
-            description = (String) fieldCheck.get(DESCRIPTION_JSON_ELEMENT);
-        } catch (Exception oEx) {
-            logUtils.error("Exception: class {}, cause {}, message {}",
-                    oEx.getClass(), oEx.getCause(), oEx.getLocalizedMessage());
-            throw new HeatException(logUtils.getExceptionDetails() + "It is not possible to retrieve the description of the check");
-        }
-        return description;
+    private String getCheckDescription(FieldCheck fieldCheck) {
+        return fieldCheck.getDescription() != null ? fieldCheck.getDescription() : "";
     }
 
     /**
@@ -324,19 +316,18 @@ public class BasicChecks {
      * real checks; If all the conditions are ok, then the check will be run, no
      * otherwise.
      *
-     * @param conditionArray array of the objects containing the conditions to
-     * check
+     * @param conditions the compiled conditions to check
      * @return true if all the conditions are ok, false otherwise
      */
-    private boolean conditionVerification(ArrayList<Object> conditionArray, String checkBlockDescription) {
+    private boolean conditionVerification(List<FieldCheck> conditions, String checkBlockDescription) {
         boolean isConditionVerified = true;
         logUtils.debug("For the check '{}', there are {} conditions to verify",
-                checkBlockDescription, conditionArray.size());
-        logUtils.trace("{}", conditionArray.toString());
-        Iterator itr = conditionArray.iterator();
+                checkBlockDescription, conditions.size());
+        logUtils.trace("{}", conditions);
+        Iterator<FieldCheck> itr = conditions.iterator();
         while (itr.hasNext()) {
             logUtils.debug("### Condition: ");
-            isConditionVerified = isConditionVerified && singleBlockCheck(false, (Map<String, Object>) itr.next());
+            isConditionVerified = isConditionVerified && singleBlockCheck(false, itr.next());
         }
         logUtils.debug("Conditions verified '{}'", isConditionVerified);
         return isConditionVerified;
@@ -351,21 +342,14 @@ public class BasicChecks {
      * all the test case checks will be executed (if one of the checks will
      * fail, the test case will be 'red' but the report will show all the
      * results about all the checks).
-     * @param fieldCheck it is the map representing the single check block from
-     * the json input file.
+     * @param fieldCheck it is the compiled check block from the json input file.
      * @return true if all the checks are ok, false otherwise
      */
-    private boolean singleBlockCheck(boolean isBlocking, Map<String, Object> fieldCheck) {
+    private boolean singleBlockCheck(boolean isBlocking, FieldCheck fieldCheck) {
         boolean checkResult = true;
         try {
-            logUtils.trace("SINGLE BLOCK CHECK {}", fieldCheck.toString());
-            if (fieldCheck.containsKey(ACTUAL_VALUE_JSON_ELEMENT) && fieldCheck.containsKey(EXPECTED_VALUE_JSON_ELEMENT)) {
-                checkResult = executeCheck(isBlocking, fieldCheck, responses);
-            } else {
-                logUtils.error("modality not still supported: {}", fieldCheck.toString());
-                throw new HeatException(logUtils.getExceptionDetails()
-                        + "Not supported modality for the check '" + getCheckDescription(fieldCheck) + "'");
-            }
+            logUtils.trace("SINGLE BLOCK CHECK {}", fieldCheck);
+            checkResult = executeCheck(isBlocking, fieldCheck, responses);
         } catch (Exception oEx) {
             logUtils.error("Exception: class {}, cause {}, message {}",
                     oEx.getClass(), oEx.getCause(), oEx.getLocalizedMessage());
@@ -391,6 +375,21 @@ public class BasicChecks {
      * @return true if the check is ok, false otherwise
      */
     public boolean executeCheck(boolean isBlocking, Map fieldToCheck, Object responses) {
+        return executeCheck(isBlocking, FieldCheck.compile(fieldToCheck), responses);
+    }
+
+    /**
+     * Method that executes a compiled check block.
+     *
+     * @param isBlocking boolean. If it is true, if the check fails, the test
+     * case will fail without executing the following checks. If it is false,
+     * all the test case checks will be executed.
+     * @param fieldCheck it is the compiled check block from the json input file.
+     * @param responses it is the response (or the response map, in compare mode)
+     * retrieved after the request to the service under test
+     * @return true if the check is ok, false otherwise
+     */
+    public boolean executeCheck(boolean isBlocking, FieldCheck fieldCheck, Object responses) {
         if (responses.getClass().equals(Response.class)) {
             logUtils.trace("BasicChecks - executeCheck --> 'responses' is a single response");
             this.responses = (Response) responses;
@@ -399,7 +398,7 @@ public class BasicChecks {
             this.responses = responses;
         }
 
-        OperationHandler operationHandler = new OperationHandler(fieldToCheck, this.responses);
+        OperationHandler operationHandler = new OperationHandler(fieldCheck, this.responses);
         operationHandler.setOperationBlocking(isBlocking);
         operationHandler.setFlowOutputParameters(retrievedParameters);
         return operationHandler.execute();
@@ -15,14 +15,28 @@
  */
 package com.hotels.heat.core.checks;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
 
 import org.testng.ITestContext;
 
 import com.hotels.heat.core.handlers.PlaceholderHandler;
+import com.hotels.heat.core.handlers.PlaceholderTemplate;
 import com.hotels.heat.core.handlers.TestSuiteHandler;
+import com.hotels.heat.core.runner.TestCaseContext;
 import com.hotels.heat.core.specificexception.HeatException;
+import com.hotels.heat.core.utils.HeatExecutor;
+import com.hotels.heat.core.utils.LatencyRecorder;
+import com.hotels.heat.core.utils.RestAssuredRequestMaker;
 import com.hotels.heat.core.utils.TestCaseUtils;
 import com.hotels.heat.core.utils.log.LoggingUtils;
 
@@ -37,10 +51,15 @@ public class BasicFlowChecks extends BasicMultipleChecks {
     public static final String OUTPUT_PARAMS_JSON_ELEMENT = "outputParams";
     private static final String FIELD_DELAY_BEFORE = "delayBefore";
     private static final String FIELD_DELAY_AFTER = "delayAfter";
+    private static final String FIELD_DEPENDS_ON = "dependsOn";
+
+    public static final String SYS_PROP_PARALLEL_FLOW_STEPS = "parallelFlowSteps";
+    public static final String SYS_PROP_MAX_PARALLEL_STEPS = "flowMaxParallelSteps";
+    public static final int DEFAULT_MAX_PARALLEL_STEPS = 8;
 
     private ITestContext context;
 
-    private final Map<Integer, Map<String, String>> retrievedParameters = new HashMap();
+    private final Map<Integer, Map<String, String>> retrievedParameters = new ConcurrentHashMap();
 
     public BasicFlowChecks(LoggingUtils logUtils, TestCaseUtils tcUtils, ITestContext context) {
         super(context);
@@ -49,6 +68,8 @@ public class BasicFlowChecks extends BasicMultipleChecks {
 
     /**
      * This method retrieves info from the json input objects.
+     * By default the steps run one after the other, in 'stepNumber' order. If the 'parallelFlowSteps' system property is 'true',
+     * each step runs as soon as the steps it depends on are completed (see {@link #getStepDependencies()}).
      * @param testCaseParamsInput the input parameters to define a test case
      * @return Map webapp name, response from the specified webapp
      */
@@ -59,46 +80,160 @@ public class BasicFlowChecks extends BasicMultipleChecks {
             compactInfoToCompare(testCaseParamsInput);
             if (getIsRunnable()) {
                 getLogUtils().trace("number of blocks to load: {}", getHttpMethods().size());
-                Map<String, Object> singleObjects = getInputJsonObjs();
-                getSteps().forEach((blockID, singleBlockName) -> {
-                    getLogUtils().debug("loading the block id {}: '{}'", blockID, singleBlockName);
-                    Map singleBlockObj = (Map) singleObjects.get(singleBlockName);
-
-                    //this map has to be taken from the "beforeStep" section
-                    Map<String, Object> stepPreloadedVariables = loadMapFromTestStep("beforeStep", singleBlockObj);
-                    TestSuiteHandler.getInstance().getTestCaseUtils().setBeforeStepVariables(stepPreloadedVariables); //add before Step variables
-
-                    if (!retrievedParameters.isEmpty()) {
-                        // this retrieves parameters exposed with 'output' from previous steps, if present.
-                        singleBlockObj = processJsonBlockWithPreviousStepsParameters(singleBlockObj);
-                    }
+                if (Boolean.parseBoolean(System.getProperty(SYS_PROP_PARALLEL_FLOW_STEPS, "false"))) {
+                    respRetrieved.putAll(executeStepsByDependencies());
+                } else {
+                    getSteps().forEach((blockID, singleBlockName) -> respRetrieved.put(singleBlockName, executeStep(blockID, singleBlockName, null)));
+                }
+            }
+        } catch (Exception oEx) {
+            getLogUtils().error("Exception message: '{}'", oEx.getLocalizedMessage());
+            throw new HeatException(getLogUtils().getExceptionDetails() + "message: " + oEx.getClass()
+                    + " / cause: " + oEx.getCause() + " / message: " + oEx.getLocalizedMessage());
+        }
+        return respRetrieved;
+    }
 
-                    addDelayOnStep(singleBlockObj, FIELD_DELAY_BEFORE);
+    /**
+     * Executes a single step of the flow.
+     * @param blockID the step number
+     * @param singleBlockName the name of the step
+     * @param requestMaker request maker of the step when the steps run concurrently, null to use the one of the test case
+     * @return the response of the step
+     */
+    Response executeStep(Integer blockID, String singleBlockName, RestAssuredRequestMaker requestMaker) {
+        getLogUtils().debug("loading the block id {}: '{}'", blockID, singleBlockName);
+        Map singleBlockObj = (Map) getInputJsonObjs().get(singleBlockName);
 
-                    Response rspStep = retrieveSingleBlockRsp(singleBlockName, singleBlockObj);
-                    respRetrieved.put(singleBlockName, rspStep);
-                    Map<String, Object> inputJsonBlock = (Map<String, Object>) getInputJsonObjs().get(singleBlockName);
-                    getLogUtils().debug("starting common validation on the block n. {}: '{}'", blockID, singleBlockName);
-                    stepValidation(rspStep, blockID, inputJsonBlock);
+        //this map has to be taken from the "beforeStep" section
+        Map<String, Object> stepPreloadedVariables = loadMapFromTestStep("beforeStep", singleBlockObj);
+        TestSuiteHandler.getInstance().getTestCaseUtils().setBeforeStepVariables(stepPreloadedVariables); //add before Step variables
 
-                    getLogUtils().debug("Retrieving the output parameters");
-                    if (inputJsonBlock.containsKey(OUTPUT_PARAMS_JSON_ELEMENT)) {
-                        extractOutputDataFromResponse(blockID, inputJsonBlock, rspStep);
-                    }
+        try {
+            if (!retrievedParameters.isEmpty()) {
+                // this retrieves parameters exposed with 'output' from previous steps, if present.
+                Map blockToProcess = singleBlockObj;
+                singleBlockObj = LatencyRecorder.getInstance().time((String) singleBlockObj.get(WEBAPP_NAME_JSON_ELEMENT),
+                    getLatencyStepName(singleBlockName), LatencyRecorder.Phase.RESOLVE, () -> processJsonBlockWithPreviousStepsParameters(blockToProcess));
+            }
 
-                    addDelayOnStep(singleBlockObj, FIELD_DELAY_AFTER);
-                    TestSuiteHandler.getInstance().getTestCaseUtils().getBeforeStepVariables().clear();  //reset before Step variables
-                });
+            addDelayOnStep(singleBlockObj, FIELD_DELAY_BEFORE);
+
+            Response rspStep = requestMaker == null ? retrieveSingleBlockRsp(singleBlockName, singleBlockObj)
+                : retrieveSingleBlockRsp(singleBlockName, singleBlockObj, requestMaker);
+            Map<String, Object> inputJsonBlock = (Map<String, Object>) getInputJsonObjs().get(singleBlockName);
+            getLogUtils().debug("starting common validation on the block n. {}: '{}'", blockID, singleBlockName);
+            LatencyRecorder.getInstance().time((String) singleBlockObj.get(WEBAPP_NAME_JSON_ELEMENT), getLatencyStepName(singleBlockName),
+                LatencyRecorder.Phase.CHECKS, () -> stepValidation(rspStep, blockID, inputJsonBlock));
 
+            getLogUtils().debug("Retrieving the output parameters");
+            if (inputJsonBlock.containsKey(OUTPUT_PARAMS_JSON_ELEMENT)) {
+                extractOutputDataFromResponse(blockID, inputJsonBlock, rspStep);
             }
-        } catch (Exception oEx) {
-            getLogUtils().error("Exception message: '{}'", oEx.getLocalizedMessage());
-            throw new HeatException(getLogUtils().getExceptionDetails() + "message: " + oEx.getClass()
-                    + " / cause: " + oEx.getCause() + " / message: " + oEx.getLocalizedMessage());
+
+            addDelayOnStep(singleBlockObj, FIELD_DELAY_AFTER);
+            return rspStep;
+        } finally {
+            // the variables of a failed step must not leak into the next step run by this thread
+            TestSuiteHandler.getInstance().getTestCaseUtils().getBeforeStepVariables().clear();  //reset before Step variables
         }
+    }
+
+    /**
+     * Runs the steps concurrently, respecting their dependencies: each step waits for the completion (delays included) of the steps
+     * it depends on. If a step fails, the steps depending on it fail too, while the independent ones go on.
+     * The method returns when all the steps are completed, throwing the failure of the first failed step, in 'stepNumber' order.
+     * @return Map step name, response of the step
+     */
+    Map<String, Response> executeStepsByDependencies() {
+        Map<Integer, Set<Integer>> dependencies = getStepDependencies();
+        getLogUtils().debug("dependencies of the steps: {}", dependencies);
+
+        Map<Integer, CompletableFuture<Void>> stepsCompletion = new HashMap();
+        getSteps().keySet().forEach(blockID -> stepsCompletion.put(blockID, new CompletableFuture()));
+
+        Map<Integer, Callable<Response>> stepTasks = new LinkedHashMap();
+        getSteps().forEach((blockID, singleBlockName) -> stepTasks.put(blockID, () -> {
+            boolean isStepOk = false;
+            try {
+                dependencies.get(blockID).forEach(dependency -> HeatExecutor.getResult(stepsCompletion.get(dependency)));
+                if (TestCaseContext.current() != null) {
+                    // the flow step number of the logs has to be the one of this step
+                    TestCaseContext.attach(TestCaseContext.current().copy());
+                }
+                // the request maker keeps the state of the request in progress, so concurrent steps cannot share it
+                Response rspStep = executeStep(blockID, singleBlockName, new RestAssuredRequestMaker());
+                isStepOk = true;
+                return rspStep;
+            } finally {
+                if (isStepOk) {
+                    stepsCompletion.get(blockID).complete(null);
+                } else {
+                    stepsCompletion.get(blockID).completeExceptionally(new HeatException(getLogUtils().getExceptionDetails()
+                        + "step " + blockID + " not completed"));
+                }
+            }
+        }));
+
+        Map<Integer, Future<Response>> stepResponses = HeatExecutor.getInstance().submitAll(stepTasks,
+            TestCaseUtils.getIntSystemParam(SYS_PROP_MAX_PARALLEL_STEPS, DEFAULT_MAX_PARALLEL_STEPS));
+        // no step has to be still running when the test case ends
+        CompletableFuture.allOf(stepsCompletion.values().toArray(new CompletableFuture[0])).exceptionally(oEx -> null).join();
+
+        Map<String, Response> respRetrieved = new HashMap();
+        stepResponses.forEach((blockID, stepResponse) -> respRetrieved.put(getSteps().get(blockID), HeatExecutor.getResult(stepResponse)));
         return respRetrieved;
     }
 
+    /**
+     * Builds the dependencies among the steps of the flow. A step depends on the steps whose output parameters it uses
+     * ('${getStep(N).getOutputParam(NAME)}' placeholders, in any field of the step) and on the steps listed in its 'dependsOn' field,
+     * useful when a step relies on something done by another step without using its output (i.e. a resource created by a POST).
+     * Only previous steps are taken into account, as when the steps run sequentially.
+     * @return Map step number, steps it depends on
+     */
+    Map<Integer, Set<Integer>> getStepDependencies() {
+        Map<Integer, Set<Integer>> dependencies = new HashMap();
+        getSteps().forEach((blockID, singleBlockName) -> {
+            Map<String, Object> singleBlockObj = (Map<String, Object>) getInputJsonObjs().get(singleBlockName);
+            Set<Integer> stepDependencies = new TreeSet();
+            collectStepReferences(singleBlockObj, stepDependencies);
+            if (singleBlockObj.containsKey(FIELD_DEPENDS_ON)) {
+                Object dependsOn = singleBlockObj.get(FIELD_DEPENDS_ON);
+                List<Object> dependsOnList = dependsOn instanceof List ? (List<Object>) dependsOn : Arrays.asList(dependsOn.toString().split(","));
+                dependsOnList.forEach(dependency -> {
+                    try {
+                        stepDependencies.add(Integer.parseInt(dependency.toString().trim()));
+                    } catch (NumberFormatException nfe) {
+                        throw new HeatException(getLogUtils().getExceptionDetails() + "test not runnable: 'dependsOn' field of step "
+                            + blockID + " doesn't contain Integer values");
+                    }
+                });
+            }
+            stepDependencies.removeIf(dependency -> dependency >= blockID || !getSteps().containsKey(dependency));
+            dependencies.put(blockID, stepDependencies);
+        });
+        return dependencies;
+    }
+
+    private void collectStepReferences(Object jsonElement, Set<Integer> stepReferences) {
+        if (jsonElement instanceof Map) {
+            ((Map<String, Object>) jsonElement).values().forEach(value -> collectStepReferences(value, stepReferences));
+        } else if (jsonElement instanceof List) {
+            ((List<Object>) jsonElement).forEach(value -> collectStepReferences(value, stepReferences));
+        } else if (jsonElement instanceof String) {
+            PlaceholderTemplate.compile((String) jsonElement).getNodes().stream()
+                .filter(node -> node.getType() == PlaceholderTemplate.PlaceholderType.GET_STEP)
+                .forEach(node -> {
+                    try {
+                        stepReferences.add(Integer.parseInt(node.getName().trim()));
+                    } catch (NumberFormatException nfe) {
+                        getLogUtils().warning("step number '{}' not valid in '{}'", node.getName(), node.getText());
+                    }
+                });
+        }
+    }
+
     private Map<String,Object> loadMapFromTestStep(String elementName, Map testStep) {
         Map<String, Object> loadedMap = new HashMap();
         if (testStep.containsKey(elementName) && testStep.get(elementName) != null) {
@@ -138,7 +273,9 @@ public class BasicFlowChecks extends BasicMultipleChecks {
         BasicChecks basicChecks = new BasicChecks(getContext());
         basicChecks.setResponse(stepResponse);
         getLogUtils().setFlowStep(stepNumber);
-        getLogUtils().debug("response: '{}'", stepResponse.asString());
+        if (getLogUtils().isDebugEnabled()) {
+            getLogUtils().debug("response: '{}'", stepResponse.asString());
+        }
         basicChecks.setFlowOutputParameters(retrievedParameters);
         basicChecks.commonTestValidation(inputJsonBlock);
     }
@@ -15,20 +15,27 @@
  */
 package com.hotels.heat.core.checks;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.testng.ITestContext;
 
 import com.hotels.heat.core.environment.EnvironmentHandler;
 import com.hotels.heat.core.handlers.TestSuiteHandler;
 import com.hotels.heat.core.runner.TestBaseRunner;
+import com.hotels.heat.core.runner.TestCaseContext;
 import com.hotels.heat.core.specificexception.HeatException;
+import com.hotels.heat.core.utils.HeatExecutor;
+import com.hotels.heat.core.utils.LatencyRecorder;
 import com.hotels.heat.core.utils.RestAssuredRequestMaker;
 import com.hotels.heat.core.utils.TestCaseUtils;
 import com.hotels.heat.core.utils.TestRequest;
@@ -48,9 +55,14 @@ public class BasicMultipleChecks {
     private static final String E2E_FLOW_STEPS_JSON_ELEMENT = "e2eFlowSteps";
     private static final String OBJECTS_TO_COMPARE_JSON_ELEMENT = "objectsToCompare";
     private static final String OBJECT_NAME_JSON_ELEMENT = "objectName";
-    private static final String WEBAPP_NAME_JSON_ELEMENT = "webappName";
+    protected static final String WEBAPP_NAME_JSON_ELEMENT = "webappName";
     private static final String URL_JSON_ELEMENT = "url";
 
+    public static final String SYS_PROP_MAX_PARALLEL_BLOCKS = "compareMaxParallelBlocks";
+    public static final int DEFAULT_MAX_PARALLEL_BLOCKS = 8;
+    public static final String SYS_PROP_BLOCK_TIMEOUT = "compareBlockTimeout";
+    public static final int DEFAULT_BLOCK_TIMEOUT = 0;
+
     private final boolean isRunnableTest = true;
 
     private final Map<Integer, String> steps;
@@ -61,6 +73,7 @@ public class BasicMultipleChecks {
     private final ITestContext context;
 
     private Map<String, Object> inputJsonObjs = new HashMap();
+    private final Map<String, Long> blockLatencies = new ConcurrentHashMap();
     private RestAssuredRequestMaker restAssuredMsg;
 
 
@@ -151,6 +164,9 @@ public class BasicMultipleChecks {
 
     /**
      * This method retrieves info from the JSON input objects.
+     * The requests of the blocks are independent, so they are executed concurrently (at most 'compareMaxParallelBlocks' at the same time)
+     * and the method waits for all of them before returning. The time spent by each block is available in {@link #getBlockLatencies()}.
+     * If some blocks fail (or do not answer in 'compareBlockTimeout' ms), the test case fails once all the blocks are completed.
      *
      * @param testCaseParamsInput the input parameters to define a test case
      * @return Map webapp name, response from the specified webapp
@@ -162,16 +178,35 @@ public class BasicMultipleChecks {
 
             if (isRunnableTest) {
                 this.logUtils.trace("number of blocks to load: {}", httpMethods.size());
-                httpMethods.entrySet().stream().map((entry) -> entry.getKey()).forEach((serviceId) -> {
-                    Response rsp = retrieveSingleBlockRsp(serviceId);
-
-                    if (rsp == null) {
-                        this.logUtils.debug("response for '{}' : null", serviceId);
-                    } else {
-                        this.logUtils.debug("response for '{}': '{}'", serviceId, rsp.asString());
+                Map<String, Callable<Response>> blockRequests = new LinkedHashMap();
+                httpMethods.keySet().forEach(serviceId -> blockRequests.put(serviceId, () -> retrieveTimedBlockRsp(serviceId)));
+                Map<String, Future<Response>> blockResponses = HeatExecutor.getInstance().submitAll(blockRequests,
+                    TestCaseUtils.getIntSystemParam(SYS_PROP_MAX_PARALLEL_BLOCKS, DEFAULT_MAX_PARALLEL_BLOCKS));
+                long blockTimeout = TestCaseUtils.getIntSystemParam(SYS_PROP_BLOCK_TIMEOUT, DEFAULT_BLOCK_TIMEOUT);
+
+                Map<String, String> blockFailures = new LinkedHashMap();
+                blockResponses.forEach((serviceId, futureRsp) -> {
+                    try {
+                        Response rsp = HeatExecutor.getResult(futureRsp, blockTimeout);
+                        if (rsp == null) {
+                            this.logUtils.debug("response for '{}' : null", serviceId);
+                        } else if (this.logUtils.isDebugEnabled()) {
+                            this.logUtils.debug("response for '{}': '{}'", serviceId, rsp.asString());
+                        }
+                        respRetrieved.put(serviceId, rsp);
+                    } catch (Exception | HeatException oEx) {
+                        this.logUtils.error("block '{}' not retrieved: '{}'", serviceId, oEx.getLocalizedMessage());
+                        blockFailures.put(serviceId, oEx.getLocalizedMessage());
                     }
-                    respRetrieved.put(serviceId, rsp);
                 });
+                this.logUtils.debug("latency of the blocks (ms): {}", blockLatencies);
+                if (!blockFailures.isEmpty()) {
+                    // the other blocks are completed anyway, but the test case cannot be checked without all its responses
+                    StringBuilder failures = new StringBuilder();
+                    blockFailures.forEach((serviceId, cause) -> failures.append(failures.length() > 0 ? "; " : "")
+                        .append("block '").append(serviceId).append("': '").append(cause).append("'"));
+                    throw new HeatException(this.logUtils.getExceptionDetails() + "blocks not retrieved -- " + failures);
+                }
             }
         } catch (Exception oEx) {
             this.logUtils.debug("Exception message: '{}'", oEx.getLocalizedMessage());
@@ -179,9 +214,14 @@ public class BasicMultipleChecks {
         return respRetrieved;
     }
 
-    private Response retrieveSingleBlockRsp(String serviceId) {
-        Map singleInputJsonObj = (Map) inputJsonObjs.get(serviceId);
-        return retrieveSingleBlockRsp(serviceId, singleInputJsonObj);
+    Response retrieveTimedBlockRsp(String serviceId) {
+        long startTime = System.nanoTime();
+        try {
+            // each block has its own request maker, since the blocks run concurrently
+            return retrieveSingleBlockRsp(serviceId, (Map) inputJsonObjs.get(serviceId), new RestAssuredRequestMaker());
+        } finally {
+            blockLatencies.put(serviceId, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        }
     }
 
     /**
@@ -192,23 +232,47 @@ public class BasicMultipleChecks {
      * @return the Response object
      */
     protected Response retrieveSingleBlockRsp(String serviceId, Map singleInputJsonObj) {
-        EnvironmentHandler eh = TestSuiteHandler.getInstance().getEnvironmentHandler();
-        Method webappHttpMethod = Method.valueOf(httpMethods.get(serviceId));
-        String webappPath = paths.get(serviceId);
-        this.logUtils.trace("path of block '{}': '{}'", serviceId, webappPath);
         if (restAssuredMsg == null) {
             throw new HeatException(this.logUtils.getExceptionDetails() + "restAssuredMsg obj null");
         }
-        restAssuredMsg.setBasePath(eh.getEnvironmentUrl((String) singleInputJsonObj.get(WEBAPP_NAME_JSON_ELEMENT)));
-        TestRequest testRequest = restAssuredMsg.buildRequestByParams(webappHttpMethod, singleInputJsonObj);
+        return HeatExecutor.getInstance().call(() -> retrieveSingleBlockRsp(serviceId, singleInputJsonObj, restAssuredMsg));
+    }
 
-        testRequest.getHeadersParams().put("X-Heat-Test-Id", context.getName() + "." + context.getAttribute(TestBaseRunner.ATTR_TESTCASE_ID));
+    /**
+     * Perform a test call of a single block with the given request maker, on the current thread.
+     *
+     * @param serviceId identifier of the test case
+     * @param singleInputJsonObj parameters of test case as Map
+     * @param requestMaker the request maker to use, not shared with other blocks running at the same time
+     * @return the Response object
+     */
+    protected Response retrieveSingleBlockRsp(String serviceId, Map singleInputJsonObj, RestAssuredRequestMaker requestMaker) {
+        EnvironmentHandler eh = TestSuiteHandler.getInstance().getEnvironmentHandler();
+        Method webappHttpMethod = Method.valueOf(httpMethods.get(serviceId));
+        String webappPath = paths.get(serviceId);
+        this.logUtils.trace("path of block '{}': '{}'", serviceId, webappPath);
+        String webappName = (String) singleInputJsonObj.get(WEBAPP_NAME_JSON_ELEMENT);
+        requestMaker.setBasePath(eh.getEnvironmentUrl(webappName));
+        requestMaker.setLatencyLabels(webappName, getLatencyStepName(serviceId));
+        TestRequest testRequest = requestMaker.buildRequestByParams(webappHttpMethod, singleInputJsonObj);
+
+        TestCaseContext tcContext = TestCaseContext.current();
+        Object testCaseId = tcContext != null ? tcContext.getTestCaseId() : context.getAttribute(TestBaseRunner.ATTR_TESTCASE_ID);
+        testRequest.getHeadersParams().put("X-Heat-Test-Id", context.getName() + "." + testCaseId);
         Optional.ofNullable(singleInputJsonObj.get(TestCaseUtils.JSON_FIELD_STEP_NUMBER))
             .map(Object::toString)
             .ifPresent(step -> testRequest.getHeadersParams().put("X-Heat-Test-Step", step));
 
-        Response rsp = restAssuredMsg.executeTestRequest(testRequest);
-        return rsp;
+        return requestMaker.executeTestRequest(testRequest);
+    }
+
+    /**
+     * Name of a block used to record the latency of its phases (see {@link LatencyRecorder}).
+     * @param serviceId identifier of the block
+     * @return the name of the block, 'suiteName.blockName'
+     */
+    protected String getLatencyStepName(String serviceId) {
+        return context.getName() + "." + serviceId;
     }
 
     /**
@@ -220,14 +284,13 @@ public class BasicMultipleChecks {
     public void expects(boolean isBlocking, Map testCaseParams, Map<String, Response> mapServiceIdResponse) {
         if (testCaseParams.containsKey("expects")) {
 
-            List<Object> expectedObjList = (List<Object>) testCaseParams.get("expects");
-            expectedObjList.forEach(item-> {
-                Map<String, Object> singleBlockCheck = (Map<String, Object>) item;
-                String checkStepDescription = getCheckDescription(singleBlockCheck);
+            List<FieldCheck> expectedChecks = CheckPlan.current().getFieldChecks((List) testCaseParams.get("expects"));
+            expectedChecks.forEach(singleBlockCheck -> {
+                String checkStepDescription = singleBlockCheck.getDescription();
                 boolean conditionOk = true;
-                if (singleBlockCheck.containsKey("condition")) {
+                if (!singleBlockCheck.getConditions().isEmpty()) {
                     this.logUtils.debug("THERE IS A CONDITION");
-                    conditionOk = conditionVerification((ArrayList<Object>) singleBlockCheck.get("condition"), mapServiceIdResponse, checkStepDescription + "(condition)");
+                    conditionOk = conditionVerification(singleBlockCheck.getConditions(), mapServiceIdResponse, checkStepDescription + "(condition)");
                 }
                 if (conditionOk) {
                     singleBlockCheck(isBlocking, singleBlockCheck, mapServiceIdResponse, checkStepDescription);
@@ -240,34 +303,21 @@ public class BasicMultipleChecks {
 
     }
 
-    private String getCheckDescription(Map fieldCheck) {
-        String description = "";
-        try {
-            description = (String) fieldCheck.get("description");
-        } catch (Exception oEx) {
-            this.logUtils.error("Exception: class {}, cause {}, message {}",
-                    oEx.getClass(), oEx.getCause(), oEx.getLocalizedMessage());
-            throw new HeatException(this.logUtils.getExceptionDetails() + "It is not possible to retrieve the description of the check");
-        }
-        return description;
-    }
-
-
-    private boolean conditionVerification(ArrayList<Object> conditionArray, Map<String, Response> mapServiceIdResponse, String checkStepDescription) {
+    private boolean conditionVerification(List<FieldCheck> conditions, Map<String, Response> mapServiceIdResponse, String checkStepDescription) {
         boolean isConditionVerified = true;
-        this.logUtils.debug("There are {} conditions to verify", conditionArray.size());
-        this.logUtils.debug("{}", conditionArray.toString());
-        Iterator itr = conditionArray.iterator();
+        this.logUtils.debug("There are {} conditions to verify", conditions.size());
+        this.logUtils.debug("{}", conditions);
+        Iterator<FieldCheck> itr = conditions.iterator();
         while (itr.hasNext()) {
-            isConditionVerified = isConditionVerified && singleBlockCheck(false, (Map<String, Object>) itr.next(), mapServiceIdResponse, checkStepDescription);
+            isConditionVerified = isConditionVerified && singleBlockCheck(false, itr.next(), mapServiceIdResponse, checkStepDescription);
         }
         this.logUtils.debug("{} Condition verified '{}'", checkStepDescription, isConditionVerified);
         return isConditionVerified;
     }
 
-    private boolean singleBlockCheck(boolean isBlocking, Map<String, Object> blockToCheck, Map<String, Response> mapServiceIdResponse, String checkStepDescription) {
+    private boolean singleBlockCheck(boolean isBlocking, FieldCheck blockToCheck, Map<String, Response> mapServiceIdResponse, String checkStepDescription) {
         boolean isCheckOk = true;
-        this.logUtils.trace("{} block: {}", checkStepDescription, blockToCheck.toString());
+        this.logUtils.trace("{} block: {}", checkStepDescription, blockToCheck);
         BasicChecks basicChecks = new BasicChecks(this.context);
         isCheckOk = basicChecks.executeCheck(isBlocking, blockToCheck, mapServiceIdResponse);
 
@@ -295,4 +345,11 @@ public class BasicMultipleChecks {
         return inputJsonObjs;
     }
 
+    /**
+     * @return the time (in milliseconds) spent to retrieve the response of each block, keyed by block name
+     */
+    public Map<String, Long> getBlockLatencies() {
+        return blockLatencies;
+    }
+
 }
@@ -0,0 +1,132 @@
+/**
+ * Copyright (C) 2015-2017 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.checks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.hotels.heat.core.runner.TestBaseRunner;
+import com.hotels.heat.core.runner.TestCaseContext;
+import com.hotels.heat.core.specificexception.HeatException;
+
+
+/**
+ * The compiled check blocks of a test case: all its 'fieldCheck' arrays (single mode and flow mode steps) and the 'expects' array
+ * of the compare mode, compiled in {@link FieldCheck}s when the test case is loaded.
+ * The compiled checks are bound to the arrays of the test case they come from, so they are found again at execution time, when
+ * the placeholders of the same arrays have been resolved. Arrays not loaded with the test case (i.e. built at run time) are
+ * compiled when they are executed.
+ */
+public final class CheckPlan {
+
+    private static final CheckPlan EMPTY_PLAN = new CheckPlan(Collections.emptyMap(), null);
+
+    private final Map<List, List<FieldCheck>> compiledBlocks;
+    private final HeatException compileFailure;
+
+    private CheckPlan(Map<List, List<FieldCheck>> compiledBlocks, HeatException compileFailure) {
+        this.compiledBlocks = compiledBlocks;
+        this.compileFailure = compileFailure;
+    }
+
+    /**
+     * Compiles all the check blocks of a test case.
+     * @param testCase the test case, as read from the json input file
+     * @return the plan of the test case
+     * @throws HeatException if a check block is malformed
+     */
+    public static CheckPlan compile(Map testCase) {
+        Map<List, List<FieldCheck>> compiledBlocks = new IdentityHashMap();
+        try {
+            collectBlocks(testCase, compiledBlocks);
+        } catch (HeatException oEx) {
+            throw new HeatException("test case '" + testCase.get(TestBaseRunner.ATTR_TESTCASE_ID) + "' -- " + oEx.getMessage(), oEx);
+        }
+        return compiledBlocks.isEmpty() ? EMPTY_PLAN : new CheckPlan(compiledBlocks, null);
+    }
+
+    /**
+     * Plan of a test case whose check blocks cannot be compiled. The failure is kept in the plan and thrown by {@link #verify()}
+     * when the test case runs, so that it does not stop the loading of the other test cases of the suite.
+     * @param compileFailure the failure of the compilation
+     * @return the failed plan
+     */
+    public static CheckPlan failed(HeatException compileFailure) {
+        return new CheckPlan(Collections.emptyMap(), compileFailure);
+    }
+
+    /**
+     * Verifies that the check blocks of the test case have been compiled.
+     * @return the plan itself
+     * @throws HeatException the failure of the compilation, if the plan is a failed one
+     */
+    public CheckPlan verify() {
+        if (compileFailure != null) {
+            throw compileFailure;
+        }
+        return this;
+    }
+
+    /**
+     * Plan of the test case running on the current thread.
+     * @return the plan of the current test case, an empty plan if there is not any test case running on the current thread
+     */
+    public static CheckPlan current() {
+        TestCaseContext tcContext = TestCaseContext.current();
+        return tcContext != null && tcContext.getCheckPlan() != null ? tcContext.getCheckPlan() : EMPTY_PLAN;
+    }
+
+    /**
+     * Compiled checks of an array of check blocks.
+     * @param checkBlocks the array of check blocks
+     * @return the compiled checks, compiled now if the array has not been loaded with the test case
+     */
+    public List<FieldCheck> getFieldChecks(List checkBlocks) {
+        List<FieldCheck> fieldChecks = compiledBlocks.get(checkBlocks);
+        return fieldChecks != null ? fieldChecks : compileBlocks(checkBlocks);
+    }
+
+    private static void collectBlocks(Object element, Map<List, List<FieldCheck>> compiledBlocks) {
+        if (element instanceof Map) {
+            ((Map<Object, Object>) element).forEach((key, value) -> {
+                if (BasicChecks.EXPECTS_JSON_ELEMENT.equals(key)) {
+                    if (value instanceof List) {
+                        compiledBlocks.put((List) value, compileBlocks((List) value));
+                    } else if (value instanceof Map && ((Map) value).get(BasicChecks.FIELD_CHECK_JSON_ELEMENT) instanceof List) {
+                        List fieldCheckBlocks = (List) ((Map) value).get(BasicChecks.FIELD_CHECK_JSON_ELEMENT);
+                        compiledBlocks.put(fieldCheckBlocks, compileBlocks(fieldCheckBlocks));
+                    }
+                } else {
+                    collectBlocks(value, compiledBlocks);
+                }
+            });
+        } else if (element instanceof List) {
+            ((List<Object>) element).forEach(item -> collectBlocks(item, compiledBlocks));
+        }
+    }
+
+    private static List<FieldCheck> compileBlocks(List checkBlocks) {
+        List<FieldCheck> fieldChecks = new ArrayList(checkBlocks.size());
+        for (Object checkBlock : checkBlocks) {
+            fieldChecks.add(FieldCheck.compile(checkBlock));
+        }
+        return Collections.unmodifiableList(fieldChecks);
+    }
+
+}
@@ -0,0 +1,205 @@
+/**
+ * Copyright (C) 2015-2017 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.checks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.hotels.heat.core.handlers.OperationHandler;
+import com.hotels.heat.core.handlers.PlaceholderHandler;
+import com.hotels.heat.core.specificexception.HeatException;
+import com.hotels.heat.core.validations.CheckOperator;
+
+
+/**
+ * A check block of the json input file ('fieldCheck' element, or 'expects' element of the compare mode), compiled when the suite is loaded:
+ * its kind, operator, format and conditions are resolved once, and a malformed block is reported before any request is sent.
+ * The values of the block (description, actual and expected values) are read from the block at execution time, after the resolution
+ * of the placeholders of the test case, which updates the block in place.
+ */
+public final class FieldCheck {
+
+    private static final String DEFAULT_FORMAT_OF_TYPE_CHECK = "int";
+
+    /**
+     * Kinds of check blocks.
+     */
+    public enum Kind {
+        /** comparison between the actual value and a single expected value (or json path presence/absence). */
+        VALUE,
+        /** the actual value has to contain (or not to contain) all the expected values of a list. */
+        CONTAINS,
+        /** comparison between values of different responses (compare mode). */
+        COMPARE
+    }
+
+    private final Map<String, Object> block;
+    private final Kind kind;
+    private final CheckOperator operator;
+    private final String format;
+    private final List<FieldCheck> conditions;
+
+    private FieldCheck(Map<String, Object> block, Kind kind, CheckOperator operator, String format, List<FieldCheck> conditions) {
+        this.block = block;
+        this.kind = kind;
+        this.operator = operator;
+        this.format = format;
+        this.conditions = conditions;
+    }
+
+    /**
+     * Compiles a check block.
+     * @param checkBlock the check block of the json input file
+     * @return the compiled check
+     * @throws HeatException if the block is malformed
+     */
+    public static FieldCheck compile(Object checkBlock) {
+        if (!(checkBlock instanceof Map)) {
+            throw new HeatException("the check '" + checkBlock + "' has to be a json object");
+        }
+        Map<String, Object> block = (Map<String, Object>) checkBlock;
+        if (!block.containsKey(OperationHandler.JSON_ELEM_ACTUAL_VALUE) || !block.containsKey(OperationHandler.JSON_ELEM_EXPECTED_VALUE)) {
+            throw malformed(block, "'" + OperationHandler.JSON_ELEM_ACTUAL_VALUE + "' and '" + OperationHandler.JSON_ELEM_EXPECTED_VALUE
+                + "' are mandatory");
+        }
+        Object actualValue = block.get(OperationHandler.JSON_ELEM_ACTUAL_VALUE);
+        Object expectedValue = block.get(OperationHandler.JSON_ELEM_EXPECTED_VALUE);
+
+        Kind kind;
+        CheckOperator defaultOperator;
+        String defaultFormat = DEFAULT_FORMAT_OF_TYPE_CHECK;
+        if (actualValue instanceof Map && ((Map) actualValue).containsKey(OperationHandler.JSON_ELEM_ACTUAL_VALUE)) {
+            if (!(expectedValue instanceof Map) || !((Map) expectedValue).containsKey(OperationHandler.JSON_ELEM_ACTUAL_VALUE)) {
+                throw malformed(block, "the expected value of a comparison has to be an object with its own '"
+                    + OperationHandler.JSON_ELEM_ACTUAL_VALUE + "'");
+            }
+            if (block.get(OperationHandler.JSON_ELEM_DESCRIPTION) == null) {
+                throw malformed(block, "the '" + OperationHandler.JSON_ELEM_DESCRIPTION + "' of a comparison is mandatory");
+            }
+            kind = Kind.COMPARE;
+            defaultOperator = CheckOperator.EQUAL_TO;
+            defaultFormat = BasicMultipleChecks.DEFAULT_FORMAT_OF_TYPE_CHECK;
+        } else if (expectedValue instanceof String || expectedValue instanceof Map) {
+            if ((PlaceholderHandler.PLACEHOLDER_PRESENT.equals(expectedValue) || PlaceholderHandler.PLACEHOLDER_NOT_PRESENT.equals(expectedValue))
+                    && !actualValue.toString().contains(PlaceholderHandler.PATH_PLACEHOLDER)) {
+                throw malformed(block, "the presence of a field can be checked only on a '" + PlaceholderHandler.PATH_PLACEHOLDER
+                    + "'-style actual value");
+            }
+            kind = Kind.VALUE;
+            defaultOperator = CheckOperator.EQUALS_TO;
+        } else if (expectedValue instanceof List) {
+            for (Object expectedElement : (List) expectedValue) {
+                if (!(expectedElement instanceof String)) {
+                    throw malformed(block, "the expected values of a 'contains' check have to be strings");
+                }
+            }
+            kind = Kind.CONTAINS;
+            defaultOperator = CheckOperator.CONTAINS;
+        } else {
+            throw malformed(block, "expected value '" + expectedValue + "' not supported");
+        }
+
+        CheckOperator operator = defaultOperator;
+        if (block.containsKey(OperationHandler.OPERATION_JSON_ELEMENT)) {
+            Object operation = block.get(OperationHandler.OPERATION_JSON_ELEMENT);
+            operator = CheckOperator.fromSymbol(String.valueOf(operation));
+            if (operator == null) {
+                throw malformed(block, "operation '" + operation + "' not supported");
+            }
+        }
+        if (operator.isContainment() != (kind == Kind.CONTAINS)) {
+            throw malformed(block, "operation '" + operator.getSymbol() + "' not supported "
+                + (kind == Kind.CONTAINS ? "with a list of expected values" : "without a list of expected values"));
+        }
+
+        Object formatOfTypeCheck = block.get(OperationHandler.FORMAT_OF_TYPE_CHECK_JSON_ELEMENT);
+        return new FieldCheck(block, kind, operator, formatOfTypeCheck != null ? formatOfTypeCheck.toString() : defaultFormat,
+            compileConditions(block));
+    }
+
+    private static List<FieldCheck> compileConditions(Map<String, Object> block) {
+        List<FieldCheck> compiledConditions = Collections.emptyList();
+        if (block.containsKey(BasicChecks.CONDITION_JSON_ELEMENT)) {
+            Object conditionBlocks = block.get(BasicChecks.CONDITION_JSON_ELEMENT);
+            if (!(conditionBlocks instanceof List)) {
+                throw malformed(block, "the '" + BasicChecks.CONDITION_JSON_ELEMENT + "' element has to be an array");
+            }
+            compiledConditions = new ArrayList();
+            for (Object conditionBlock : (List) conditionBlocks) {
+                compiledConditions.add(compile(conditionBlock));
+            }
+            compiledConditions = Collections.unmodifiableList(compiledConditions);
+        }
+        return compiledConditions;
+    }
+
+    private static HeatException malformed(Map<String, Object> block, String reason) {
+        return new HeatException("Not supported modality for the check '" + block.get(OperationHandler.JSON_ELEM_DESCRIPTION) + "': " + reason);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public CheckOperator getOperator() {
+        return operator;
+    }
+
+    /**
+     * @return the 'formatOfTypeCheck' element of the block, or its default value
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * @return the compiled checks of the 'condition' element of the block, empty if there are no conditions
+     */
+    public List<FieldCheck> getConditions() {
+        return conditions;
+    }
+
+    /**
+     * @return the description of the check, null if it is not present
+     */
+    public String getDescription() {
+        Object description = block.get(OperationHandler.JSON_ELEM_DESCRIPTION);
+        return description != null ? description.toString() : null;
+    }
+
+    public Object getActualValue() {
+        return block.get(OperationHandler.JSON_ELEM_ACTUAL_VALUE);
+    }
+
+    public Object getExpectedValue() {
+        return block.get(OperationHandler.JSON_ELEM_EXPECTED_VALUE);
+    }
+
+    /**
+     * @return the check block of the json input file
+     */
+    public Map<String, Object> getBlock() {
+        return block;
+    }
+
+    @Override
+    public String toString() {
+        return block.toString();
+    }
+
+}
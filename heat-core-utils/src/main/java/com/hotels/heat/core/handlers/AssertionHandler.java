@@ -15,27 +15,165 @@
  */
 package com.hotels.heat.core.handlers;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-
-import org.testng.asserts.Assertion;
+import java.util.Objects;
+import java.util.function.Supplier;
 
+import com.hotels.heat.core.runner.TestCaseContext;
 import com.hotels.heat.core.specificexception.HeatException;
-import com.hotels.heat.core.utils.CustomSoftAssert;
 import com.hotels.heat.core.utils.log.LoggingUtils;
 
 
 /**
  * Assertion Handler class to manage custom assertion (hard and soft).
+ * The assertions are called directly, with the message of the check given as a supplier, rendered only if the check fails.
+ * A failed hard assertion throws a {@link HeatException}, a failed soft assertion is collected in the {@link SoftAssertionCollector}
+ * of the test case and returns false.
  */
 public class AssertionHandler {
 
+    /**
+     * Operators of the assertions. The failure messages are the same of the TestNG assertions.
+     */
+    public enum Operator {
+        /** the actual object is equal to the expected one. */
+        EQUALS {
+            @Override
+            boolean test(Object actual, Object expected) {
+                return Objects.deepEquals(actual, expected);
+            }
+        },
+        /** the actual object is not equal to the expected one. */
+        NOT_EQUALS {
+            @Override
+            boolean test(Object actual, Object expected) {
+                return !Objects.deepEquals(actual, expected);
+            }
+
+            @Override
+            String failureMessage(String message, Object actual, Object expected) {
+                return message;
+            }
+        },
+        /** the actual object is true. */
+        TRUE {
+            @Override
+            boolean test(Object actual, Object expected) {
+                return Boolean.TRUE.equals(actual);
+            }
+        },
+        /** the actual object is false. */
+        FALSE {
+            @Override
+            boolean test(Object actual, Object expected) {
+                return Boolean.FALSE.equals(actual);
+            }
+        },
+        /** the check fails in any case. */
+        FAIL {
+            @Override
+            boolean test(Object actual, Object expected) {
+                return false;
+            }
+
+            @Override
+            String failureMessage(String message, Object actual, Object expected) {
+                return message;
+            }
+        };
+
+        abstract boolean test(Object actual, Object expected);
+
+        String failureMessage(String message, Object actual, Object expected) {
+            return (message != null ? message + " " : "") + "expected [" + expected + "] but found [" + actual + "]";
+        }
+    }
+
     private final LoggingUtils logUtils;
 
     public AssertionHandler() {
         this.logUtils = TestSuiteHandler.getInstance().getLogUtils();
     }
 
+    /**
+     * Checks that two objects are equal.
+     * @param isBlocking it is a boolean that indicates if it is necessary to use an hard assertion (true) or a soft one (false)
+     * @param actual the actual object
+     * @param expected the expected object
+     * @param message the supplier of the message related to the assertion
+     * @return true if the assertion is ok, false otherwise
+     */
+    public boolean assertEquals(boolean isBlocking, Object actual, Object expected, Supplier<String> message) {
+        return check(isBlocking, Operator.EQUALS, actual, expected, message);
+    }
+
+    /**
+     * Checks that two objects are not equal.
+     * @param isBlocking it is a boolean that indicates if it is necessary to use an hard assertion (true) or a soft one (false)
+     * @param actual the actual object
+     * @param unexpected the object the actual one has to be different from
+     * @param message the supplier of the message related to the assertion
+     * @return true if the assertion is ok, false otherwise
+     */
+    public boolean assertNotEquals(boolean isBlocking, Object actual, Object unexpected, Supplier<String> message) {
+        return check(isBlocking, Operator.NOT_EQUALS, actual, unexpected, message);
+    }
+
+    /**
+     * Checks that a condition is true.
+     * @param isBlocking it is a boolean that indicates if it is necessary to use an hard assertion (true) or a soft one (false)
+     * @param condition the condition to check
+     * @param message the supplier of the message related to the assertion
+     * @return true if the assertion is ok, false otherwise
+     */
+    public boolean assertTrue(boolean isBlocking, boolean condition, Supplier<String> message) {
+        return check(isBlocking, Operator.TRUE, condition, true, message);
+    }
+
+    /**
+     * Checks that a condition is false.
+     * @param isBlocking it is a boolean that indicates if it is necessary to use an hard assertion (true) or a soft one (false)
+     * @param condition the condition to check
+     * @param message the supplier of the message related to the assertion
+     * @return true if the assertion is ok, false otherwise
+     */
+    public boolean assertFalse(boolean isBlocking, boolean condition, Supplier<String> message) {
+        return check(isBlocking, Operator.FALSE, condition, false, message);
+    }
+
+    /**
+     * Fails the check.
+     * @param isBlocking it is a boolean that indicates if it is necessary to use an hard assertion (true) or a soft one (false)
+     * @param message the supplier of the message related to the assertion
+     * @return false, if the assertion is soft
+     */
+    public boolean fail(boolean isBlocking, Supplier<String> message) {
+        return check(isBlocking, Operator.FAIL, null, null, message);
+    }
+
+    /**
+     * Executes an assertion.
+     * @param isBlocking it is a boolean that indicates if it is necessary to use an hard assertion (true) or a soft one (false)
+     * @param operator the operator of the assertion
+     * @param actual the actual object
+     * @param expected the expected object
+     * @param message the supplier of the message related to the assertion, called only if the assertion fails
+     * @return true if the assertion is ok, false otherwise
+     */
+    public boolean check(boolean isBlocking, Operator operator, Object actual, Object expected, Supplier<String> message) {
+        if (operator.test(actual, expected)) {
+            return true;
+        }
+        String failureMessage = operator.failureMessage(message.get(), actual, expected);
+        if (isBlocking) {
+            throw new HeatException(failureMessage);
+        }
+        TestCaseContext tcContext = TestCaseContext.current();
+        if (tcContext != null) {
+            tcContext.getSoftAssertionCollector().add(failureMessage);
+        }
+        logUtils.debug("soft assertion failed: {}", failureMessage);
+        return false;
+    }
 
     /**
      * The assertion method is useful to manage assertion hard and soft.
@@ -44,53 +182,39 @@ public class AssertionHandler {
      * @param message it is a string representing the message related to the assertion
      * @param currentObjs it is the array of objects to analyse in the assertion
      * @return a boolean, true is the assertion is ok, false otherwise.
+     * @deprecated use the typed assertions (i.e. {@link #assertEquals(boolean, Object, Object, Supplier)}), whose message is built only on failure
      */
+    @Deprecated
     public boolean assertion(boolean isBlocking, String assertType, String message, Object... currentObjs) {
-        boolean checkOk = true;
-        try {
-            if (isBlocking) {
-                Assertion hardAssertion = new Assertion();
-                executeAssertion(assertType, message, hardAssertion, currentObjs);
-            } else {
-                CustomSoftAssert softAssertion = new CustomSoftAssert();
-                executeAssertion(assertType, message, softAssertion, currentObjs);
-                if (!softAssertion.getErrorsRetrieved().isEmpty()) {
-                    checkOk = false;
-                }
-            }
-        } catch (NoSuchMethodException | IllegalAccessException oEx) {
-            throw new HeatException(logUtils.getExceptionDetails() + "exception '" + oEx.getClass() + "' with message '" + oEx.getLocalizedMessage() + "'");
-        } catch (InvocationTargetException oEx) {
-            //this is the exception raised in case of failure of the reflection-called method
-            throw new HeatException(oEx.getCause().toString().split(":")[1].trim());
+        int objsNumber = currentObjs == null ? 0 : currentObjs.length;
+        Operator operator;
+        switch (assertType + objsNumber) {
+        case "fail0":
+            operator = Operator.FAIL;
+            break;
+        case "assertTrue1":
+            operator = Operator.TRUE;
+            break;
+        case "assertFalse1":
+            operator = Operator.FALSE;
+            break;
+        case "assertEquals2":
+            operator = Operator.EQUALS;
+            break;
+        case "assertNotEquals2":
+            operator = Operator.NOT_EQUALS;
+            break;
+        default:
+            throw new HeatException(logUtils.getExceptionDetails() + "assertion '" + assertType + "' with " + objsNumber + " objects not supported");
         }
-        return checkOk;
-    }
-
-    private void executeAssertion(String assertType, String message, Assertion hardAssertion, Object[] currentObjs)
-            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
-        Method assertionMethod;
-        if (currentObjs == null || currentObjs.length == 0) {
-            Class[] cArg = new Class[1];
-            cArg[0] = String.class;
-            assertionMethod = (hardAssertion.getClass()).getMethod(assertType, cArg);
-            assertionMethod.invoke(hardAssertion, message);
-        } else if (currentObjs.length == 1) {
-            Class[] cArg = new Class[2];
-            cArg[0] = boolean.class;
-            cArg[1] = String.class;
-            assertionMethod = (hardAssertion.getClass()).getMethod(assertType, cArg);
-            assertionMethod.invoke(hardAssertion, currentObjs[0], message);
-        } else if (currentObjs.length == 2) {
-            Class[] cArg = new Class[3];
-            cArg[0] = Object.class;
-            cArg[1] = Object.class;
-            cArg[2] = String.class;
-            assertionMethod = (hardAssertion.getClass()).getMethod(assertType, cArg);
-            assertionMethod.invoke(hardAssertion, currentObjs[0], currentObjs[1], message);
+        Object actual = objsNumber > 0 ? currentObjs[0] : null;
+        Object expected;
+        if (objsNumber > 1) {
+            expected = currentObjs[1];
         } else {
-            logUtils.trace("number of input objects not supported!");
+            expected = operator == Operator.FALSE ? Boolean.FALSE : Boolean.TRUE;
         }
+        return check(isBlocking, operator, actual, expected, () -> message);
     }
 
 }
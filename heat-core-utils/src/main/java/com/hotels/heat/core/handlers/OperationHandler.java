@@ -20,7 +20,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import com.hotels.heat.core.checks.BasicMultipleChecks;
+import com.hotels.heat.core.checks.FieldCheck;
 import com.hotels.heat.core.specificexception.HeatException;
 import com.hotels.heat.core.utils.DataExtractionSupport;
 import com.hotels.heat.core.utils.log.LoggingUtils;
@@ -53,7 +53,7 @@ public class OperationHandler {
     private Object responses;
     private DataExtractionSupport dataExtractionSupport;
     private final AssertionHandler assertionHandler;
-    private Map fieldsToCheck;
+    private final FieldCheck fieldCheck;
 
     private Map<Integer, Map<String, String>> retrievedParameters;
 
@@ -64,11 +64,21 @@ public class OperationHandler {
      */
     public OperationHandler(Map fieldsToCheck,
             Object response) {
+        this(FieldCheck.compile(fieldsToCheck), response);
+    }
+
+    /**
+     * Handler for all possible operations (single mode, compare mode, flow mode).
+     * @param fieldCheck it is the compiled check block from the json input file.
+     * @param response it is the response retrieved after the request to the service under test
+     */
+    public OperationHandler(FieldCheck fieldCheck,
+            Object response) {
         this.retrievedParameters = new HashMap();
         this.logUtils = TestSuiteHandler.getInstance().getLogUtils();
         this.responses = response;
         this.dataExtractionSupport = new DataExtractionSupport(this.logUtils);
-        this.fieldsToCheck = fieldsToCheck;
+        this.fieldCheck = fieldCheck;
         this.assertionHandler = new AssertionHandler();
     }
 
@@ -77,36 +87,28 @@ public class OperationHandler {
      * @return the outcome of the exectution
      */
     public boolean execute() {
-        boolean isExecutionOk = true;
-
-        if (!fieldsToCheck.containsKey(JSON_ELEM_ACTUAL_VALUE) || !fieldsToCheck.containsKey(JSON_ELEM_EXPECTED_VALUE)) {
-            throw new HeatException("json input format not supported! '" + fieldsToCheck.toString() + "'");
-        }
-
-        if (isComparingBlock()) {
-            isExecutionOk &= multipleModeOperationExecution();
-        } else {
-            isExecutionOk &= singleModeOperationExecution();
+        boolean isExecutionOk;
+        switch (fieldCheck.getKind()) {
+        case COMPARE:
+            isExecutionOk = multipleModeOperationExecution();
+            break;
+        case CONTAINS:
+            isExecutionOk = containsCheck();
+            break;
+        default:
+            isExecutionOk = singleModeOperationExecution();
+            break;
         }
-
         return isExecutionOk;
     }
 
-    private boolean isComparingBlock() {
-        return fieldsToCheck.get(JSON_ELEM_ACTUAL_VALUE) instanceof Map
-                && ((Map) fieldsToCheck.get(JSON_ELEM_ACTUAL_VALUE)).containsKey(JSON_ELEM_ACTUAL_VALUE)
-                && ((Map) fieldsToCheck.get(JSON_ELEM_EXPECTED_VALUE)).containsKey(JSON_ELEM_ACTUAL_VALUE);
-    }
-
     private boolean multipleModeOperationExecution() {
         boolean isExecutionOk = false;
 
-        String operation = loadOperationToExecuteOrDefault(ArithmeticalValidator.MATH_OPERATOR_EQUAL_TO);
-        String fieldCheckFormat = loadFieldCheckFormatOrDefault(BasicMultipleChecks.DEFAULT_FORMAT_OF_TYPE_CHECK);
-        String firstObj = retrieveObj(JSON_ELEM_ACTUAL_VALUE, fieldsToCheck, (Map<String, Response>) responses);
-        String secondObj = retrieveObj(JSON_ELEM_EXPECTED_VALUE, fieldsToCheck, (Map<String, Response>) responses);
-        checkDescription = fieldsToCheck.get(JSON_ELEM_DESCRIPTION).toString();
-        isExecutionOk = mathOrStringChecks(operation, firstObj, secondObj, fieldCheckFormat);
+        String firstObj = retrieveObj(JSON_ELEM_ACTUAL_VALUE, fieldCheck.getBlock(), (Map<String, Response>) responses);
+        String secondObj = retrieveObj(JSON_ELEM_EXPECTED_VALUE, fieldCheck.getBlock(), (Map<String, Response>) responses);
+        checkDescription = fieldCheck.getDescription();
+        isExecutionOk = mathOrStringChecks(firstObj, secondObj);
 
         return isExecutionOk;
     }
@@ -139,19 +141,12 @@ public class OperationHandler {
 
 
     private boolean singleModeOperationExecution() {
-        boolean isExecutionOk = false;
-        Class<?> aClass = fieldsToCheck.get(JSON_ELEM_EXPECTED_VALUE).getClass();
-        if (aClass.equals(String.class) || aClass.equals(HashMap.class)) {
-            String expectedValue = dataExtractionSupport.process(fieldsToCheck.get(JSON_ELEM_EXPECTED_VALUE),
-                    (Response) responses, retrievedParameters);
-            if (PlaceholderHandler.PLACEHOLDER_PRESENT.equals(expectedValue) || PlaceholderHandler.PLACEHOLDER_NOT_PRESENT.equals(expectedValue)) {
-                isExecutionOk = checkJsonPathPresence(expectedValue);
-            } else {
-                Object actualValue = fieldsToCheck.get(JSON_ELEM_ACTUAL_VALUE);
-                isExecutionOk = checkGenericFields(actualValue, expectedValue);
-            }
-        } else if (aClass.equals(ArrayList.class)) {
-            isExecutionOk = containsCheck();
+        boolean isExecutionOk;
+        String expectedValue = dataExtractionSupport.process(fieldCheck.getExpectedValue(), (Response) responses, retrievedParameters);
+        if (PlaceholderHandler.PLACEHOLDER_PRESENT.equals(expectedValue) || PlaceholderHandler.PLACEHOLDER_NOT_PRESENT.equals(expectedValue)) {
+            isExecutionOk = checkJsonPathPresence(expectedValue);
+        } else {
+            isExecutionOk = checkGenericFields(fieldCheck.getActualValue(), expectedValue);
         }
         return isExecutionOk;
     }
@@ -159,41 +154,44 @@ public class OperationHandler {
     private boolean checkGenericFields(Object actualValue, String expectedValue) {
         boolean isExecutionOk;
         String processedActualValue = dataExtractionSupport.process(actualValue, (Response) responses, retrievedParameters);
-        String operationToExecute = loadOperationToExecuteOrDefault(StringValidator.STRING_OPERATOR_EQUALS_TO);
         loadCheckDescription();
-        String operationDescription = checkDescription + " --> '" + processedActualValue + "' '" + operationToExecute + "' '" + expectedValue + "'";
         this.logUtils.debug("{}: actualValue '{}' (processed '{}')  / operation '{}' / expectedValue '{}'",
-                        checkDescription, actualValue, processedActualValue, operationToExecute, expectedValue);
+                        checkDescription, actualValue, processedActualValue, fieldCheck.getOperator().getSymbol(), expectedValue);
         try {
-            String fieldCheckFormat = loadFieldCheckFormatOrDefault("int");
-            isExecutionOk = mathOrStringChecks(operationToExecute, processedActualValue, expectedValue, fieldCheckFormat);
+            isExecutionOk = mathOrStringChecks(processedActualValue, expectedValue);
         }  catch (Exception oEx) {
             logUtils.error("Exception: class {}, cause {}, message {}",
                     oEx.getClass(), oEx.getCause(), oEx.getLocalizedMessage());
-            operationDescription = "<" + operationDescription + ">";
+            String operationDescription = "<" + checkDescription + " --> '" + processedActualValue + "' '" + fieldCheck.getOperator().getSymbol()
+                + "' '" + expectedValue + "'>";
             throw new HeatException(logUtils.getExceptionDetails() + "It is not possible to execute the check " + operationDescription);
         }
         return isExecutionOk;
     }
 
     private void loadCheckDescription() {
-        if (fieldsToCheck.containsKey(JSON_ELEM_DESCRIPTION)) {
-            checkDescription = "{" + (String) fieldsToCheck.get(JSON_ELEM_DESCRIPTION) + "}";
+        if (fieldCheck.getDescription() != null) {
+            checkDescription = "{" + fieldCheck.getDescription() + "}";
         }
     }
 
-    private boolean mathOrStringChecks(String operationToExecute,
-            String processedActualValue,
-            String expectedValue,
-            String fieldCheckFormat) {
+    private boolean mathOrStringChecks(String processedActualValue,
+            String expectedValue) {
         boolean isExecutionOk;
-        if (isItMathematicalCheck(operationToExecute)) {
-            aritmeticalValidator = new ArithmeticalValidator(logUtils);
-            isExecutionOk = aritmeticalValidator.mathematicalChecks(isBlocking, operationToExecute, processedActualValue, expectedValue, checkDescription, fieldCheckFormat);
+        String description = checkDescription;
+        String operationToExecute = fieldCheck.getOperator().getSymbol();
+        if (fieldCheck.getOperator().isMathematical()) {
+            if (aritmeticalValidator == null) {
+                aritmeticalValidator = new ArithmeticalValidator(logUtils);
+            }
+            isExecutionOk = aritmeticalValidator.mathematicalChecks(isBlocking, operationToExecute, processedActualValue, expectedValue, () -> description,
+                fieldCheck.getFormat());
         } else {
-            stringValidator = new StringValidator(logUtils);
+            if (stringValidator == null) {
+                stringValidator = new StringValidator(logUtils);
+            }
             isExecutionOk = stringValidator.stringEqualChecks(isBlocking, operationToExecute, processedActualValue, expectedValue,
-                    logUtils.getTestCaseDetails() + " " + checkDescription + " -->");
+                () -> logUtils.getTestCaseDetails() + " " + description + " -->");
         }
         return isExecutionOk;
     }
@@ -202,11 +200,10 @@ public class OperationHandler {
     private boolean containsCheck() {
         boolean isExecutionOk;
         // TODO: verify if the cast to Response is correct. Maybe it is unuseful to pass it with the cast... maybe it can be simply not passed
-        String actualValue = dataExtractionSupport.process(fieldsToCheck.get(JSON_ELEM_ACTUAL_VALUE),
+        String actualValue = dataExtractionSupport.process(fieldCheck.getActualValue(),
                 (Response) responses, retrievedParameters);
-        String operationToExecute = loadOperationToExecuteOrDefault(StringValidator.STRING_OPERATOR_CONTAINS);
         // get each element of the array and placeholderProcessString it with the placeholderProcessString handler
-        List<String> expectedElementList = (List<String>) fieldsToCheck.get(JSON_ELEM_EXPECTED_VALUE);
+        List<String> expectedElementList = (List<String>) fieldCheck.getExpectedValue();
         List<String> processedList = new ArrayList();
         PlaceholderHandler placeholderHandler = new PlaceholderHandler();
         placeholderHandler.setResponse((Response) responses);
@@ -217,22 +214,22 @@ public class OperationHandler {
         loadCheckDescription();
         String assertionString = checkDescription + "-->";
         boolean isContainsCheckOk = true;
-        switch (operationToExecute) {
-        case StringValidator.STRING_OPERATOR_CONTAINS:
+        switch (fieldCheck.getOperator()) {
+        case CONTAINS:
             for (String element : processedList) {
                 logUtils.debug("{} actualValue ('{}') has to contain '{}'", assertionString, actualValue, element);
-                isContainsCheckOk = isContainsCheckOk && assertionHandler.assertion(false, "assertTrue",
-                        "actualValue ('" + actualValue + "') has to contain '" + element + "'", actualValue.contains(element));
+                isContainsCheckOk = isContainsCheckOk && assertionHandler.assertTrue(false, actualValue.contains(element),
+                    () -> "actualValue ('" + actualValue + "') has to contain '" + element + "'");
             }
-            isExecutionOk = assertionHandler.assertion(isBlocking, "assertTrue", assertionString, isContainsCheckOk);
+            isExecutionOk = assertionHandler.assertTrue(isBlocking, isContainsCheckOk, () -> assertionString);
             break;
-        case StringValidator.STRING_OPERATOR_NOT_CONTAINS:
+        case NOT_CONTAINS:
             for (String element : processedList) {
                 logUtils.debug("{} actualValue ('{}') has not to contain '{}'", assertionString, actualValue, element);
-                isContainsCheckOk = isContainsCheckOk && assertionHandler.assertion(false, "assertFalse",
-                        "actualValue ('" + actualValue + "') has not to contain '" + element + "'", actualValue.contains(element));
+                isContainsCheckOk = isContainsCheckOk && assertionHandler.assertFalse(false, actualValue.contains(element),
+                    () -> "actualValue ('" + actualValue + "') has not to contain '" + element + "'");
             }
-            isExecutionOk = assertionHandler.assertion(isBlocking, "assertTrue", assertionString, isContainsCheckOk);
+            isExecutionOk = assertionHandler.assertTrue(isBlocking, isContainsCheckOk, () -> assertionString);
             break;
         default:
             isExecutionOk = false;
@@ -244,30 +241,13 @@ public class OperationHandler {
     }
 
 
-    private String loadOperationToExecuteOrDefault(String defaultValue) {
-        String operationToExecute = defaultValue;
-        if (fieldsToCheck.containsKey(OPERATION_JSON_ELEMENT)) {
-            operationToExecute = (String) fieldsToCheck.get(OPERATION_JSON_ELEMENT);
-        }
-        return operationToExecute;
-    }
-
-    private String loadFieldCheckFormatOrDefault(String defaultValue) {
-        String fieldFormat = defaultValue;
-        if (fieldsToCheck.containsKey(FORMAT_OF_TYPE_CHECK_JSON_ELEMENT)) {
-            fieldFormat = fieldsToCheck.get(FORMAT_OF_TYPE_CHECK_JSON_ELEMENT).toString();
-        }
-        return fieldFormat;
-    }
-
-
     private boolean checkJsonPathPresence(String expectedValue) {
         boolean isExecutionOk = false;
-        String actualValue = fieldsToCheck.get(JSON_ELEM_ACTUAL_VALUE).toString();
+        String actualValue = fieldCheck.getActualValue().toString();
         // the check can be executed ONLY if the actual value is a "${path"-style placeholder
         if (actualValue.contains(PlaceholderHandler.PATH_PLACEHOLDER)) {
 
-            PlaceholderHandler placeholderHandler = TestSuiteHandler.getInstance().getEnvironmentHandler().getPlaceholderHandler();
+            PlaceholderHandler placeholderHandler = new PlaceholderHandler();
             placeholderHandler.setResponse((Response) responses);
             String jsonPathResponse = placeholderHandler.getPathVar(actualValue);
 
@@ -276,11 +256,11 @@ public class OperationHandler {
             boolean isPathPresent = jsonPathResponse != null && !jsonPathResponse.isEmpty();
 
             if (PlaceholderHandler.PLACEHOLDER_NOT_PRESENT.equals(expectedValue)) {
-                isExecutionOk = assertionHandler.assertion(isBlocking, "assertFalse",
-                    logUtils.getTestCaseDetails() + "json path '" + actualValue + "' has not to be present ", isPathPresent);
+                isExecutionOk = assertionHandler.assertFalse(isBlocking, isPathPresent,
+                    () -> logUtils.getTestCaseDetails() + "json path '" + actualValue + "' has not to be present ");
             } else if (PlaceholderHandler.PLACEHOLDER_PRESENT.equals(expectedValue)) {
-                isExecutionOk = assertionHandler.assertion(isBlocking, "assertTrue",
-                    logUtils.getTestCaseDetails() + "json path '" + actualValue + "' has to be present", isPathPresent);
+                isExecutionOk = assertionHandler.assertTrue(isBlocking, isPathPresent,
+                    () -> logUtils.getTestCaseDetails() + "json path '" + actualValue + "' has to be present");
             }
         } else {
             isExecutionOk = false;
@@ -289,10 +269,6 @@ public class OperationHandler {
         return isExecutionOk;
     }
 
-    private boolean isItMathematicalCheck(String operation) {
-        return operation.matches("[=|<|>]") || ">=".equals(operation) || "<=".equals(operation);
-    }
-
     public void setOperationBlocking(boolean isBlocking) {
         this.isBlocking = isBlocking;
     }
@@ -16,23 +16,24 @@
 package com.hotels.heat.core.handlers;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.ServiceLoader;
-import java.util.function.Function;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Optional;
 
 import com.hotels.heat.core.dto.HeatTestDetails;
 import com.hotels.heat.core.environment.EnvironmentHandler;
 import com.hotels.heat.core.heatmodules.HeatPlaceholderModuleProvider;
 import com.hotels.heat.core.specificexception.HeatException;
+import com.hotels.heat.core.utils.ResponseJsonCache;
 import com.hotels.heat.core.utils.TestCaseUtils;
 import com.hotels.heat.core.utils.log.LoggingUtils;
 
 import io.restassured.path.json.JsonPath;
-import io.restassured.path.json.config.JsonPathConfig;
 import io.restassured.response.Response;
 
 
@@ -56,24 +57,12 @@ public class PlaceholderHandler {
 
     private static final String JSONPATH_COMPLETE = ".";
 
-    private static final String REGEXP_PRELOAD_PLACEHOLDER = "((?:\\$\\{preload\\[[^\\]\\}]*\\]\\})|(?:\\$\\{preload\\[[^\\]\\}]*\\]\\.get\\(.*?\\)\\}))";
-    private static final String REGEXP_PATH_PLACEHOLDER = "(?:\\$\\{path\\[.*\\]\\})"; //"(?:\\$\\{path\\[[^\\}]*\\]\\})";
-    private static final String REGEXP_COOKIE_PLACEHOLDER = "(?:\\$\\{cookie\\[[^\\]\\}]*\\]\\})";
-    private static final String REGEXP_COOKIE_JSONPATH = ".*?\\$\\{cookie\\[(.*?)\\]\\}.*?";
-    private static final String REGEXP_HEADER_PLACEHOLDER = "(?:\\$\\{header\\[[^\\]\\}]*\\]\\})";
-    private static final String REGEXP_HEADER_JSONPATH = ".*?\\$\\{header\\[(.*?)\\]\\}.*?";
-    private static final String REGEXP_PRELOAD_VAR_NAME_PLACEHOLDER = "\\$\\{preload\\[(.*?)].*?\\}";
-    private static final String REGEXP_GET_PRELOAD_SPECIFIC_FIELD = "\\$\\{preload\\[.*?]\\.get\\((.*?)\\)\\}";
-    private static final String REGEXP_GET_STEP_PLACEHOLDER = "(?:\\$\\{getStep\\(.*?\\)\\.getOutputParam\\(.*?\\)\\})";
-    private static final String REGEXP_GET_STEP_OUTPUT_PARAM_NAME = ".*?\\$\\{getStep\\(.*?\\).getOutputParam\\((.*?)\\)\\}.*?";
-    private static final String REGEXP_GET_STEP_NUMBER = ".*?\\$\\{getStep\\((.*?)\\).*?\\}.*?";
-
     private final LoggingUtils logUtils;
 
-    private Map<String, HeatPlaceholderModuleProvider> providerMap;
-
     private Map<String, Object> preloadedVariables;
     private Map<Integer, Map<String, String>> flowPreloadedVariables;
+    // variables of the csv row of the test case: they override the suite ones, without changing the map shared by the suite
+    private final Map<String, Object> csvVariables = new HashMap();
     private Response response;
 
     /**
@@ -83,13 +72,7 @@ public class PlaceholderHandler {
      */
     public PlaceholderHandler() {
         this.logUtils = TestSuiteHandler.getInstance().getLogUtils();
-        //here we are checking if there are some external libraries to load (see Java Service Provider Interface pattern)
-        //providerMap contains placeholders (key) and the specific class instances that are able to manage them (value)
-        providerMap = new HashMap();
-        ServiceLoader.load(HeatPlaceholderModuleProvider.class).forEach(provider -> {
-            providerMap = constructProviderMap(providerMap, provider.getHandledPlaceholders(), provider);
-        });
-        this.logUtils.trace("found n. {} provider(s)", providerMap.size());
+        // the placeholders of the external libraries are in the registry loaded once per JVM (see PlaceholderModuleRegistry)
         this.preloadedVariables = new HashMap();
         this.flowPreloadedVariables = new HashMap();
     }
@@ -123,6 +106,7 @@ public class PlaceholderHandler {
      * - preload placeholder
      * - path placeholder
      * - placeholders coming from external heat modules and present in the provider map
+     * The string is compiled only once (see {@link PlaceholderTemplate}) and then rendered resolving each placeholder.
      * @param inputStr string to placeholderProcessString. It can contain more than one placeholders, but it does not manage nested ones.
      * @return the processed string
      */
@@ -131,11 +115,7 @@ public class PlaceholderHandler {
         Object outputObj = inputStr;
         try {
             if (inputStr.contains(PLACEHOLDER_SYMBOL_BEGIN)) {
-                outputObj = processGetStepPlaceholder(outputObj.toString());
-                outputObj = processPathPlaceholder(outputObj.toString());
-                outputObj = processPreloadPlaceholders(outputObj.toString());
-                outputObj = processCookiePlaceholder(outputObj.toString());
-                outputObj = processHeaderPlaceholder(outputObj.toString());
+                outputObj = compileFolded(inputStr).render(this::resolvePlaceholder);
                 outputObj = processPlaceholderFromExternalModules(outputObj.toString());
             }
         } catch (Exception oEx) {
@@ -146,21 +126,110 @@ public class PlaceholderHandler {
     }
 
     /**
-     * Method to placeholderProcessString a "${path[]}"-like placeholder.
-     * @param input object to placeholderProcessString
-     * @return processed object
+     * Processes a batch of strings as {@link #placeholderProcessString(String)} does for each of them, but invoking each
+     * external heat module only once for all the strings containing its placeholders (see HeatPlaceholderModule.processAll).
+     * @param inputStrings strings to process
+     * @return the processed object for each input string
      */
-    private String processPathPlaceholder(String input) {
-        String outputObj = input;
-        if (response != null) {
-            outputObj = processGenericPlaceholders(input, REGEXP_PATH_PLACEHOLDER, this::getPathVar);
+    public Map<String, Object> placeholderProcessStrings(Collection<String> inputStrings) {
+        Map<String, Object> outputObjs = new HashMap();
+        Map<String, String> renderedStrings = new LinkedHashMap();
+        for (String inputStr : inputStrings) {
+            logUtils.trace("inputStr = '{}'", inputStr);
+            outputObjs.put(inputStr, inputStr);
+            try {
+                if (inputStr.contains(PLACEHOLDER_SYMBOL_BEGIN)) {
+                    String renderedStr = compileFolded(inputStr).render(this::resolvePlaceholder);
+                    outputObjs.put(inputStr, renderedStr);
+                    renderedStrings.put(inputStr, renderedStr);
+                }
+            } catch (Exception oEx) {
+                logUtils.error("catched exception message: '{}' \n cause: '{}'",
+                    oEx.getLocalizedMessage(), oEx.getCause());
+            }
         }
-        return outputObj;
+        if (!renderedStrings.isEmpty()) {
+            try {
+                Map<String, Object> processedStrings = processPlaceholdersFromExternalModules(renderedStrings.values());
+                renderedStrings.forEach((inputStr, renderedStr) -> outputObjs.put(inputStr, processedStrings.get(renderedStr)));
+            } catch (Exception oEx) {
+                logUtils.error("catched exception message: '{}' \n cause: '{}'",
+                    oEx.getLocalizedMessage(), oEx.getCause());
+            }
+        }
+        return outputObjs;
+    }
+
+    /**
+     * Compiled template of a string, with the static placeholders of the suite already resolved (see {@link StaticPlaceholderFolder}).
+     * The preloaded variables overridden in the test case by the csv row or by the variables of the flow step are not static:
+     * the strings using them are not folded.
+     * @param inputStr string to compile
+     * @return the compiled template, folded if possible
+     */
+    private PlaceholderTemplate compileFolded(String inputStr) {
+        PlaceholderTemplate template = PlaceholderTemplate.compile(inputStr);
+        TestCaseUtils testCaseUtils = TestSuiteHandler.getInstance().getTestCaseUtils();
+        StaticPlaceholderFolder folder = testCaseUtils != null ? testCaseUtils.getStaticPlaceholderFolder() : null;
+        if (folder == null || !template.isPlaceholderPresent()) {
+            return template;
+        }
+        Map<String, Object> stepVariables = testCaseUtils.getBeforeStepVariables();
+        for (PlaceholderTemplate.Node node : template.getNodes()) {
+            if (node.getType() == PlaceholderTemplate.PlaceholderType.PRELOAD
+                && (csvVariables.containsKey(node.getName()) || stepVariables.containsKey(node.getName()))) {
+                return template;
+            }
+        }
+        return folder.fold(template, node -> getPreloadedValue(node, folder.getSuiteVariables().get(node.getName())));
+    }
+
+    /**
+     * Resolution of a single placeholder node of a compiled template.
+     * Placeholders that cannot be resolved in the current context (i.e. response-based placeholders without
+     * any response, or getStep placeholders outside the flow mode) are left unchanged.
+     * @param placeholder the placeholder node to resolve
+     * @return the value to use instead of the placeholder
+     */
+    private String resolvePlaceholder(PlaceholderTemplate.Node placeholder) {
+        String output = placeholder.getText();
+        switch (placeholder.getType()) {
+        case GET_STEP:
+            if (!flowPreloadedVariables.isEmpty()) {
+                output = getStepPlaceholderVar(placeholder);
+            }
+            break;
+        case PATH:
+            if (response != null) {
+                output = getPathValue(placeholder.getName());
+            }
+            break;
+        case PRELOAD:
+            output = getPreloadedVariable(placeholder);
+            break;
+        case COOKIE:
+            if (response != null) {
+                output = getCookieVar(placeholder);
+            }
+            break;
+        case HEADER:
+            if (response != null) {
+                output = getHeaderVar(placeholder);
+            }
+            break;
+        default:
+            break;
+        }
+        logUtils.debug("substitution '{}'", placeholder.getText());
+        return output;
     }
 
     public String getPathVar(String inputObj) {
         TestCaseUtils testCaseUtils = TestSuiteHandler.getInstance().getTestCaseUtils();
-        String getPathArg = testCaseUtils.regexpExtractor(inputObj, PATH_JSONPATH_REGEXP, 1);
+        return getPathValue(testCaseUtils.regexpExtractor(inputObj, PATH_JSONPATH_REGEXP, 1));
+    }
+
+    private String getPathValue(String getPathArg) {
         int separatorIndex = getPathArg.lastIndexOf(",");
         String result = null;
         try {
@@ -186,23 +255,9 @@ public class PlaceholderHandler {
         return result;
     }
 
-    /**
-     * Method to placeholderProcessString a "${cookie[]}"-like placeholder.
-     * @param input object to placeholderProcessString
-     * @return processed object
-     */
-    private String processCookiePlaceholder(String input) {
-        String outputObj = input;
-        if (response != null) {
-            outputObj = processGenericPlaceholders(input, REGEXP_COOKIE_PLACEHOLDER, this::getCookieVar);
-        }
-        return outputObj;
-    }
-
-    private String getCookieVar(Object inputObj) {
-        TestCaseUtils testCaseUtils = TestSuiteHandler.getInstance().getTestCaseUtils();
-        String cookieNameToRetrieve = testCaseUtils.regexpExtractor(inputObj.toString(), REGEXP_COOKIE_JSONPATH, 1);
-        return response.getCookies().containsKey(cookieNameToRetrieve) ? response.getCookie(cookieNameToRetrieve) : inputObj.toString();
+    private String getCookieVar(PlaceholderTemplate.Node placeholder) {
+        String cookieNameToRetrieve = placeholder.getName();
+        return response.getCookies().containsKey(cookieNameToRetrieve) ? response.getCookie(cookieNameToRetrieve) : placeholder.getText();
     }
 
     /**
@@ -213,57 +268,126 @@ public class PlaceholderHandler {
     public String processHeaderPlaceholder(String inputString) {
         String outputString = inputString;
         if (response != null) {
-            outputString = processGenericPlaceholders(inputString, REGEXP_HEADER_PLACEHOLDER, this::getHeaderVar);
+            outputString = PlaceholderTemplate.compile(inputString).render(placeholder ->
+                placeholder.getType() == PlaceholderTemplate.PlaceholderType.HEADER ? getHeaderVar(placeholder) : placeholder.getText());
         }
         return outputString;
     }
 
-    private String getHeaderVar(String inputString) {
-        TestCaseUtils testCaseUtils = TestSuiteHandler.getInstance().getTestCaseUtils();
-        String headerNameToRetrieve = testCaseUtils.regexpExtractor(inputString, REGEXP_HEADER_JSONPATH, 1);
-        return response.headers().hasHeaderWithName(headerNameToRetrieve) ? response.getHeader(headerNameToRetrieve) : inputString;
+    private String getHeaderVar(PlaceholderTemplate.Node placeholder) {
+        String headerNameToRetrieve = placeholder.getName();
+        return response.headers().hasHeaderWithName(headerNameToRetrieve) ? response.getHeader(headerNameToRetrieve) : placeholder.getText();
     }
 
     /**
      * Method to placeholderProcessString all placeholders managed in external heat modules.
+     * All the modules whose placeholders are in the string are invoked, in the order of their first placeholder in the string.
      * @param input object to placeholderProcessString
-     * @return processed object
+     * @return processed object: the input string if there are no placeholders of external modules, otherwise the map
+     * returned by the modules, with the processed string as value of {@link #DEFAULT_PRELOADED_VALUE}
      */
     private Object processPlaceholderFromExternalModules(String input) {
-        EnvironmentHandler eh = TestSuiteHandler.getInstance().getEnvironmentHandler();
-        Object outputObj = input;
-        if (!providerMap.isEmpty()) {
-            try {
-                for (Map.Entry<String, HeatPlaceholderModuleProvider> entry : providerMap.entrySet()) {
-                    if (outputObj.toString().contains(entry.getKey())) {
-                        HeatTestDetails testDetails = new HeatTestDetails(eh.getEnvironmentUnderTest(), logUtils.getTestCaseDetails());
-                        outputObj = entry.getValue().getModuleInstance().process(outputObj.toString(), testDetails);
-                        break;
+        return processPlaceholdersFromExternalModules(Collections.singletonList(input)).get(input);
+    }
+
+    /**
+     * Method to placeholderProcessString all placeholders managed in external heat modules in a batch of strings.
+     * Each string goes through the modules of its placeholders in the order of the placeholders in the string, as in
+     * {@link #processPlaceholderFromExternalModules(String)}; the strings are processed in rounds, and in each round every
+     * module is invoked once with all the strings having it as next module.
+     * @param inputs strings to placeholderProcessString
+     * @return processed object for each input string
+     */
+    private Map<String, Object> processPlaceholdersFromExternalModules(Collection<String> inputs) {
+        Map<String, Object> outputObjs = new HashMap();
+        inputs.forEach(input -> outputObjs.put(input, input));
+        PlaceholderModuleRegistry registry = PlaceholderModuleRegistry.getInstance();
+        if (registry.isEmpty()) {
+            return outputObjs;
+        }
+        try {
+            Map<String, List<Map.Entry<String, HeatPlaceholderModuleProvider>>> matchesByInput = new LinkedHashMap();
+            for (String input : inputs) {
+                List<Map.Entry<String, HeatPlaceholderModuleProvider>> matches = matchesByInput.containsKey(input)
+                    ? Collections.emptyList() : registry.match(input);
+                if (!matches.isEmpty()) {
+                    matchesByInput.put(input, matches);
+                }
+            }
+            if (matchesByInput.isEmpty()) {
+                return outputObjs;
+            }
+            EnvironmentHandler eh = TestSuiteHandler.getInstance().getEnvironmentHandler();
+            HeatTestDetails testDetails = new HeatTestDetails(eh.getEnvironmentUnderTest(), logUtils.getTestCaseDetails());
+            Map<String, String> processedStrs = new HashMap();
+            Map<String, Map<String, String>> processedMaps = new HashMap();
+            for (int round = 0; ; round++) {
+                Map<HeatPlaceholderModuleProvider, List<String>> batches = new LinkedHashMap();
+                for (Map.Entry<String, List<Map.Entry<String, HeatPlaceholderModuleProvider>>> inputMatches : matchesByInput.entrySet()) {
+                    if (round < inputMatches.getValue().size()) {
+                        Map.Entry<String, HeatPlaceholderModuleProvider> entry = inputMatches.getValue().get(round);
+                        logUtils.trace("placeholder '{}' processed by '{}'", entry.getKey(), entry.getValue().getClass().getName());
+                        batches.computeIfAbsent(entry.getValue(), provider -> new ArrayList()).add(inputMatches.getKey());
+                    }
+                }
+                if (batches.isEmpty()) {
+                    break;
+                }
+                for (Map.Entry<HeatPlaceholderModuleProvider, List<String>> batch : batches.entrySet()) {
+                    List<String> strsToProcess = new ArrayList(batch.getValue().size());
+                    batch.getValue().forEach(input -> strsToProcess.add(processedStrs.getOrDefault(input, input)));
+                    Map<String, Map<String, String>> results = processAllWithCache(batch.getKey(), strsToProcess, testDetails);
+                    for (int i = 0; i < strsToProcess.size(); i++) {
+                        String input = batch.getValue().get(i);
+                        Map<String, String> processedMap = processedMaps.computeIfAbsent(input, key -> new HashMap());
+                        processedMap.putAll(results.get(strsToProcess.get(i)));
+                        processedStrs.put(input, processedMap.getOrDefault(DEFAULT_PRELOADED_VALUE, strsToProcess.get(i)));
                     }
                 }
-            } catch (Exception e) {
-                throw new HeatException("Error due to invoke external module '" + e.getLocalizedMessage() + "' \n cause: '" + e.getCause() + "'");
             }
+            outputObjs.putAll(processedMaps);
+        } catch (Exception e) {
+            throw new HeatException("Error due to invoke external module '" + e.getLocalizedMessage() + "' \n cause: '" + e.getCause() + "'");
         }
-        return outputObj;
+        return outputObjs;
     }
 
-    private static String escapeRegexCharsInRegex(String s) {
-        return s.replace(".", "\\.")
-            //            .replace("-", "\\-")
-            .replace("[", "\\[")
-            .replace("]", "\\]")
-            .replace("{", "\\{")
-            .replace("}", "\\}")
-            .replace("(", "\\(")
-            .replace(")", "\\)")
-            .replace("*", "\\*")
-            .replace("+", "\\+")
-            .replace("?", "\\?")
-            .replace("^", "\\*")
-            .replace("$", "\\$")
-            .replace("|", "\\|")
-            .replace("#", "\\#");
+    /**
+     * Invokes the module of a provider for a batch of strings, reusing the results already in the cache for the strings
+     * whose cache scope allows it (see {@link PlaceholderResultCache}).
+     */
+    private Map<String, Map<String, String>> processAllWithCache(HeatPlaceholderModuleProvider provider, List<String> strsToProcess,
+        HeatTestDetails testDetails) {
+        PlaceholderResultCache cache = PlaceholderResultCache.getInstance();
+        Map<String, Map<String, String>> results = new HashMap();
+        Map<String, PlaceholderResultCache.Key> keysToStore = new HashMap();
+        List<String> strsToInvoke = new ArrayList();
+        boolean notCachedStrs = false;
+        for (String strToProcess : new LinkedHashSet<>(strsToProcess)) {
+            PlaceholderResultCache.Key key = cache.keyOf(provider, strToProcess);
+            Map<String, String> cachedResult = key != null ? cache.get(key) : null;
+            if (cachedResult != null) {
+                results.put(strToProcess, cachedResult);
+            } else {
+                strsToInvoke.add(strToProcess);
+                if (key != null) {
+                    keysToStore.put(strToProcess, key);
+                } else {
+                    notCachedStrs = true;
+                }
+            }
+        }
+        if (!strsToInvoke.isEmpty()) {
+            if (notCachedStrs) {
+                // the invocation could have side effects on the results of the module already in the cache
+                cache.evictProvider(provider);
+            }
+            Map<String, Map<String, String>> invokedResults = provider.getModuleInstance().processAll(strsToInvoke, testDetails);
+            results.putAll(invokedResults);
+            keysToStore.forEach((strToProcess, key) -> Optional.ofNullable(invokedResults.get(strToProcess))
+                .ifPresent(result -> cache.put(key, result)));
+        }
+        return results;
     }
 
     /**
@@ -272,47 +396,15 @@ public class PlaceholderHandler {
      * @return processed object
      */
     private String processPreloadPlaceholders(String input) {
-        String outputString = input;
-        outputString = processGenericPlaceholders(outputString, REGEXP_PRELOAD_PLACEHOLDER, this::getPreloadedVariable);
-        return outputString;
+        return PlaceholderTemplate.compile(input).render(placeholder ->
+            placeholder.getType() == PlaceholderTemplate.PlaceholderType.PRELOAD ? getPreloadedVariable(placeholder) : placeholder.getText());
     }
 
-    private String processGenericPlaceholders(String inputString, String regex, Function<String, String> substituctionFunct) {
-        String outputStr = inputString;
-        Pattern pattern = Pattern.compile(regex);
-        Matcher matcher = pattern.matcher(inputString);
-        List<String> placeholders = new ArrayList();
-
-        while (matcher.find()) {
-            placeholders.add(matcher.group(0));
-        }
-
-        for (String placeholder : placeholders) {
-            String modifiedString = "";
-            String escapedPlaceholder = escapeRegexCharsInRegex(placeholder);
-            String[] stringComponents = outputStr.split("((?<=" + escapedPlaceholder + ")|(?=" + escapedPlaceholder + "))");
-            logUtils.debug("strings.length : '{}'", stringComponents.length);
-            for (String stringComponent : stringComponents) {
-                if (stringComponent.equals(placeholder)) {
-                    logUtils.debug("substitution '{}'", placeholder);
-                    //modifiedString += getPreloadedVariable(placeholder);
-                    String applied = substituctionFunct.apply(placeholder);
-                    modifiedString += applied == null ? "" : applied;
-                } else {
-                    modifiedString += stringComponent;
-                }
-            }
-            outputStr = modifiedString;
-        }
-        return outputStr;
-    }
-
-    private String getStepPlaceholderVar(String inputString) {
-        String outputString = inputString;
-        TestCaseUtils testCaseUtils = TestSuiteHandler.getInstance().getTestCaseUtils();
-        Integer stepNumber = Integer.parseInt(testCaseUtils.regexpExtractor(outputString, REGEXP_GET_STEP_NUMBER, 1));
+    private String getStepPlaceholderVar(PlaceholderTemplate.Node placeholder) {
+        String outputString = placeholder.getText();
+        Integer stepNumber = Integer.parseInt(placeholder.getName());
         if (flowPreloadedVariables.containsKey(stepNumber)) {
-            String paramName = testCaseUtils.regexpExtractor(outputString, REGEXP_GET_STEP_OUTPUT_PARAM_NAME, 1);
+            String paramName = placeholder.getArgument();
             if (flowPreloadedVariables.get(stepNumber).containsKey(paramName)) {
                 outputString = flowPreloadedVariables.get(stepNumber).get(paramName);
             } else {
@@ -324,19 +416,6 @@ public class PlaceholderHandler {
         return outputString;
     }
 
-    /**
-     * Method to placeholderProcessString "${getStep()}"-like placeholder.
-     * @param input object to placeholderProcessString
-     * @return processed object
-     */
-    private String processGetStepPlaceholder(String input) {
-        String outputObj = input;
-        if (!flowPreloadedVariables.isEmpty()) {
-            outputObj = processGenericPlaceholders(outputObj, REGEXP_GET_STEP_PLACEHOLDER, this::getStepPlaceholderVar);
-        }
-        return outputObj;
-    }
-
     /**
      * This method is useful to retrieve a json path from a json response.
      * Example:
@@ -355,8 +434,8 @@ public class PlaceholderHandler {
             if (JSONPATH_COMPLETE.equals(path)) {
                 output = rsp.asString().trim();
             } else {
-                JsonPathConfig config = new JsonPathConfig(JsonPathConfig.NumberReturnType.BIG_DECIMAL);
-                Object jpathResp = rsp.jsonPath(config).get(path);
+                // the body of the response is parsed once for all the paths retrieved from it during the test case
+                Object jpathResp = ResponseJsonCache.documentOf(rsp).get(path);
                 if (jpathResp != null) {
                     output = String.valueOf(jpathResp);
                 } else {
@@ -364,8 +443,10 @@ public class PlaceholderHandler {
                 }
             }
         } catch (Exception oEx) {
-            logUtils.debug("It is not possible to retrieve the jsonPath "
-                + "('{}') from the current response. --> response: {}", path, rsp.asString());
+            if (logUtils.isDebugEnabled()) {
+                logUtils.debug("It is not possible to retrieve the jsonPath "
+                    + "('{}') from the current response. --> response: {}", path, rsp.asString());
+            }
             //            throw new HeatException(logUtils.getExceptionDetails() + "It is not possible to retrieve the jsonPath (" + path
             //                    + ") from the current response. --> response: " + rsp.asString());
         }
@@ -408,7 +489,7 @@ public class PlaceholderHandler {
      * This method is used to retrieve the preloaded variables.
      * Preloaded variables are values loaded in the first part of the json input file, in test modules, loaded only
      * once for each test suite, and that can be used in each test case in that suite.
-     * @param stringInput it is the input string.
+     * @param placeholder it is the placeholder node to resolve.
      * It can be something like:
      * - ${preload[PIPPO]} and in this case we will load the variable called "PIPPO" declared in the first part of the json input file
      * - ${preload[PIPPO].get(pluto)}. Also in this case we will load the variable called "PIPPO" but we are supposing that that
@@ -416,50 +497,54 @@ public class PlaceholderHandler {
      * to the key "pluto" in "PIPPO" map.
      * @return the loaded variable.
      */
-    private String getPreloadedVariable(String stringInput) {
-        String outputStr = stringInput;
+    private String getPreloadedVariable(PlaceholderTemplate.Node placeholder) {
+        String outputStr = placeholder.getText();
         preloadedVariables = TestSuiteHandler.getInstance().getTestCaseUtils().getBeforeSuiteVariables();
         Map<String, Object> stepVariables = TestSuiteHandler.getInstance().getTestCaseUtils().getBeforeStepVariables();
 
-        Map<String, Object> stepAndSuitePreloadVariables = new HashMap(preloadedVariables);
-        stepAndSuitePreloadVariables.putAll(stepVariables);
-
-        if (!stepAndSuitePreloadVariables.isEmpty()) {
-            outputStr = TestSuiteHandler.getInstance().getTestCaseUtils().regexpExtractor(stringInput, REGEXP_PRELOAD_VAR_NAME_PLACEHOLDER, 1);
-            if (stepAndSuitePreloadVariables.containsKey(outputStr)) {
-                // if there is not any specific variable to get
-                Object objectPreloaded = stepAndSuitePreloadVariables.get(outputStr);
-                if (objectPreloaded.getClass().equals(String.class)) {
-                    outputStr = objectPreloaded.toString();
-                } else {
-                    Map<String, String> preloadedObject = (Map<String, String>) objectPreloaded;
-                    outputStr = getSpecificPreloadValue(stringInput, preloadedObject);
-                }
+        if (!stepVariables.isEmpty() || !csvVariables.isEmpty() || !preloadedVariables.isEmpty()) {
+            String variableName = placeholder.getName();
+            // the variables of the step override the ones of the csv row, that override the ones of the suite
+            if (stepVariables.containsKey(variableName)) {
+                outputStr = getPreloadedValue(placeholder, stepVariables.get(variableName));
+            } else if (csvVariables.containsKey(variableName)) {
+                outputStr = getPreloadedValue(placeholder, csvVariables.get(variableName));
+            } else if (preloadedVariables.containsKey(variableName)) {
+                outputStr = getPreloadedValue(placeholder, preloadedVariables.get(variableName));
             } else {
-                logUtils.warning("variable '{}' not correctly preloaded - no transformation will be applied", outputStr);
-                outputStr = stringInput;
+                logUtils.warning("variable '{}' not correctly preloaded - no transformation will be applied", variableName);
                 //                throw new HeatException(logUtils.getExceptionDetails() + "variable '" + outputStr + "' not correctly preloaded");
             }
         }
         return outputStr;
     }
 
+    private String getPreloadedValue(PlaceholderTemplate.Node placeholder, Object objectPreloaded) {
+        String outputStr;
+        // if there is not any specific variable to get
+        if (objectPreloaded.getClass().equals(String.class)) {
+            outputStr = objectPreloaded.toString();
+        } else {
+            outputStr = getSpecificPreloadValue(placeholder.getArgument(), objectPreloaded);
+        }
+        return outputStr;
+    }
+
     /**
      * This method has to be used in case of specific variable to preload.
-     * @param stringInput is the string containing the placeholder declaration ${preload[PIPPO].get(pluto)}
+     * @param specificFieldReq is the key specified in the placeholder declaration ${preload[PIPPO].get(pluto)} (i.e. 'pluto').
+     *                         It is null if the placeholder does not specify any key.
      * @param loadedObject is the map retrieved from 'getPreloadedVariable' method.
      * @return the value in the map, corresponding to the key specified in the placeholder (i.e. 'pluto')
      */
-    private String getSpecificPreloadValue(String stringInput, Object loadedObject) {
+    private String getSpecificPreloadValue(String specificFieldReq, Object loadedObject) {
         String outputStr = loadedObject.toString();
         try {
-            String specificFieldReq = TestSuiteHandler.getInstance().getTestCaseUtils().regexpExtractor(stringInput, REGEXP_GET_PRELOAD_SPECIFIC_FIELD, 1);
-
             logUtils.trace("specificFieldReq {}", specificFieldReq);
 
             if (!loadedObject.getClass().equals(String.class)) {
 
-                if (((Map<String, String>) loadedObject).containsKey(specificFieldReq)) {
+                if (specificFieldReq != null && ((Map<String, String>) loadedObject).containsKey(specificFieldReq)) {
                     outputStr = ((Map<String, String>) loadedObject).get(specificFieldReq);
                 } else {
                     outputStr = ((Map<String, String>) loadedObject).getOrDefault(DEFAULT_PRELOADED_VALUE, DEFAULT_VALUE_NOT_FOUND_MSG);
@@ -481,8 +566,12 @@ public class PlaceholderHandler {
         this.preloadedVariables = preloadedVarsInput;
     }
 
+    /**
+     * Adds the variables of the csv row of the test case, visible only to this handler.
+     * @param csvPreloadedVarsInput the csv row, as 'column name' to 'value'
+     */
     public void addCsvFileVariables(Map<String, Object> csvPreloadedVarsInput) {
-        this.preloadedVariables.putAll(csvPreloadedVarsInput);
+        this.csvVariables.putAll(csvPreloadedVarsInput);
     }
 
     public Map<String, Object> getPreloadedVariables() {
@@ -0,0 +1,216 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.handlers;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.hotels.heat.core.heatmodules.HeatPlaceholderModuleProvider;
+import com.hotels.heat.core.utils.log.LoggingUtils;
+
+
+/**
+ * Registry of the placeholders handled by the external heat modules (see Java Service Provider Interface pattern).
+ * The providers are loaded only once per JVM, the first time the registry is used, and then shared by all the
+ * PlaceholderHandlers. The registry is immutable: {@link #reload()} replaces it with a new one.
+ * The providers are ordered by class name, so the order does not depend on the classpath: when two providers handle
+ * the same placeholder, the first one is used.
+ */
+public final class PlaceholderModuleRegistry {
+
+    private static volatile PlaceholderModuleRegistry instance;
+
+    private final Map<String, HeatPlaceholderModuleProvider> providerMap;
+    private final TrieNode trie = new TrieNode();
+    private final Map<String, LongAdder> lookupCounts = new ConcurrentHashMap();
+    private final LongAdder lookups = new LongAdder();
+
+    private PlaceholderModuleRegistry(Iterable<HeatPlaceholderModuleProvider> providers) {
+        LoggingUtils logUtils = TestSuiteHandler.getInstance().getLogUtils();
+        List<HeatPlaceholderModuleProvider> sortedProviders = new ArrayList();
+        providers.forEach(sortedProviders::add);
+        sortedProviders.sort(Comparator.comparing(provider -> provider.getClass().getName()));
+
+        Map<String, HeatPlaceholderModuleProvider> placeholders = new LinkedHashMap();
+        for (HeatPlaceholderModuleProvider provider : sortedProviders) {
+            try {
+                logUtils.trace("found provider for: {}", provider.getHandledPlaceholders());
+                provider.getHandledPlaceholders().forEach(placeholder -> {
+                    HeatPlaceholderModuleProvider previousProvider = placeholders.putIfAbsent(placeholder, provider);
+                    if (previousProvider != null) {
+                        logUtils.warning("placeholder '{}' handled by both '{}' and '{}': using the first one", placeholder,
+                            previousProvider.getClass().getName(), provider.getClass().getName());
+                    }
+                });
+            } catch (Exception oEx) {
+                logUtils.error("catched exception message: '{}' \n cause: '{}'", oEx.getLocalizedMessage(), oEx.getCause());
+            }
+        }
+        this.providerMap = Collections.unmodifiableMap(placeholders);
+        providerMap.forEach(trie::add);
+        logUtils.debug("found n. {} placeholder(s) handled by {} provider(s)", providerMap.size(), sortedProviders.size());
+    }
+
+    /**
+     * Registry of the providers available in the classpath, loaded the first time it is requested.
+     * @return the registry
+     */
+    public static PlaceholderModuleRegistry getInstance() {
+        PlaceholderModuleRegistry registry = instance;
+        if (registry == null) {
+            synchronized (PlaceholderModuleRegistry.class) {
+                registry = instance;
+                if (registry == null) {
+                    registry = new PlaceholderModuleRegistry(ServiceLoader.load(HeatPlaceholderModuleProvider.class));
+                    instance = registry;
+                }
+            }
+        }
+        return registry;
+    }
+
+    /**
+     * Loads again the providers from the classpath (i.e. after that a new module has been added) and replaces the registry.
+     * The handlers already processing a string keep using the previous registry until they finish.
+     * @return the new registry
+     */
+    public static PlaceholderModuleRegistry reload() {
+        synchronized (PlaceholderModuleRegistry.class) {
+            instance = new PlaceholderModuleRegistry(ServiceLoader.load(HeatPlaceholderModuleProvider.class));
+            return instance;
+        }
+    }
+
+    /**
+     * Replaces the registry with one made of the given providers (i.e. to test the dispatch of the placeholders).
+     * @param providers the providers of the new registry
+     * @return the new registry
+     */
+    static PlaceholderModuleRegistry reload(Iterable<HeatPlaceholderModuleProvider> providers) {
+        synchronized (PlaceholderModuleRegistry.class) {
+            instance = new PlaceholderModuleRegistry(providers);
+            return instance;
+        }
+    }
+
+    /**
+     * @return the placeholders (key) and the providers able to manage them (value), in the registry order
+     */
+    public Map<String, HeatPlaceholderModuleProvider> getProviderMap() {
+        return providerMap;
+    }
+
+    public boolean isEmpty() {
+        return providerMap.isEmpty();
+    }
+
+    /**
+     * Looks for the first placeholder of the registry contained in the input string.
+     * @param input the string to process
+     * @return the placeholder and its provider, null if the string does not contain any placeholder of the registry
+     */
+    public Map.Entry<String, HeatPlaceholderModuleProvider> lookup(String input) {
+        List<Map.Entry<String, HeatPlaceholderModuleProvider>> matches = match(input);
+        return matches.isEmpty() ? null : matches.get(0);
+    }
+
+    /**
+     * Looks for all the placeholders of the registry contained in the input string, scanning the string only once.
+     * When more placeholders of the registry start at the same position, the longest one is taken.
+     * @param input the string to process
+     * @return the placeholders found and their providers, one for each provider, ordered by the position of the first
+     * placeholder of the provider in the string; empty if the string does not contain any placeholder of the registry
+     */
+    public List<Map.Entry<String, HeatPlaceholderModuleProvider>> match(String input) {
+        lookups.increment();
+        List<Map.Entry<String, HeatPlaceholderModuleProvider>> matches = Collections.emptyList();
+        Set<HeatPlaceholderModuleProvider> matchedProviders = null;
+        int length = input.length();
+        for (int start = 0; start < length; start++) {
+            TrieNode node = trie.getChild(input.charAt(start));
+            TrieNode longestMatch = null;
+            for (int i = start + 1; node != null; i++) {
+                if (node.placeholder != null) {
+                    longestMatch = node;
+                }
+                node = i < length ? node.getChild(input.charAt(i)) : null;
+            }
+            if (longestMatch != null) {
+                lookupCounts.computeIfAbsent(longestMatch.placeholder, key -> new LongAdder()).increment();
+                if (matchedProviders == null) {
+                    matchedProviders = Collections.newSetFromMap(new IdentityHashMap());
+                    matches = new ArrayList();
+                }
+                if (matchedProviders.add(longestMatch.provider)) {
+                    matches.add(new AbstractMap.SimpleImmutableEntry(longestMatch.placeholder, longestMatch.provider));
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @return the number of lookups made on this registry
+     */
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    /**
+     * @return the number of lookups resolved by each placeholder, sorted by placeholder
+     */
+    public Map<String, Long> getLookupCounts() {
+        Map<String, Long> counts = new TreeMap();
+        lookupCounts.forEach((placeholder, count) -> counts.put(placeholder, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Node of the prefix trie of the placeholders.
+     */
+    private static final class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap();
+        // placeholder ending in this node, null if no placeholder ends here
+        private String placeholder;
+        private HeatPlaceholderModuleProvider provider;
+
+        private TrieNode getChild(char character) {
+            return children.get(character);
+        }
+
+        private void add(String placeholderToAdd, HeatPlaceholderModuleProvider placeholderProvider) {
+            TrieNode node = this;
+            for (int i = 0; i < placeholderToAdd.length(); i++) {
+                node = node.children.computeIfAbsent(placeholderToAdd.charAt(i), key -> new TrieNode());
+            }
+            node.placeholder = placeholderToAdd;
+            node.provider = placeholderProvider;
+        }
+    }
+
+}
@@ -0,0 +1,203 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.handlers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.hotels.heat.core.heatmodules.HeatPlaceholderModuleProvider;
+import com.hotels.heat.core.heatmodules.PlaceholderCacheScope;
+import com.hotels.heat.core.runner.TestCaseContext;
+
+
+/**
+ * Bounded cache of the results of the external placeholder modules, used for the strings whose provider declares a cache
+ * scope different from STRING (see {@link PlaceholderCacheScope}).
+ * The results are kept by provider, scope (test case, suite or none for the TTL ones) and string; the least recently used
+ * results are evicted when the cache is full, the results of a suite are evicted when the suite finishes and the TTL results
+ * when they expire. When a module is invoked for a string with scope STRING, its invocation could have side effects (i.e. a
+ * reset of a mock): all the results of the same provider are evicted.
+ */
+public final class PlaceholderResultCache {
+
+    private static final int CACHE_SIZE = 4096;
+    private static final PlaceholderResultCache INSTANCE = new PlaceholderResultCache();
+
+    private final Map<Key, Result> results = new LinkedHashMap<Key, Result>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Result> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private PlaceholderResultCache() {
+    }
+
+    public static PlaceholderResultCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Key of the result of a string in the current scope.
+     * @param provider the provider of the module processing the string
+     * @param stringToProcess the string to process
+     * @return the key of the result, null if the result cannot be reused (scope STRING, or no test case running for the
+     * scopes TEST_CASE and SUITE)
+     */
+    public Key keyOf(HeatPlaceholderModuleProvider provider, String stringToProcess) {
+        PlaceholderCacheScope scope = provider.getCacheScope(stringToProcess);
+        TestCaseContext tcContext = TestCaseContext.current();
+        Key key = null;
+        switch (scope) {
+        case TEST_CASE:
+            if (tcContext != null) {
+                key = new Key(provider, scope, tcContext.getTestSuiteName(), tcContext.getTestCaseId() + "#" + tcContext.getFlowStep(), stringToProcess);
+            }
+            break;
+        case SUITE:
+            if (tcContext != null) {
+                key = new Key(provider, scope, tcContext.getTestSuiteName(), null, stringToProcess);
+            }
+            break;
+        case TTL:
+            key = new Key(provider, scope, null, null, stringToProcess);
+            break;
+        default:
+            break;
+        }
+        return key;
+    }
+
+    /**
+     * @param key the key of the result
+     * @return the result, null if not present or expired
+     */
+    public Map<String, String> get(Key key) {
+        Result result;
+        synchronized (results) {
+            result = results.get(key);
+            if (result != null && result.expiresAt != 0 && System.nanoTime() - result.expiresAt >= 0) {
+                results.remove(key);
+                result = null;
+            }
+        }
+        if (result == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return result.value;
+    }
+
+    /**
+     * Stores a result.
+     * @param key the key of the result
+     * @param value the map returned by the module
+     */
+    public void put(Key key, Map<String, String> value) {
+        long expiresAt = 0;
+        if (key.scope == PlaceholderCacheScope.TTL) {
+            expiresAt = System.nanoTime() + Math.max(1, key.provider.getCacheTtl().toNanos());
+        }
+        synchronized (results) {
+            results.put(key, new Result(value, expiresAt));
+        }
+    }
+
+    /**
+     * Evicts all the results of a provider.
+     * @param provider the provider whose results are evicted
+     */
+    public void evictProvider(HeatPlaceholderModuleProvider provider) {
+        synchronized (results) {
+            results.keySet().removeIf(key -> key.provider == provider);
+        }
+    }
+
+    /**
+     * Evicts the test case and suite results of a suite.
+     * @param suiteName name of the suite
+     */
+    public void evictSuite(String suiteName) {
+        synchronized (results) {
+            results.keySet().removeIf(key -> suiteName.equals(key.suite));
+        }
+    }
+
+    public void clear() {
+        synchronized (results) {
+            results.clear();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Key of a result: provider, scope, suite and test case of the scope, string processed.
+     */
+    public static final class Key {
+        private final HeatPlaceholderModuleProvider provider;
+        private final PlaceholderCacheScope scope;
+        private final String suite;
+        private final String testCase;
+        private final String stringToProcess;
+
+        private Key(HeatPlaceholderModuleProvider provider, PlaceholderCacheScope scope, String suite, String testCase, String stringToProcess) {
+            this.provider = provider;
+            this.scope = scope;
+            this.suite = suite;
+            this.testCase = testCase;
+            this.stringToProcess = stringToProcess;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return provider == other.provider && scope == other.scope && Objects.equals(suite, other.suite) && Objects.equals(testCase, other.testCase)
+                && stringToProcess.equals(other.stringToProcess);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(provider), scope, suite, testCase, stringToProcess);
+        }
+    }
+
+    private static final class Result {
+        private final Map<String, String> value;
+        // System.nanoTime() of the expiration, 0 if the result does not expire
+        private final long expiresAt;
+
+        private Result(Map<String, String> value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+}
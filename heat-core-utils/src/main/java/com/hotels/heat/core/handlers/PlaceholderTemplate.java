@@ -0,0 +1,371 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.handlers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+
+/**
+ * Compiled representation of a string that can contain placeholders.
+ * The string is scanned only once and split in a list of literal and placeholder nodes, so that the
+ * substitution is a simple walk on the nodes, without any regular expression.
+ * Compiled templates of the strings containing placeholders are cached and keyed by the raw string; the least recently
+ * used ones are evicted when the cache is full.
+ */
+public final class PlaceholderTemplate {
+
+    /**
+     * Kinds of placeholders natively handled by the {@link PlaceholderHandler}.
+     * Placeholders of external heat modules are not tokenized: they are left in the literal nodes.
+     */
+    public enum PlaceholderType {
+        GET_STEP,
+        PATH,
+        PRELOAD,
+        COOKIE,
+        HEADER
+    }
+
+    /**
+     * Resolver of a single placeholder node.
+     */
+    @FunctionalInterface
+    public interface Resolver {
+        /**
+         * Resolves a placeholder.
+         * @param placeholder the placeholder node to resolve
+         * @return the value to use instead of the placeholder. A null value is rendered as an empty string.
+         */
+        String resolve(Node placeholder);
+    }
+
+    static final int MAX_CACHED_TEMPLATES = 10000;
+    private static final Map<String, PlaceholderTemplate> TEMPLATE_CACHE = new LinkedHashMap<String, PlaceholderTemplate>(MAX_CACHED_TEMPLATES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PlaceholderTemplate> eldest) {
+            return size() > MAX_CACHED_TEMPLATES;
+        }
+    };
+
+    private static final String GET_STEP_BEGIN = PlaceholderHandler.PLACEHOLDER_SYMBOL_BEGIN + "getStep(";
+    private static final String GET_STEP_OUTPUT_PARAM = ").getOutputParam(";
+    private static final String PATH_BEGIN = PlaceholderHandler.PLACEHOLDER_SYMBOL_BEGIN + "path[";
+    private static final String PRELOAD_BEGIN = PlaceholderHandler.PLACEHOLDER_SYMBOL_BEGIN + "preload[";
+    private static final String PRELOAD_GET = "].get(";
+    private static final String COOKIE_BEGIN = PlaceholderHandler.PLACEHOLDER_SYMBOL_BEGIN + "cookie[";
+    private static final String HEADER_BEGIN = PlaceholderHandler.PLACEHOLDER_SYMBOL_BEGIN + "header[";
+    private static final String BRACKET_END = "]" + PlaceholderHandler.PLACEHOLDER_SYMBOL_END;
+    private static final String PARENTHESIS_END = ")" + PlaceholderHandler.PLACEHOLDER_SYMBOL_END;
+
+    private final String rawString;
+    private final List<Node> nodes;
+    private final boolean placeholderPresent;
+
+    private PlaceholderTemplate(String rawString) {
+        this(rawString, tokenize(rawString));
+    }
+
+    private PlaceholderTemplate(String rawString, List<Node> nodes) {
+        this.rawString = rawString;
+        this.nodes = Collections.unmodifiableList(nodes);
+        this.placeholderPresent = nodes.stream().anyMatch(Node::isPlaceholder);
+    }
+
+    /**
+     * Returns the compiled template of the given string, parsing it only the first time it is requested.
+     * Strings without the placeholder marker (i.e. values already resolved) are not cached: they are a single literal.
+     * @param rawString the string to compile
+     * @return the compiled template
+     */
+    public static PlaceholderTemplate compile(String rawString) {
+        if (!rawString.contains(PlaceholderHandler.PLACEHOLDER_SYMBOL_BEGIN)) {
+            return new PlaceholderTemplate(rawString);
+        }
+        PlaceholderTemplate template;
+        synchronized (TEMPLATE_CACHE) {
+            template = TEMPLATE_CACHE.get(rawString);
+        }
+        if (template == null) {
+            PlaceholderTemplate compiled = new PlaceholderTemplate(rawString);
+            synchronized (TEMPLATE_CACHE) {
+                template = TEMPLATE_CACHE.putIfAbsent(rawString, compiled);
+            }
+            if (template == null) {
+                template = compiled;
+            }
+        }
+        return template;
+    }
+
+    /**
+     * Renders the template, substituting each placeholder node with the value given by the resolver.
+     * The placeholders are resolved first, so that the output is built in a single buffer of the exact final size;
+     * a template made of a single placeholder returns the resolved value itself.
+     * @param resolver the resolver of the placeholder nodes
+     * @return the rendered string
+     */
+    public String render(Resolver resolver) {
+        if (!placeholderPresent) {
+            return rawString;
+        }
+        int nodesNumber = nodes.size();
+        if (nodesNumber == 1) {
+            String resolved = resolver.resolve(nodes.get(0));
+            return resolved == null ? "" : resolved;
+        }
+        String[] values = new String[nodesNumber];
+        int length = 0;
+        for (int i = 0; i < nodesNumber; i++) {
+            Node node = nodes.get(i);
+            String value = node.isPlaceholder() ? resolver.resolve(node) : node.getText();
+            values[i] = value == null ? "" : value;
+            length += values[i].length();
+        }
+        StringBuilder sb = new StringBuilder(length);
+        for (String value : values) {
+            sb.append(value);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Partial evaluation of the template: the placeholders accepted by the filter are resolved now and become literal
+     * text, the other ones are kept as they are. The folded template is not cached: its raw string is the string with
+     * the placeholders resolved, and the resolved values are never parsed again looking for placeholders.
+     * @param foldable filter of the placeholder nodes to resolve now
+     * @param resolver the resolver of the placeholder nodes accepted by the filter
+     * @return the folded template, or this template if no placeholder is accepted by the filter
+     */
+    public PlaceholderTemplate fold(Predicate<Node> foldable, Resolver resolver) {
+        if (nodes.stream().noneMatch(node -> node.isPlaceholder() && foldable.test(node))) {
+            return this;
+        }
+        List<Node> foldedNodes = new ArrayList();
+        StringBuilder foldedString = new StringBuilder(rawString.length());
+        StringBuilder literal = new StringBuilder();
+        for (Node node : nodes) {
+            if (node.isPlaceholder() && !foldable.test(node)) {
+                if (literal.length() > 0) {
+                    foldedNodes.add(new Node(null, literal.toString(), null, null));
+                    literal.setLength(0);
+                }
+                foldedNodes.add(node);
+                foldedString.append(node.getText());
+            } else {
+                String text = node.isPlaceholder() ? resolver.resolve(node) : node.getText();
+                literal.append(text == null ? "" : text);
+                foldedString.append(text == null ? "" : text);
+            }
+        }
+        if (literal.length() > 0) {
+            foldedNodes.add(new Node(null, literal.toString(), null, null));
+        }
+        return new PlaceholderTemplate(foldedString.toString(), foldedNodes);
+    }
+
+    public String getRawString() {
+        return rawString;
+    }
+
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    public boolean isPlaceholderPresent() {
+        return placeholderPresent;
+    }
+
+    private static List<Node> tokenize(String input) {
+        List<Node> tokens = new ArrayList();
+        int literalStart = 0;
+        int searchFrom = 0;
+        int placeholderStart = input.indexOf(PlaceholderHandler.PLACEHOLDER_SYMBOL_BEGIN, searchFrom);
+        while (placeholderStart >= 0) {
+            Node placeholder = parsePlaceholder(input, placeholderStart);
+            if (placeholder == null) {
+                searchFrom = placeholderStart + PlaceholderHandler.PLACEHOLDER_SYMBOL_BEGIN.length();
+            } else {
+                if (placeholderStart > literalStart) {
+                    tokens.add(new Node(null, input.substring(literalStart, placeholderStart), null, null));
+                }
+                tokens.add(placeholder);
+                literalStart = placeholderStart + placeholder.getText().length();
+                searchFrom = literalStart;
+            }
+            placeholderStart = input.indexOf(PlaceholderHandler.PLACEHOLDER_SYMBOL_BEGIN, searchFrom);
+        }
+        if (literalStart < input.length()) {
+            tokens.add(new Node(null, input.substring(literalStart), null, null));
+        }
+        return tokens;
+    }
+
+    private static Node parsePlaceholder(String input, int start) {
+        Node placeholder = null;
+        if (input.startsWith(GET_STEP_BEGIN, start)) {
+            placeholder = parseGetStep(input, start);
+        } else if (input.startsWith(PATH_BEGIN, start)) {
+            placeholder = parsePath(input, start);
+        } else if (input.startsWith(PRELOAD_BEGIN, start)) {
+            placeholder = parsePreload(input, start);
+        } else if (input.startsWith(COOKIE_BEGIN, start)) {
+            placeholder = parseBracketName(PlaceholderType.COOKIE, input, start, COOKIE_BEGIN.length());
+        } else if (input.startsWith(HEADER_BEGIN, start)) {
+            placeholder = parseBracketName(PlaceholderType.HEADER, input, start, HEADER_BEGIN.length());
+        }
+        return placeholder;
+    }
+
+    /**
+     * "${getStep(N).getOutputParam(NAME)}": the name of the node is the step number and the argument is the output parameter name.
+     */
+    private static Node parseGetStep(String input, int start) {
+        Node placeholder = null;
+        int stepStart = start + GET_STEP_BEGIN.length();
+        int outputParamIndex = input.indexOf(GET_STEP_OUTPUT_PARAM, stepStart);
+        if (outputParamIndex >= 0) {
+            int paramStart = outputParamIndex + GET_STEP_OUTPUT_PARAM.length();
+            int end = input.indexOf(PARENTHESIS_END, paramStart);
+            if (end >= 0) {
+                placeholder = new Node(PlaceholderType.GET_STEP, input.substring(start, end + PARENTHESIS_END.length()),
+                    input.substring(stepStart, outputParamIndex), input.substring(paramStart, end));
+            }
+        }
+        return placeholder;
+    }
+
+    /**
+     * "${path[JSON_PATH]}": square brackets inside the json path (i.e. "array[0].field") are balanced.
+     */
+    private static Node parsePath(String input, int start) {
+        Node placeholder = null;
+        int argStart = start + PATH_BEGIN.length();
+        int depth = 1;
+        for (int i = argStart; i < input.length() && placeholder == null; i++) {
+            char currentChar = input.charAt(i);
+            if (currentChar == '[') {
+                depth++;
+            } else if (currentChar == ']') {
+                depth--;
+                if (depth <= 0 && input.startsWith(BRACKET_END, i)) {
+                    placeholder = new Node(PlaceholderType.PATH, input.substring(start, i + BRACKET_END.length()),
+                        input.substring(argStart, i), null);
+                }
+            }
+        }
+        return placeholder;
+    }
+
+    /**
+     * "${preload[NAME]}" or "${preload[NAME].get(FIELD)}": the argument of the node is the field to get, if present.
+     */
+    private static Node parsePreload(String input, int start) {
+        Node placeholder = null;
+        int nameStart = start + PRELOAD_BEGIN.length();
+        int nameEnd = indexOfBracketEnd(input, nameStart);
+        if (nameEnd >= 0 && input.charAt(nameEnd) == ']') {
+            String name = input.substring(nameStart, nameEnd);
+            if (input.startsWith(BRACKET_END, nameEnd)) {
+                placeholder = new Node(PlaceholderType.PRELOAD, input.substring(start, nameEnd + BRACKET_END.length()), name, null);
+            } else if (input.startsWith(PRELOAD_GET, nameEnd)) {
+                int fieldStart = nameEnd + PRELOAD_GET.length();
+                int end = input.indexOf(PARENTHESIS_END, fieldStart);
+                if (end >= 0) {
+                    placeholder = new Node(PlaceholderType.PRELOAD, input.substring(start, end + PARENTHESIS_END.length()),
+                        name, input.substring(fieldStart, end));
+                }
+            }
+        }
+        return placeholder;
+    }
+
+    private static Node parseBracketName(PlaceholderType type, String input, int start, int prefixLength) {
+        Node placeholder = null;
+        int nameStart = start + prefixLength;
+        int nameEnd = indexOfBracketEnd(input, nameStart);
+        if (nameEnd >= 0 && input.startsWith(BRACKET_END, nameEnd)) {
+            placeholder = new Node(type, input.substring(start, nameEnd + BRACKET_END.length()), input.substring(nameStart, nameEnd), null);
+        }
+        return placeholder;
+    }
+
+    private static int indexOfBracketEnd(String input, int from) {
+        int index = -1;
+        for (int i = from; i < input.length() && index < 0; i++) {
+            char currentChar = input.charAt(i);
+            if (currentChar == ']' || currentChar == '}') {
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Single element of a compiled template: a literal string or a placeholder.
+     */
+    public static final class Node {
+
+        private final PlaceholderType type;
+        private final String text;
+        private final String name;
+        private final String argument;
+
+        private Node(PlaceholderType type, String text, String name, String argument) {
+            this.type = type;
+            this.text = text;
+            this.name = name;
+            this.argument = argument;
+        }
+
+        public boolean isPlaceholder() {
+            return type != null;
+        }
+
+        /**
+         * @return the type of the placeholder, null for literal nodes
+         */
+        public PlaceholderType getType() {
+            return type;
+        }
+
+        /**
+         * @return the raw text of the node, exactly as it is in the compiled string
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * @return the main argument of the placeholder (variable, cookie or header name, json path, step number)
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the secondary argument of the placeholder (preloaded field or step output parameter), null if not present
+         */
+        public String getArgument() {
+            return argument;
+        }
+    }
+
+}
@@ -48,7 +48,7 @@ public class PropertyHandler {
     /**
      * Loads and cache the environment properties from file system.
      */
-    public void loadFromPropertyFile() {
+    public synchronized void loadFromPropertyFile() {
 
         if (!isLoaded) {
             InputStream inputStream = null;
@@ -0,0 +1,65 @@
+/**
+ * Copyright (C) 2015-2017 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.handlers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Collects the failures of the soft assertions of a test case (see {@link AssertionHandler}), in the order they occurred.
+ * The collector is shared by all the threads working on the test case (i.e. the flow steps running concurrently).
+ */
+public class SoftAssertionCollector {
+
+    private final List<String> failures = Collections.synchronizedList(new ArrayList());
+
+    /**
+     * Adds the failure of a soft assertion.
+     * @param failureMessage the message of the failed assertion
+     */
+    public void add(String failureMessage) {
+        failures.add(failureMessage);
+    }
+
+    public boolean isEmpty() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * Retrieves the failures collected so far.
+     * @return a copy of the list of the failure messages
+     */
+    public List<String> getFailures() {
+        synchronized (failures) {
+            return new ArrayList(failures);
+        }
+    }
+
+    /**
+     * Retrieves the failures collected so far and removes them from the collector.
+     * @return the list of the failure messages, in the order they occurred
+     */
+    public List<String> drainFailures() {
+        synchronized (failures) {
+            List<String> drainedFailures = new ArrayList(failures);
+            failures.clear();
+            return drainedFailures;
+        }
+    }
+
+}
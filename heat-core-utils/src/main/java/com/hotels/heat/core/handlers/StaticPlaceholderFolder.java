@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.handlers;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Partial evaluation of the placeholders of a test suite that cannot change during the run.
+ * The static placeholders are the '${preload[...]}' ones of the variables of the 'beforeTestSuite' section: their values
+ * are taken when the suite is loaded, and each string of the suite is folded only once, the first time it is processed,
+ * so that the test cases resolve at run time only the placeholders depending on the response, on the flow steps, on the
+ * csv rows and on the external modules (whose results can be reused as declared by their providers, see
+ * {@link PlaceholderResultCache}).
+ */
+public class StaticPlaceholderFolder {
+
+    private static final int MAX_FOLDED_TEMPLATES = 10000;
+
+    private final Map<String, Object> suiteVariables;
+    private final Map<String, PlaceholderTemplate> foldedTemplates = new ConcurrentHashMap();
+
+    /**
+     * Constructor of the folder.
+     * @param suiteVariables the variables of the 'beforeTestSuite' section, already processed; they are copied
+     */
+    public StaticPlaceholderFolder(Map<String, Object> suiteVariables) {
+        this.suiteVariables = suiteVariables != null ? Collections.unmodifiableMap(new HashMap(suiteVariables)) : Collections.emptyMap();
+    }
+
+    /**
+     * @return the variables of the 'beforeTestSuite' section, as they were when the suite was loaded
+     */
+    public Map<String, Object> getSuiteVariables() {
+        return suiteVariables;
+    }
+
+    /**
+     * @param placeholder a placeholder node
+     * @return true if the value of the placeholder cannot change during the run
+     */
+    public boolean isStatic(PlaceholderTemplate.Node placeholder) {
+        return placeholder.getType() == PlaceholderTemplate.PlaceholderType.PRELOAD && suiteVariables.containsKey(placeholder.getName());
+    }
+
+    /**
+     * Template with the static placeholders already resolved, folded the first time it is requested.
+     * @param template the compiled template of a string of the suite
+     * @param resolver the resolver of the static placeholders
+     * @return the folded template
+     */
+    public PlaceholderTemplate fold(PlaceholderTemplate template, PlaceholderTemplate.Resolver resolver) {
+        if (!template.isPlaceholderPresent()) {
+            return template;
+        }
+        PlaceholderTemplate folded = foldedTemplates.get(template.getRawString());
+        if (folded == null) {
+            if (foldedTemplates.size() >= MAX_FOLDED_TEMPLATES) {
+                foldedTemplates.clear();
+            }
+            folded = foldedTemplates.computeIfAbsent(template.getRawString(), rawString -> template.fold(this::isStatic, resolver));
+        }
+        return folded;
+    }
+
+}
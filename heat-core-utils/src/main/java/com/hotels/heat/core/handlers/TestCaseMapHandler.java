@@ -16,6 +16,7 @@
 package com.hotels.heat.core.handlers;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -32,6 +33,7 @@ public class TestCaseMapHandler {
     private final List<String> paramsToSkip;
     private final PlaceholderHandler placeholderHandler;
     private final LoggingUtils logUtils;
+    private Map<String, Object> processedStrings = Collections.emptyMap();
 
 /**
  * TestCaseMapHandler constructor.
@@ -56,19 +58,47 @@ public class TestCaseMapHandler {
      * @return the same structure of the json input file, but with placeholders resolved
      */
     public Map<String, Object> retrieveProcessedMap() {
-        logUtils.trace("input: '{}'", testCaseMap.toString());
+        logUtils.trace("input: '{}'", testCaseMap);
+        // all the strings with placeholders are resolved in a single batch, so that each heat module is invoked once
+        List<String> stringsToProcess = new ArrayList();
+        collectStrings(testCaseMap, stringsToProcess);
+        processedStrings = placeholderHandler.placeholderProcessStrings(stringsToProcess);
         Map<String, Object> output = (Map<String, Object>) process(testCaseMap);
-        logUtils.trace("output: '{}'", output.toString());
+        logUtils.trace("output: '{}'", output);
         return output;
     }
 
+    /**
+     * Collects the strings with placeholders, visiting the same elements visited by the processing.
+     */
+    private void collectStrings(Object input, List<String> stringsToProcess) {
+        switch (input.getClass().getSimpleName()) {
+        case "String":
+            if (input.toString().contains(PlaceholderHandler.PLACEHOLDER_SYMBOL_BEGIN)) {
+                stringsToProcess.add(input.toString());
+            }
+            break;
+        case "HashMap":
+            ((Map<String, Object>) input).entrySet().stream()
+                .filter(map -> !paramsToSkip.contains(map.getKey()))
+                .forEach(entry -> collectStrings(entry.getValue(), stringsToProcess));
+            break;
+        case "ArrayList":
+            ((ArrayList<Object>) input).forEach(valueObj -> collectStrings(valueObj, stringsToProcess));
+            break;
+        default:
+            break;
+        }
+    }
+
     private Object processString(Object input) {
         Object output = input;
-        logUtils.trace("OLD input:'{}'", input.toString());
+        logUtils.trace("OLD input:'{}'", input);
         if (input.toString().contains(PlaceholderHandler.PLACEHOLDER_SYMBOL_BEGIN)) {
-            output = placeholderHandler.placeholderProcessString((String) input);
+            output = processedStrings.containsKey(input)
+                ? processedStrings.get(input) : placeholderHandler.placeholderProcessString((String) input);
         }
-        logUtils.trace("NEW input:'{}'", output.toString());
+        logUtils.trace("NEW input:'{}'", output);
         return output;
     }
 
@@ -94,7 +124,7 @@ public class TestCaseMapHandler {
     private Object processArrayList(Object input) {
         Object output = input;
         ((ArrayList<Object>) input).forEach((valueObj) -> {
-            logUtils.trace("OLD value: '{}'", valueObj.toString());
+            logUtils.trace("OLD value: '{}'", valueObj);
             int index = ((ArrayList<Object>) input).indexOf(valueObj);
             if (valueObj.getClass().equals(String.class)) {
                 valueObj = processString(valueObj);
@@ -102,7 +132,7 @@ public class TestCaseMapHandler {
                 valueObj = process(valueObj);
             }
             ((ArrayList<Object>) output).set(index, valueObj);
-            logUtils.trace("NEW value: '{}'", valueObj.toString());
+            logUtils.trace("NEW value: '{}'", valueObj);
         });
 
 
@@ -113,7 +143,7 @@ public class TestCaseMapHandler {
         Object outputObj = input;
         String inputObjClass = input.getClass().getSimpleName();
         logUtils.trace("Class of object to process: {}", inputObjClass);
-        logUtils.trace("BEFORE '{}'", input.toString());
+        logUtils.trace("BEFORE '{}'", input);
         switch (inputObjClass) {
         case "String":
             outputObj = processString(input.toString());
@@ -128,7 +158,7 @@ public class TestCaseMapHandler {
             logUtils.debug("the object '{}' is not yet supported", inputObjClass);
             break;
         }
-        logUtils.trace("AFTER '{}'", outputObj.toString());
+        logUtils.trace("AFTER '{}'", outputObj);
         return outputObj;
     }
 
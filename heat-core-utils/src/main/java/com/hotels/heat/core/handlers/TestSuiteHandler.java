@@ -15,7 +15,13 @@
  */
 package com.hotels.heat.core.handlers;
 
+import java.util.Properties;
+
 import com.hotels.heat.core.environment.EnvironmentHandler;
+import com.hotels.heat.core.specificexception.HeatException;
+import com.hotels.heat.core.utils.DefaultHttpTransport;
+import com.hotels.heat.core.utils.HttpTransport;
+import com.hotels.heat.core.utils.PooledHttpTransport;
 import com.hotels.heat.core.utils.TestCaseUtils;
 import com.hotels.heat.core.utils.log.LoggingUtils;
 
@@ -37,6 +43,7 @@ public final class TestSuiteHandler {
     private final LoggingUtils logUtils;
     private String webappName;
     private String propertyFilePath;
+    private HttpTransport httpTransport;
 
     private TestSuiteHandler() {
         logUtils = new LoggingUtils();
@@ -94,4 +101,47 @@ public final class TestSuiteHandler {
         return tcUtils;
     }
 
+    /**
+     * Retrieves the transport executing the http requests, created at the first request with the configuration
+     * of the environment properties file (see {@link HttpTransport}).
+     * @return the http transport shared by all the requests
+     */
+    public synchronized HttpTransport getHttpTransport() {
+        if (httpTransport == null) {
+            httpTransport = createHttpTransport(getEnvironmentProperties());
+        }
+        return httpTransport;
+    }
+
+    public synchronized void setHttpTransport(HttpTransport httpTransport) {
+        this.httpTransport = httpTransport;
+    }
+
+    private Properties getEnvironmentProperties() {
+        Properties properties = new Properties();
+        if (environmentHandler != null && environmentHandler.getPropertyHandler() != null) {
+            PropertyHandler propertyHandler = environmentHandler.getPropertyHandler();
+            propertyHandler.loadFromPropertyFile();
+            properties.putAll(propertyHandler.getProperties());
+        }
+        return properties;
+    }
+
+    private static HttpTransport createHttpTransport(Properties properties) {
+        String transportName = properties.getProperty(HttpTransport.TRANSPORT_PROPERTY, HttpTransport.TRANSPORT_POOLED).trim();
+        HttpTransport transport;
+        if (HttpTransport.TRANSPORT_POOLED.equalsIgnoreCase(transportName)) {
+            transport = new PooledHttpTransport(properties);
+        } else if (HttpTransport.TRANSPORT_DEFAULT.equalsIgnoreCase(transportName)) {
+            transport = new DefaultHttpTransport(properties);
+        } else {
+            try {
+                transport = (HttpTransport) Class.forName(transportName).getConstructor(Properties.class).newInstance(properties);
+            } catch (Exception oEx) {
+                throw new HeatException("TestSuiteHandler - unable to create the http transport '" + transportName + "': " + oEx.getLocalizedMessage());
+            }
+        }
+        return transport;
+    }
+
 }
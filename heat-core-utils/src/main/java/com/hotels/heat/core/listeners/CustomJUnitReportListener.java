@@ -24,6 +24,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.regex.Pattern;
 
+import org.HdrHistogram.Histogram;
 import org.testng.IReporter;
 import org.testng.ISuite;
 import org.testng.ISuiteResult;
@@ -35,6 +36,8 @@ import org.testng.reporters.XMLConstants;
 import org.testng.reporters.XMLStringBuffer;
 import org.testng.xml.XmlSuite;
 
+import com.hotels.heat.core.utils.LatencyRecorder;
+
 /**
  * Listener for JUNIT report.
  */
@@ -69,6 +72,16 @@ public class CustomJUnitReportListener implements IReporter {
     private static final String SKIPPED_STATUS = "skipped";
     private static final String FAILED_STATUS = "failed";
 
+    private static final String TAG_LATENCIES = "latencies";
+    private static final String TAG_LATENCY = "latency";
+    private static final String PROP_LATENCY_TYPE = "type";
+    private static final String PROP_LATENCY_PHASE = "phase";
+    private static final String PROP_LATENCY_COUNT = "count";
+    private static final String LATENCY_TYPE_SERVICE = "service";
+    private static final String LATENCY_TYPE_STEP = "step";
+    private static final double MILLIS_TO_MICROS_RATIO = 1000.0;
+    private static final double[] LATENCY_PERCENTILES = {50.0, 90.0, 99.0};
+
     private int numberOfPassedSuites;
     private long testRunningTotalTime;
 
@@ -125,10 +138,38 @@ public class CustomJUnitReportListener implements IReporter {
             });
             document.pop(); // XMLConstants.TESTSUITES
         });
+        addLatencies(document);
         document.pop(); //heatRun
         Utils.writeUtf8File(REPORT_PATH, REPORT_NAME, document.toXML());
     }
 
+    /**
+     * Adds the latency of the phases of the test cases, by service under test and by step (milliseconds).
+     * @param doc the report
+     */
+    private void addLatencies(XMLStringBuffer doc) {
+        LatencyRecorder latencyRecorder = LatencyRecorder.getInstance();
+        doc.push(TAG_LATENCIES);
+        addLatencies(doc, LATENCY_TYPE_SERVICE, latencyRecorder.getServiceHistograms());
+        addLatencies(doc, LATENCY_TYPE_STEP, latencyRecorder.getStepHistograms());
+        doc.pop(TAG_LATENCIES);
+    }
+
+    private void addLatencies(XMLStringBuffer doc, String type, Map<String, Map<LatencyRecorder.Phase, Histogram>> histograms) {
+        histograms.forEach((name, phases) -> phases.forEach((phase, histogram) -> {
+            Properties attributesLatency = new Properties();
+            attributesLatency.setProperty(PROP_LATENCY_TYPE, type);
+            attributesLatency.setProperty(XMLConstants.ATTR_NAME, encodeAttr(name));
+            attributesLatency.setProperty(PROP_LATENCY_PHASE, phase.name().toLowerCase());
+            attributesLatency.setProperty(PROP_LATENCY_COUNT, String.valueOf(histogram.getTotalCount()));
+            for (double percentile : LATENCY_PERCENTILES) {
+                attributesLatency.setProperty("p" + (int) percentile, String.valueOf(histogram.getValueAtPercentile(percentile) / MILLIS_TO_MICROS_RATIO));
+            }
+            attributesLatency.setProperty("max", String.valueOf(histogram.getMaxValue() / MILLIS_TO_MICROS_RATIO));
+            doc.addEmptyElement(TAG_LATENCY, attributesLatency);
+        }));
+    }
+
     private List<ITestResult> getList(String listName, ITestContext context) {
         List<ITestResult> outputList = new ArrayList();
         if (context.getAttributeNames().contains(listName)) {
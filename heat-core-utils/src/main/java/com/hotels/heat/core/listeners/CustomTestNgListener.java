@@ -15,6 +15,8 @@
  */
 package com.hotels.heat.core.listeners;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -24,18 +26,26 @@ import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.testng.IAnnotationTransformer;
 import org.testng.ITestContext;
 import org.testng.ITestResult;
 import org.testng.TestListenerAdapter;
+import org.testng.annotations.ITestAnnotation;
 
+import com.hotels.heat.core.handlers.PlaceholderModuleRegistry;
+import com.hotels.heat.core.handlers.PlaceholderResultCache;
+import com.hotels.heat.core.handlers.TestSuiteHandler;
 import com.hotels.heat.core.runner.TestBaseRunner;
+import com.hotels.heat.core.utils.HttpTransport;
+import com.hotels.heat.core.utils.RequestDiagnostics;
 
 
 
 /**
  * CustomTestNgListener is a listener that makes easier to log errors.
+ * It also chooses the data provider of the runners, so it has to be declared in the testng.xml file.
  */
-public class CustomTestNgListener extends TestListenerAdapter {
+public class CustomTestNgListener extends TestListenerAdapter implements IAnnotationTransformer {
 
     public static final String FAILED_TEST_CASES = "failedTestCases";
     public static final String SKIPPED_TEST_CASES = "skippedTestCases";
@@ -46,30 +56,51 @@ public class CustomTestNgListener extends TestListenerAdapter {
     private List<ITestResult> passedTc;
     private List<ITestResult> failedTc;
 
+    /**
+     * TestNG reads all the test cases of a parallel data provider before running the first one.
+     * If the test cases of a suite have to run one at a time (no 'parallelTestCases' greater than 1), the runners using
+     * the parallel data provider are moved to the lazy one, that reads each test case only when it is going to run.
+     * @param annotation the test annotation of the runner method
+     * @param testClass not used
+     * @param testConstructor not used
+     * @param testMethod not used
+     */
+    @Override
+    public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+        if (TestBaseRunner.PARALLEL_PROVIDER.equals(annotation.getDataProvider())
+                && TestBaseRunner.getParallelTestCases() <= TestBaseRunner.DEFAULT_PARALLEL_TEST_CASES) {
+            annotation.setDataProvider(TestBaseRunner.PROVIDER);
+        }
+    }
+
     /**
      * This method is useful to print the output console log in case of test failed.
      * We are assuming that we put in the context an attribute whose name is the complete test case ID (example: TEST_SUITE.001) and whose value is
      * 'PASSED' or 'SKIPPED' or 'FAILED'.
+     * The http exchanges of the failed test case still recorded in {@link RequestDiagnostics} are dumped too.
      * @param tr test case result - testNG handling
      */
     @Override
     public void onTestFailure(ITestResult tr) {
         if (tr.getParameters().length > 0) {
-            Map<String, String> paramMap = (HashMap<String, String>) tr.getParameters()[0];
+            Map<String, Object> paramMap = (Map<String, Object>) tr.getParameters()[0];
             ITestContext testContext = tr.getTestContext();
             //testCaseCompleteID - Example: TEST_SUITE.001
-            String testCaseCompleteID = testContext.getName() + TestBaseRunner.TESTCASE_ID_SEPARATOR + testContext.getAttribute(TestBaseRunner.ATTR_TESTCASE_ID);
+            String testCaseCompleteID = getTestCaseCompleteID(testContext, paramMap);
             logger.error("[{}][{}][{}] -- FAILED", testCaseCompleteID,
                         testContext.getAttribute(TestBaseRunner.SUITE_DESCRIPTION_CTX_ATTR).toString(),
-                        testContext.getAttribute(TestBaseRunner.TC_DESCRIPTION_CTX_ATTR).toString());
+                        getTestCaseDescription(testContext, paramMap));
+            RequestDiagnostics.getInstance().dump(testContext.getName(), String.valueOf(getTestCaseId(testContext, paramMap)));
 
-            if (testContext.getAttribute(FAILED_TEST_CASES) == null) {
-                failedTc = new ArrayList();
-            } else {
-                failedTc = (List<ITestResult>) testContext.getAttribute(FAILED_TEST_CASES);
+            synchronized (testContext) {
+                if (testContext.getAttribute(FAILED_TEST_CASES) == null) {
+                    failedTc = new ArrayList();
+                } else {
+                    failedTc = (List<ITestResult>) testContext.getAttribute(FAILED_TEST_CASES);
+                }
+                failedTc.add(tr);
+                testContext.setAttribute(FAILED_TEST_CASES, failedTc);
             }
-            failedTc.add(tr);
-            testContext.setAttribute(FAILED_TEST_CASES, failedTc);
 
         } else {
             super.onTestFailure(tr);
@@ -85,43 +116,67 @@ public class CustomTestNgListener extends TestListenerAdapter {
     @Override
     public void onTestSuccess(ITestResult tr) {
         if (tr.getParameters().length > 0) {
-            Map<String, String> paramMap = (HashMap<String, String>) tr.getParameters()[0];
+            Map<String, Object> paramMap = (Map<String, Object>) tr.getParameters()[0];
             ITestContext testContext = tr.getTestContext();
             //testCaseCompleteID - Example: TEST_SUITE.001
-            String testCaseCompleteID = testContext.getName() + TestBaseRunner.TESTCASE_ID_SEPARATOR + testContext.getAttribute(TestBaseRunner.ATTR_TESTCASE_ID);
-            if (testContext.getAttributeNames().contains(testCaseCompleteID)
-                    && TestBaseRunner.STATUS_SKIPPED.equals(testContext.getAttribute(testCaseCompleteID))) {
-                logger.info("[{}][{}][{}] -- SKIPPED", testCaseCompleteID,
-                        testContext.getAttribute(TestBaseRunner.SUITE_DESCRIPTION_CTX_ATTR).toString(),
-                        testContext.getAttribute(TestBaseRunner.TC_DESCRIPTION_CTX_ATTR).toString());
+            String testCaseCompleteID = getTestCaseCompleteID(testContext, paramMap);
+            synchronized (testContext) {
+                if (testContext.getAttributeNames().contains(testCaseCompleteID)
+                        && TestBaseRunner.STATUS_SKIPPED.equals(testContext.getAttribute(testCaseCompleteID))) {
+                    logger.info("[{}][{}][{}] -- SKIPPED", testCaseCompleteID,
+                            testContext.getAttribute(TestBaseRunner.SUITE_DESCRIPTION_CTX_ATTR).toString(),
+                            getTestCaseDescription(testContext, paramMap));
+
+                    if (testContext.getAttribute(SKIPPED_TEST_CASES) == null) {
+                        skippedTc = new ArrayList();
+                    } else {
+                        skippedTc = (List<ITestResult>) testContext.getAttribute(SKIPPED_TEST_CASES);
+                    }
+                    skippedTc.add(tr);
+                    testContext.setAttribute(SKIPPED_TEST_CASES, skippedTc);
 
-                if (testContext.getAttribute(SKIPPED_TEST_CASES) == null) {
-                    skippedTc = new ArrayList();
                 } else {
-                    skippedTc = (List<ITestResult>) testContext.getAttribute(SKIPPED_TEST_CASES);
-                }
-                skippedTc.add(tr);
-                testContext.setAttribute(SKIPPED_TEST_CASES, skippedTc);
-
-            } else {
-                logger.info("[{}][{}][{}] -- PASSED", testCaseCompleteID,
-                        testContext.getAttribute(TestBaseRunner.SUITE_DESCRIPTION_CTX_ATTR).toString(),
-                        testContext.getAttribute(TestBaseRunner.TC_DESCRIPTION_CTX_ATTR).toString());
+                    logger.info("[{}][{}][{}] -- PASSED", testCaseCompleteID,
+                            testContext.getAttribute(TestBaseRunner.SUITE_DESCRIPTION_CTX_ATTR).toString(),
+                            getTestCaseDescription(testContext, paramMap));
+
+                    if (testContext.getAttribute(PASSED_TEST_CASES) == null) {
+                        passedTc = new ArrayList();
+                    } else {
+                        passedTc = (List<ITestResult>) testContext.getAttribute(PASSED_TEST_CASES);
+                    }
+                    passedTc.add(tr);
+                    testContext.setAttribute(PASSED_TEST_CASES, passedTc);
 
-                if (testContext.getAttribute(PASSED_TEST_CASES) == null) {
-                    passedTc = new ArrayList();
-                } else {
-                    passedTc = (List<ITestResult>) testContext.getAttribute(PASSED_TEST_CASES);
                 }
-                passedTc.add(tr);
-                testContext.setAttribute(PASSED_TEST_CASES, passedTc);
-
             }
         } else {
             super.onTestSuccess(tr);
         }
     }
 
+    /**
+     * The test case id is taken from the test case parameters, because the 'testId' attribute of the context
+     * is shared among test cases running in parallel.
+     * @param testContext test context - testNG handling
+     * @param paramMap test case parameters coming from the json input file
+     * @return the complete test case ID (example: TEST_SUITE.001)
+     */
+    private String getTestCaseCompleteID(ITestContext testContext, Map<String, Object> paramMap) {
+        return testContext.getName() + TestBaseRunner.TESTCASE_ID_SEPARATOR + getTestCaseId(testContext, paramMap);
+    }
+
+    private Object getTestCaseId(ITestContext testContext, Map<String, Object> paramMap) {
+        return paramMap.containsKey(TestBaseRunner.ATTR_TESTCASE_ID)
+            ? paramMap.get(TestBaseRunner.ATTR_TESTCASE_ID) : testContext.getAttribute(TestBaseRunner.ATTR_TESTCASE_ID);
+    }
+
+    private String getTestCaseDescription(ITestContext testContext, Map<String, Object> paramMap) {
+        Object testCaseDescription = paramMap.containsKey(TestBaseRunner.ATTR_TESTCASE_NAME)
+            ? paramMap.get(TestBaseRunner.ATTR_TESTCASE_NAME) : testContext.getAttribute(TestBaseRunner.TC_DESCRIPTION_CTX_ATTR);
+        return String.valueOf(testCaseDescription);
+    }
+
     /**
      * This method is invoked at the end of each test suite. Is useful to create console output logs, in terms of summary of the output
      * of the test suite just executed. In particular it prints the lists of success test cases, failing ones and skipped ones.
@@ -147,6 +202,15 @@ public class CustomTestNgListener extends TestListenerAdapter {
             logger.debug("*************[{}][{}] END Test Suite: Success: {} / Failed: {} / Skipped: {}",
                 testName, testContext.getAttribute(TestBaseRunner.SUITE_DESCRIPTION_CTX_ATTR), numTestSuccess, numTestFailed, numTestSkipped);
         }
+        HttpTransport httpTransport = TestSuiteHandler.getInstance().getHttpTransport();
+        logger.debug("*************[{}] HTTP connections: reused {} / new {}",
+            testName, httpTransport.getReusedConnections(), httpTransport.getNewConnections());
+        PlaceholderModuleRegistry moduleRegistry = PlaceholderModuleRegistry.getInstance();
+        logger.debug("*************[{}] placeholder module lookups: {} {}", testName, moduleRegistry.getLookups(), moduleRegistry.getLookupCounts());
+        PlaceholderResultCache moduleResultCache = PlaceholderResultCache.getInstance();
+        moduleResultCache.evictSuite(testName);
+        logger.debug("*************[{}] placeholder module results from cache: hits {} / misses {}",
+            testName, moduleResultCache.getHits(), moduleResultCache.getMisses());
 
         if (numTestFailed > 0) {
             Iterator testFailedIterator = testContext.getFailedTests().getAllResults().iterator();
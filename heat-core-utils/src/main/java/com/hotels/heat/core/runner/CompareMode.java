@@ -23,6 +23,7 @@ import org.testng.annotations.Test;
 import com.hotels.heat.core.checks.BasicMultipleChecks;
 import com.hotels.heat.core.handlers.TestSuiteHandler;
 import com.hotels.heat.core.specificexception.HeatException;
+import com.hotels.heat.core.utils.LatencyRecorder;
 import com.hotels.heat.core.utils.RestAssuredRequestMaker;
 
 import io.restassured.response.Response;
@@ -37,7 +38,7 @@ public class CompareMode extends TestBaseRunner {
      * Method that manages the execution of a single test case.
      * @param testCaseParams Map containing test case parameters coming from the json input file
      */
-    @Test(dataProvider = "provider")
+    @Test(dataProvider = PARALLEL_PROVIDER)
     public void runningTest(Map testCaseParams) {
         TestSuiteHandler testSuiteHandler = TestSuiteHandler.getInstance();
         setContextAttributes(testCaseParams);
@@ -58,15 +59,18 @@ public class CompareMode extends TestBaseRunner {
                     rspRetrieved.entrySet().stream().forEach((entry) -> {
                         if (entry.getValue() == null) {
                             getLogUtils().debug("RSP retrieved by {} --> null", entry.getKey());
-                        } else {
-                            getLogUtils().debug("RSP retrieved by {} --> {}",
-                                entry.getKey(), entry.getValue().asString());
-                            Reporter.log(entry.getValue().asString());
+                        } else if (getLogUtils().isDebugEnabled()) {
+                            String responseBody = entry.getValue().asString();
+                            getLogUtils().debug("RSP retrieved by {} --> {}", entry.getKey(), responseBody);
+                            Reporter.log(responseBody);
                         }
                     });
-                    compareChecks.expects(testSuiteHandler.getTestCaseUtils().getSystemParamOnBlocking(), testCaseParamsElaborated, rspRetrieved);
+                    LatencyRecorder.getInstance().time(null, testSuiteName, LatencyRecorder.Phase.CHECKS, () -> {
+                        compareChecks.expects(testSuiteHandler.getTestCaseUtils().getSystemParamOnBlocking(), testCaseParamsElaborated, rspRetrieved);
 
-                    super.specificChecks(testCaseParamsElaborated, rspRetrieved, testSuiteHandler.getEnvironmentHandler().getEnvironmentUnderTest());
+                        super.specificChecks(testCaseParamsElaborated, rspRetrieved,
+                            testSuiteHandler.getEnvironmentHandler().getEnvironmentUnderTest());
+                    });
 
 
                 }
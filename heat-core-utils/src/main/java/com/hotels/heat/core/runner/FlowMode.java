@@ -24,6 +24,7 @@ import org.testng.annotations.Test;
 import com.hotels.heat.core.checks.BasicFlowChecks;
 import com.hotels.heat.core.handlers.TestCaseMapHandler;
 import com.hotels.heat.core.handlers.TestSuiteHandler;
+import com.hotels.heat.core.utils.LatencyRecorder;
 import com.hotels.heat.core.utils.RestAssuredRequestMaker;
 
 import io.restassured.response.Response;
@@ -40,7 +41,7 @@ public class FlowMode extends TestBaseRunner {
      * Method that manages the execution of a single test case.
      * @param testCaseParams Map containing test case parameters coming from the json input file
      */
-    @Test(dataProvider = "provider")
+    @Test(dataProvider = PROVIDER)
     public void runningTest(Map testCaseParams) {
         TestSuiteHandler testSuiteHandler = TestSuiteHandler.getInstance();
         setContextAttributes(testCaseParams);
@@ -59,7 +60,8 @@ public class FlowMode extends TestBaseRunner {
             TestCaseMapHandler tcMapHandler = new TestCaseMapHandler(testCaseParamsElaborated, getPlaceholderHandler());
             Map<String, Response> rspRetrieved = flowChecks.retrieveInfo(testCaseParamsElaborated);
 
-            super.specificChecks(testCaseParamsElaborated, rspRetrieved, testSuiteHandler.getEnvironmentHandler().getEnvironmentUnderTest());
+            LatencyRecorder.getInstance().time(null, testSuiteName, LatencyRecorder.Phase.CHECKS, () ->
+                super.specificChecks(testCaseParamsElaborated, rspRetrieved, testSuiteHandler.getEnvironmentHandler().getEnvironmentUnderTest()));
 
         } else {
             getLogUtils().trace("test skippable [{}]", testCaseId);
@@ -0,0 +1,203 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.runner;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.HdrHistogram.Histogram;
+import org.testng.ITestContext;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Parameters;
+import org.testng.annotations.Test;
+
+import com.hotels.heat.core.checks.BasicChecks;
+import com.hotels.heat.core.specificexception.HeatException;
+import com.hotels.heat.core.utils.LoadGenerator;
+import com.hotels.heat.core.utils.RestAssuredRequestMaker;
+import com.hotels.heat.core.utils.TestRequest;
+
+import io.restassured.response.Response;
+
+
+/**
+ * It is the runner of the load mode: each test case of a single mode suite is replayed for a fixed duration, at a constant rate
+ * (open model) or with a fixed number of virtual users (closed model). A sample of the responses is validated with the
+ * same checks of the single mode, and the latency of the responses of each test case is collected in a HDR histogram.
+ * The load is configured with the following parameters of the test suite, that can be overridden by the system properties
+ * with the same name:
+ * <ul>
+ * <li>loadModel: 'closed' (default) or 'open'</li>
+ * <li>loadUsers: number of virtual users of the closed model (default 1)</li>
+ * <li>loadRate: requests per second of the open model (default 10)</li>
+ * <li>loadDuration: duration of the load of each test case, in seconds (default 60)</li>
+ * <li>loadCheckEvery: one response every 'loadCheckEvery' is checked, 0 to disable the checks (default 100)</li>
+ * <li>loadReportDir: folder of the latency distribution files, one for each test case (default 'target/heat-load')</li>
+ * </ul>
+ */
+public class LoadMode extends SingleMode {
+
+    public static final String LOAD_MODEL = "loadModel";
+    public static final String LOAD_USERS = "loadUsers";
+    public static final String LOAD_RATE = "loadRate";
+    public static final String LOAD_DURATION = "loadDuration";
+    public static final String LOAD_CHECK_EVERY = "loadCheckEvery";
+    public static final String LOAD_REPORT_DIR = "loadReportDir";
+
+    private static final String DEFAULT_LOAD_USERS = "1";
+    private static final String DEFAULT_LOAD_RATE = "10";
+    private static final String DEFAULT_LOAD_DURATION = "60";
+    private static final String DEFAULT_LOAD_CHECK_EVERY = "100";
+    private static final String DEFAULT_LOAD_REPORT_DIR = "target/heat-load";
+    private static final double MILLIS_TO_MICROS_RATIO = 1000.0;
+    private static final double[] REPORTED_PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    private final Map<String, Histogram> latencyHistograms = new ConcurrentHashMap();
+    private LoadGenerator loadGenerator;
+    private String reportDir;
+
+    /**
+     * Method that takes tests parameters and sets some environment properties.
+     * @param inputJsonParamPath path of the json input file with input data for tests
+     * @param enabledEnvironments environments enabled for the specific suite
+     * @param context testNG context
+     */
+    @BeforeTest
+    @Override
+    @Parameters({INPUT_JSON_PATH, ENABLED_ENVIRONMENTS})
+    public void beforeTestCase(String inputJsonParamPath,
+                               String enabledEnvironments,
+                               ITestContext context) {
+        super.beforeTestCase(inputJsonParamPath, enabledEnvironments, context);
+        try {
+            loadGenerator = new LoadGenerator(getLoadParameter(context, LOAD_MODEL, LoadGenerator.MODEL_CLOSED),
+                Double.parseDouble(getLoadParameter(context, LOAD_RATE, DEFAULT_LOAD_RATE)),
+                Integer.parseInt(getLoadParameter(context, LOAD_USERS, DEFAULT_LOAD_USERS)),
+                Long.parseLong(getLoadParameter(context, LOAD_DURATION, DEFAULT_LOAD_DURATION)) * 1000,
+                Integer.parseInt(getLoadParameter(context, LOAD_CHECK_EVERY, DEFAULT_LOAD_CHECK_EVERY)));
+        } catch (NumberFormatException oEx) {
+            throw new HeatException("LoadMode - wrong load parameter: '" + oEx.getLocalizedMessage() + "'");
+        }
+        reportDir = getLoadParameter(context, LOAD_REPORT_DIR, DEFAULT_LOAD_REPORT_DIR);
+    }
+
+    /**
+     * Method that drives the load of a single test case. The test cases of the suite are loaded one after the other.
+     * @param testCaseParams Map containing test case parameters coming from the json input file
+     */
+    @Override
+    @Test(dataProvider = PROVIDER)
+    public void runningTest(Map testCaseParams, ITestContext context) {
+        setContextAttributes(testCaseParams);
+        String testSuiteName = getTestContext().getName();
+        String testCaseId = testCaseParams.get(TestBaseRunner.ATTR_TESTCASE_ID).toString();
+        getTestContext().setAttribute(TestBaseRunner.ATTR_TESTCASE_ID, testCaseId);
+
+        if (!super.isTestCaseSkippable(testSuiteName, testCaseId, getWebappName(), getWebappPath())) {
+            Map testCaseParamsElaborated = resolveTestCaseParams(testCaseParams);
+            RestAssuredRequestMaker restAssuredRequestMaker = new RestAssuredRequestMaker();
+            TestRequest tr = buildTestRequest(restAssuredRequestMaker, testCaseParamsElaborated, context);
+
+            getLogUtils().info("load started: model '{}', users {}, rate {}/s, duration {} ms", loadGenerator.getModel(),
+                loadGenerator.getUsers(), loadGenerator.getRate(), loadGenerator.getDurationMillis());
+            LoadGenerator.LoadResult result = loadGenerator.run(() -> restAssuredRequestMaker.executeTestRequestAsync(tr),
+                (Response rsp) -> checkSampledResponse(rsp, testCaseParamsElaborated));
+            String testCaseCompleteId = testSuiteName + TestBaseRunner.TESTCASE_ID_SEPARATOR + testCaseId;
+            latencyHistograms.put(testCaseCompleteId, result.getLatencyHistogram());
+            report(testCaseCompleteId, result);
+
+            if (result.getCheckFailures() > 0) {
+                throw new HeatException(getLogUtils().getExceptionDetails() + result.getCheckFailures() + " of " + result.getCheckedResponses()
+                    + " sampled responses failed the checks, first failure: '" + result.getFirstCheckFailure() + "'");
+            }
+        } else {
+            getLogUtils().trace("test skippable");
+            getTestContext().setAttribute(testSuiteName + TestBaseRunner.TESTCASE_ID_SEPARATOR + testCaseId,
+                TestBaseRunner.STATUS_SKIPPED);
+        }
+    }
+
+    private void checkSampledResponse(Response rsp, Map testCaseParamsElaborated) {
+        BasicChecks basicChecks = new BasicChecks(getTestContext());
+        basicChecks.setResponse(rsp);
+        try {
+            basicChecks.commonTestValidation(testCaseParamsElaborated);
+        } finally {
+            // the sampled responses are not used after their checks: they must not pile up for the whole load
+            Optional.ofNullable(TestCaseContext.current()).ifPresent(tcContext -> tcContext.getResponseJsonCache().clear());
+            // the soft assertions are drained even if the validation failed: their message is more precise than the validation one
+            failOnSoftAssertions(TestCaseContext.current());
+        }
+    }
+
+    /**
+     * The soft assertions failed while checking a sampled response are turned into the failure of its check, with the first of
+     * them as message. They are removed from the collector, so that each response counts only its own failures and they do not
+     * pile up for the whole load.
+     * @param tcContext context of the test case under load, it can be null
+     */
+    static void failOnSoftAssertions(TestCaseContext tcContext) {
+        if (tcContext != null) {
+            List<String> softFailures = tcContext.getSoftAssertionCollector().drainFailures();
+            if (!softFailures.isEmpty()) {
+                throw new HeatException("failed soft assertions: " + softFailures.size() + ", first: '" + softFailures.get(0) + "'");
+            }
+        }
+    }
+
+    private void report(String testCaseCompleteId, LoadGenerator.LoadResult result) {
+        Histogram histogram = result.getLatencyHistogram();
+        StringBuilder percentiles = new StringBuilder();
+        for (double percentile : REPORTED_PERCENTILES) {
+            percentiles.append(" p").append(percentile).append('=').append(histogram.getValueAtPercentile(percentile) / MILLIS_TO_MICROS_RATIO);
+        }
+        getLogUtils().info("load completed: {} requests in {} ms ({} req/s), {} errors, {} sampled checks ({} failed); latency ms: min={}{} max={}",
+            result.getRequests(), result.getElapsedMillis(), String.format("%.1f", result.getThroughput()), result.getErrors(),
+            result.getCheckedResponses(), result.getCheckFailures(), histogram.getMinValue() / MILLIS_TO_MICROS_RATIO, percentiles,
+            histogram.getMaxValue() / MILLIS_TO_MICROS_RATIO);
+
+        File reportFile = new File(reportDir, testCaseCompleteId + ".hgrm");
+        reportFile.getParentFile().mkdirs();
+        try (PrintStream reportStream = new PrintStream(new FileOutputStream(reportFile), false, "UTF-8")) {
+            histogram.outputPercentileDistribution(reportStream, MILLIS_TO_MICROS_RATIO);
+        } catch (IOException oEx) {
+            getLogUtils().error("unable to write the latency distribution '{}': {}", reportFile.getPath(), oEx.getLocalizedMessage());
+        }
+    }
+
+    private static String getLoadParameter(ITestContext context, String parameterName, String defaultValue) {
+        String value = System.getProperty(parameterName);
+        if (value == null && context != null) {
+            value = context.getCurrentXmlTest().getParameter(parameterName);
+        }
+        return value != null && !value.trim().isEmpty() ? value.trim() : defaultValue;
+    }
+
+    /**
+     * Latency histograms (microseconds) of the test cases already loaded.
+     * @return the histograms, by complete test case id ('suiteName.testCaseId')
+     */
+    public Map<String, Histogram> getLatencyHistograms() {
+        return latencyHistograms;
+    }
+
+}
@@ -16,7 +16,6 @@
 package com.hotels.heat.core.runner;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import org.testng.ITestContext;
@@ -29,6 +28,8 @@ import org.testng.annotations.Test;
 import com.hotels.heat.core.checks.BasicChecks;
 import com.hotels.heat.core.handlers.TestSuiteHandler;
 import com.hotels.heat.core.specificexception.HeatException;
+import com.hotels.heat.core.utils.HeatExecutor;
+import com.hotels.heat.core.utils.LatencyRecorder;
 import com.hotels.heat.core.utils.RestAssuredRequestMaker;
 import com.hotels.heat.core.utils.TestCaseUtils;
 import com.hotels.heat.core.utils.TestRequest;
@@ -86,7 +87,7 @@ public class SingleMode extends TestBaseRunner {
      * Method that manages the execution of a single test case.
      * @param testCaseParams Map containing test case parameters coming from the json input file
      */
-    @Test(dataProvider = "provider")
+    @Test(dataProvider = PARALLEL_PROVIDER)
     public void runningTest(Map testCaseParams, ITestContext context) {
         setContextAttributes(testCaseParams);
         String testSuiteName = getTestContext().getName();
@@ -95,25 +96,20 @@ public class SingleMode extends TestBaseRunner {
 
         if (!super.isTestCaseSkippable(testSuiteName, testCaseId, webappName, webappPath)) {
 
-            List<Map> rowListForCsvParams = extractParamsFromCsvFile(testCaseParams);
-            Map rowMap = new HashMap();
-            if(rowListForCsvParams!=null && rowListForCsvParams.size()>0){
-                String[] splitName =  ((String)testCaseParams.get(ATTR_TESTCASE_ID)).split("_");
-                rowMap =  rowListForCsvParams.get(Integer.valueOf(splitName[splitName.length-1]));
-            }
-
-            Map  testCaseParamsElaborated = super.resolvePlaceholdersInTcParams(testCaseParams, rowMap);
+            Map  testCaseParamsElaborated = resolveTestCaseParams(testCaseParams);
             getLogUtils().debug("test not skippable");
             Response apiResponse = executeRequest(testCaseParamsElaborated, context);
 
-            BasicChecks basicChecks = new BasicChecks(testContext);
-            basicChecks.setResponse(apiResponse);
-            basicChecks.commonTestValidation(testCaseParamsElaborated);
+            LatencyRecorder.getInstance().time(webappName, testSuiteName, LatencyRecorder.Phase.CHECKS, () -> {
+                BasicChecks basicChecks = new BasicChecks(testContext);
+                basicChecks.setResponse(apiResponse);
+                basicChecks.commonTestValidation(testCaseParamsElaborated);
 
-            Map<String, Response> rspMap = new HashMap();
-            rspMap.put(webappName, apiResponse);
+                Map<String, Response> rspMap = new HashMap();
+                rspMap.put(webappName, apiResponse);
 
-            super.specificChecks(testCaseParamsElaborated, rspMap, TestSuiteHandler.getInstance().getEnvironmentHandler().getEnvironmentUnderTest());
+                super.specificChecks(testCaseParamsElaborated, rspMap, TestSuiteHandler.getInstance().getEnvironmentHandler().getEnvironmentUnderTest());
+            });
 
         } else {
             getLogUtils().trace("test skippable");
@@ -122,16 +118,38 @@ public class SingleMode extends TestBaseRunner {
         }
     }
 
+    /**
+     * Resolves the placeholders of the test case parameters, using the row of the csv file related to the test case (if any).
+     * @param testCaseParams Map containing test case parameters coming from the json input file
+     * @return the test case parameters with the placeholders resolved
+     */
+    protected Map resolveTestCaseParams(Map testCaseParams) {
+        return super.resolvePlaceholdersInTcParams(testCaseParams, extractCsvRowParams(testCaseParams));
+    }
+
+    /**
+     * Builds the request of the test case against the service under test.
+     * @param restAssuredRequestMaker the request maker that will execute the request
+     * @param testCaseParamsElaborated test case parameters with the placeholders already resolved
+     * @param context testNG context
+     * @return the request to execute
+     */
+    protected TestRequest buildTestRequest(RestAssuredRequestMaker restAssuredRequestMaker, Map testCaseParamsElaborated, ITestContext context) {
+        TestCaseUtils testCaseUtils = TestSuiteHandler.getInstance().getTestCaseUtils();
+
+        restAssuredRequestMaker.setBasePath(webappPath);
+        restAssuredRequestMaker.setLatencyLabels(webappName, context.getName());
+        TestRequest tr = restAssuredRequestMaker.buildRequestByParams(testCaseUtils.getHttpMethod(), testCaseParamsElaborated);
+        tr.getHeadersParams().put("X-Heat-Test-Id", context.getName() + "." + testCaseParamsElaborated.get("testId"));
+        return tr;
+    }
+
     private Response executeRequest(Map testCaseParamsElaborated, ITestContext context) {
         Response apiRsp;
         try {
             RestAssuredRequestMaker restAssuredRequestMaker = new RestAssuredRequestMaker();
-            TestCaseUtils testCaseUtils = TestSuiteHandler.getInstance().getTestCaseUtils();
-
-            restAssuredRequestMaker.setBasePath(webappPath);
-            TestRequest tr = restAssuredRequestMaker.buildRequestByParams(testCaseUtils.getHttpMethod(), testCaseParamsElaborated);
-            tr.getHeadersParams().put("X-Heat-Test-Id", context.getName() + "." + testCaseParamsElaborated.get("testId"));
-            apiRsp = restAssuredRequestMaker.executeTestRequest(tr);
+            TestRequest tr = buildTestRequest(restAssuredRequestMaker, testCaseParamsElaborated, context);
+            apiRsp = HeatExecutor.getInstance().call(() -> restAssuredRequestMaker.executeTestRequest(tr));
             if (apiRsp == null) {
                 throw new HeatException(getLogUtils().getExceptionDetails() + "Exception: the service has provided a response null");
             }
@@ -143,6 +161,11 @@ public class SingleMode extends TestBaseRunner {
         return apiRsp;
     }
 
+    @Override
+    protected String getLatencyServiceName() {
+        return webappName;
+    }
+
     public String getWebappPath() {
         return webappPath;
     }
@@ -16,22 +16,27 @@
 package com.hotels.heat.core.runner;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
 
 import org.testng.ITestContext;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Optional;
 import org.testng.annotations.Parameters;
+import org.testng.xml.XmlSuite;
 
 import com.hotels.heat.core.handlers.PlaceholderHandler;
 import com.hotels.heat.core.handlers.TestCaseMapHandler;
 import com.hotels.heat.core.handlers.TestSuiteHandler;
 import com.hotels.heat.core.heatspecificchecks.SpecificChecks;
+import com.hotels.heat.core.utils.CsvRowStore;
+import com.hotels.heat.core.utils.LatencyRecorder;
 import com.hotels.heat.core.utils.RunnerInterface;
 import com.hotels.heat.core.utils.TestCaseUtils;
 import com.hotels.heat.core.utils.log.LoggingUtils;
@@ -90,9 +95,14 @@ public class TestBaseRunner implements RunnerInterface {
     public static final String ENV_PROP_FILE_PATH = "envPropFilePath";
     public static final String INPUT_JSON_PATH = "inputJsonPath";
 
+    public static final String SYS_PROP_PARALLEL_TEST_CASES = "parallelTestCases";
+    public static final int DEFAULT_PARALLEL_TEST_CASES = 1;
+
+    public static final String PROVIDER = "provider";
+    public static final String PARALLEL_PROVIDER = "parallelProvider";
+
     private ITestContext testContext;
 
-    private PlaceholderHandler placeholderHandler;
     private String inputJsonPath;
 
     /**
@@ -111,7 +121,30 @@ public class TestBaseRunner implements RunnerInterface {
         testSuiteHandler.setPropertyFilePath(propFilePath);
         testSuiteHandler.populateEnvironmentHandler();
         testSuiteHandler.populateTestCaseUtils();
+        if (context != null) {
+            setParallelTestCases(context.getSuite().getXmlSuite());
+        }
+    }
+
+    /**
+     * Sets the pool size of the parallel data provider (test cases of the same suite running at the same time).
+     * The data-provider-thread-count of the testng.xml file is kept if the 'parallelTestCases' system property is not given.
+     * @param xmlSuite the suite whose data provider pool size is set
+     */
+    static void setParallelTestCases(XmlSuite xmlSuite) {
+        if (System.getProperty(SYS_PROP_PARALLEL_TEST_CASES) != null) {
+            xmlSuite.setDataProviderThreadCount(getParallelTestCases());
+        }
+    }
 
+    /**
+     * Number of test cases of the same suite that can run at the same time, set with the 'parallelTestCases' system property.
+     * It is used only by the runners that use the 'parallelProvider' data provider: with a single test case at a time
+     * {@link com.hotels.heat.core.listeners.CustomTestNgListener} moves them to the lazy 'provider' data provider.
+     * @return the size of the pool running the test cases
+     */
+    public static int getParallelTestCases() {
+        return Math.max(DEFAULT_PARALLEL_TEST_CASES, TestCaseUtils.getIntSystemParam(SYS_PROP_PARALLEL_TEST_CASES, DEFAULT_PARALLEL_TEST_CASES));
     }
 
     /**
@@ -134,12 +167,37 @@ public class TestBaseRunner implements RunnerInterface {
     }
 
 
+    /**
+     * Logs the failed soft assertions of the test case just executed and removes its context from the current thread.
+     */
+    @AfterMethod(alwaysRun = true)
+    public void afterTestCase() {
+        TestCaseContext tcContext = TestCaseContext.current();
+        if (tcContext != null && !tcContext.getSoftAssertionCollector().isEmpty()) {
+            LoggingUtils logUtils = TestSuiteHandler.getInstance().getLogUtils();
+            tcContext.getSoftAssertionCollector().getFailures().forEach(failure -> logUtils.warning("soft assertion failed: {}", failure));
+        }
+        TestCaseContext.close();
+    }
+
     @Override
-    @DataProvider(name = "provider")
+    @DataProvider(name = PROVIDER)
     public Iterator<Object[]> providerJson() {
         return TestSuiteHandler.getInstance().getTestCaseUtils().jsonReader(inputJsonPath, testContext);
     }
 
+    /**
+     * Data provider whose test cases can run in parallel (see 'parallelTestCases' system property).
+     * It has to be used only by runners whose test cases do not share any state, apart from the {@link TestCaseContext}.
+     * TestNG reads all the test cases of a parallel data provider before running the first one, so it is used only
+     * when more than one test case at a time is requested (see {@link com.hotels.heat.core.listeners.CustomTestNgListener}).
+     * @return the iterator of the test cases described in the json input file
+     */
+    @DataProvider(name = PARALLEL_PROVIDER, parallel = true)
+    public Iterator<Object[]> parallelProviderJson() {
+        return providerJson();
+    }
+
     /**
      * Elaboration of test case parameters before any request (method executed as first step in the runner).
      * @param testCaseParams Map containing test case parameters coming from the json input file
@@ -148,15 +206,30 @@ public class TestBaseRunner implements RunnerInterface {
     @Override
     public Map resolvePlaceholdersInTcParams(Map<String, Object> testCaseParams, List<String> paramsToSkip, Map rowListForCsvParams) {
         TestSuiteHandler testSuiteHandler = TestSuiteHandler.getInstance();
-        testSuiteHandler.getLogUtils().setTestCaseId(testContext.getAttribute(ATTR_TESTCASE_ID).toString());
+        TestCaseContext tcContext = TestCaseContext.current();
+        if (tcContext == null) {
+            testSuiteHandler.getLogUtils().setTestCaseId(testContext.getAttribute(ATTR_TESTCASE_ID).toString());
+        }
 
         // now we start elaborating the parameters.
-        placeholderHandler = new PlaceholderHandler();
+        PlaceholderHandler placeholderHandler = new PlaceholderHandler();
+        if (tcContext != null) {
+            tcContext.setPlaceholderHandler(placeholderHandler);
+        }
         placeholderHandler.setPreloadedVariables(testSuiteHandler.getTestCaseUtils().getBeforeSuiteVariables());
         placeholderHandler.addCsvFileVariables(rowListForCsvParams);
         TestCaseMapHandler tcMapHandler = new TestCaseMapHandler(testCaseParams, placeholderHandler, paramsToSkip);
 
-        return tcMapHandler.retrieveProcessedMap();
+        return LatencyRecorder.getInstance().time(getLatencyServiceName(), testContext.getName(), LatencyRecorder.Phase.RESOLVE,
+            tcMapHandler::retrieveProcessedMap);
+    }
+
+    /**
+     * Name of the service under test used to record the latency of the phases of the test cases (see {@link LatencyRecorder}).
+     * @return the name of the service, null if the test cases of the runner involve more services
+     */
+    protected String getLatencyServiceName() {
+        return null;
     }
 
     public Map resolvePlaceholdersInTcParams(Map<String, Object> testCaseParams, Map csvParamsInput) {
@@ -175,18 +248,43 @@ public class TestBaseRunner implements RunnerInterface {
         return resultList;
     }
 
+    /**
+     * Row of the csv file related to a test case expanded from a 'csv_preloadFile' test case: the index of the row is the
+     * suffix of the test case id ('testId_NNN'). The csv file is read once and shared by all the test cases using it.
+     * @param testCaseParams Map containing test case parameters coming from the json input file
+     * @return the row, as 'column name' to 'value', or an empty map if the test case is not related to a csv file
+     */
+    public Map extractCsvRowParams(Map testCaseParams) {
+        Map rowMap = new HashMap();
+        Object csvFile = testCaseParams.get(TestCaseUtils.JSONPATH_CSV_PRELOAD_FILE);
+        if (csvFile != null) {
+            CsvRowStore csvRowStore = TestSuiteHandler.getInstance().getTestCaseUtils().getCsvRowStore((String) csvFile);
+            if (csvRowStore.size() > 0) {
+                String testCaseId = testCaseParams.get(ATTR_TESTCASE_ID).toString();
+                rowMap = csvRowStore.getRow(Integer.parseInt(testCaseId.substring(testCaseId.lastIndexOf('_') + 1)));
+            }
+        }
+        return rowMap;
+    }
+
     /**
      * Method to set useful parameters in the context managed by testNG.
-     * Parameters that will be set will be: 'testId', 'suiteDescription', 'tcDescription'
+     * Parameters that will be set will be: 'testId', 'suiteDescription', 'tcDescription'.
+     * The 'testId' attribute is shared among the test cases of the suite: the test case running on the current thread
+     * is identified by the {@link TestCaseContext} opened here.
      * @param testCaseParams Map containing test case parameters coming from the json input file
      */
     public void setContextAttributes(Map<String, Object> testCaseParams) {
         String testCaseID = testCaseParams.get(ATTR_TESTCASE_ID).toString();
+        TestCaseUtils tcUtils = TestSuiteHandler.getInstance().getTestCaseUtils();
+        TestCaseContext tcContext = TestCaseContext.open(testContext.getName(), testCaseID);
         testContext.setAttribute(ATTR_TESTCASE_ID, testCaseID);
-        String suiteDescription = TestSuiteHandler.getInstance().getTestCaseUtils().getSuiteDescription();
+        String suiteDescription = tcUtils.getSuiteDescription();
         testContext.setAttribute(SUITE_DESCRIPTION_CTX_ATTR, suiteDescription);
         String testCaseDesc = testCaseParams.get(ATTR_TESTCASE_NAME).toString();
         testContext.setAttribute(TC_DESCRIPTION_CTX_ATTR, testCaseDesc);
+        // a test case with malformed check blocks fails here, with its context already set
+        tcContext.setCheckPlan(tcUtils.takeCheckPlan(testCaseParams));
     }
 
     /**
@@ -272,8 +370,13 @@ public class TestBaseRunner implements RunnerInterface {
     }
 
 
+    /**
+     * Retrieves the placeholder handler of the test case running on the current thread.
+     * @return the placeholder handler used to resolve the test case parameters
+     */
     public PlaceholderHandler getPlaceholderHandler() {
-        return placeholderHandler;
+        TestCaseContext tcContext = TestCaseContext.current();
+        return tcContext != null ? tcContext.getPlaceholderHandler() : null;
     }
 
     public String getInputJsonPath() {
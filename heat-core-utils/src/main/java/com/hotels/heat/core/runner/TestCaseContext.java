@@ -0,0 +1,143 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.runner;
+
+import com.hotels.heat.core.checks.CheckPlan;
+import com.hotels.heat.core.handlers.PlaceholderHandler;
+import com.hotels.heat.core.handlers.SoftAssertionCollector;
+import com.hotels.heat.core.utils.ResponseJsonCache;
+
+
+/**
+ * State of the single test case invocation (test id, flow step, placeholder handler, compiled checks, parsed responses, failed soft
+ * assertions).
+ * The state is bound to the thread running the test case, so that test cases of the same suite can run in parallel
+ * without sharing the test case specific data through the singletons or the TestNG context.
+ */
+public final class TestCaseContext {
+
+    private static final ThreadLocal<TestCaseContext> CURRENT_CONTEXT = new ThreadLocal();
+
+    private final String testSuiteName;
+    private final String testCaseId;
+    private Integer flowStep;
+    private PlaceholderHandler placeholderHandler;
+    private CheckPlan checkPlan;
+    private final ResponseJsonCache responseJsonCache;
+    private final SoftAssertionCollector softAssertionCollector;
+
+    private TestCaseContext(String testSuiteName, String testCaseId, ResponseJsonCache responseJsonCache,
+                            SoftAssertionCollector softAssertionCollector) {
+        this.testSuiteName = testSuiteName;
+        this.testCaseId = testCaseId;
+        this.responseJsonCache = responseJsonCache;
+        this.softAssertionCollector = softAssertionCollector;
+    }
+
+    /**
+     * Creates the context of a test case invocation and binds it to the current thread.
+     * @param testSuiteName name of the test suite currently in execution
+     * @param testCaseId id of the test case currently in execution
+     * @return the new context
+     */
+    public static TestCaseContext open(String testSuiteName, String testCaseId) {
+        TestCaseContext tcContext = new TestCaseContext(testSuiteName, testCaseId, new ResponseJsonCache(), new SoftAssertionCollector());
+        CURRENT_CONTEXT.set(tcContext);
+        return tcContext;
+    }
+
+    /**
+     * Retrieves the context of the test case running on the current thread.
+     * @return the current context, null if there is not any test case running on the current thread
+     */
+    public static TestCaseContext current() {
+        return CURRENT_CONTEXT.get();
+    }
+
+    /**
+     * Binds an already opened context to the current thread (i.e. a thread executing a task on behalf of the test case).
+     * @param tcContext the context to bind, null to remove any context from the current thread
+     */
+    public static void attach(TestCaseContext tcContext) {
+        if (tcContext == null) {
+            CURRENT_CONTEXT.remove();
+        } else {
+            CURRENT_CONTEXT.set(tcContext);
+        }
+    }
+
+    /**
+     * Removes the context of the test case from the current thread.
+     */
+    public static void close() {
+        CURRENT_CONTEXT.remove();
+    }
+
+    /**
+     * Creates a copy of this context, to be attached to a thread working on a part of the test case (i.e. a flow step running
+     * concurrently with the other steps), so that the changes made by that thread do not affect the other threads.
+     * The parsed responses and the failed soft assertions are shared with the copy.
+     * @return the copy of the context
+     */
+    public TestCaseContext copy() {
+        TestCaseContext tcContext = new TestCaseContext(testSuiteName, testCaseId, responseJsonCache, softAssertionCollector);
+        tcContext.setFlowStep(flowStep);
+        tcContext.setPlaceholderHandler(placeholderHandler);
+        tcContext.setCheckPlan(checkPlan);
+        return tcContext;
+    }
+
+    public String getTestSuiteName() {
+        return testSuiteName;
+    }
+
+    public String getTestCaseId() {
+        return testCaseId;
+    }
+
+    public Integer getFlowStep() {
+        return flowStep;
+    }
+
+    public void setFlowStep(Integer flowStep) {
+        this.flowStep = flowStep;
+    }
+
+    public PlaceholderHandler getPlaceholderHandler() {
+        return placeholderHandler;
+    }
+
+    public void setPlaceholderHandler(PlaceholderHandler placeholderHandler) {
+        this.placeholderHandler = placeholderHandler;
+    }
+
+    public CheckPlan getCheckPlan() {
+        return checkPlan;
+    }
+
+    public void setCheckPlan(CheckPlan checkPlan) {
+        this.checkPlan = checkPlan;
+    }
+
+    public ResponseJsonCache getResponseJsonCache() {
+        return responseJsonCache;
+    }
+
+    public SoftAssertionCollector getSoftAssertionCollector() {
+        return softAssertionCollector;
+    }
+
+}
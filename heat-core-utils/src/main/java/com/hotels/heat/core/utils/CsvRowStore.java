@@ -0,0 +1,107 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.hotels.heat.core.specificexception.HeatException;
+import com.opencsv.CSVReader;
+
+
+/**
+ * Rows of a csv file with header, read once (streaming the file record by record) and then accessed by index.
+ * Each row is kept as the array of its values: the map 'column name' to 'value' is built only when the row is requested.
+ */
+public class CsvRowStore {
+
+    private final String[] header;
+    private final List<String[]> rows = new ArrayList();
+
+    /**
+     * Constructor of the store: it reads all the rows of the csv and closes the reader.
+     * @param csvReader reader of the csv content, the first record is the header
+     * @throws IOException if the csv cannot be read
+     */
+    public CsvRowStore(Reader csvReader) throws IOException {
+        try (CSVReader reader = new CSVReader(csvReader)) {
+            String[] firstRecord = reader.readNext();
+            header = firstRecord != null ? firstRecord : new String[0];
+            String[] row = reader.readNext();
+            while (row != null) {
+                rows.add(row);
+                row = reader.readNext();
+            }
+        }
+    }
+
+    private CsvRowStore() {
+        header = new String[0];
+    }
+
+    /**
+     * @return a store without rows
+     */
+    public static CsvRowStore empty() {
+        return new CsvRowStore();
+    }
+
+    /**
+     * @return the number of rows, header excluded
+     */
+    public int size() {
+        return rows.size();
+    }
+
+    public List<String> getHeader() {
+        return Collections.unmodifiableList(Arrays.asList(header));
+    }
+
+    /**
+     * Row of the csv. The values without a column in the header are ignored.
+     * @param index index of the row, starting from 0 for the first row after the header
+     * @return a new map 'column name' to 'value'
+     */
+    public Map<String, String> getRow(int index) {
+        if (index < 0 || index >= rows.size()) {
+            throw new HeatException("csv row " + index + " not available: the file has " + rows.size() + " rows");
+        }
+        String[] row = rows.get(index);
+        Map<String, String> rowMap = new HashMap();
+        for (int i = 0; i < row.length && i < header.length; i++) {
+            rowMap.put(header[i], row[i]);
+        }
+        return rowMap;
+    }
+
+    /**
+     * @return all the rows, each one as a new map 'column name' to 'value'
+     */
+    public List<Map<String, String>> getRows() {
+        List<Map<String, String>> rowMaps = new ArrayList(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            rowMaps.add(getRow(i));
+        }
+        return rowMaps;
+    }
+
+}
@@ -61,7 +61,7 @@ public class DataExtractionSupport {
     public String process(Object extractionObj, Response response, Map retrievedParametersFlowMode) {
         String outputStr = "";
         this.retrievedParametersFlowMode = retrievedParametersFlowMode;
-        logUtils.trace("extractionObj = '{}'", extractionObj.toString());
+        logUtils.trace("extractionObj = '{}'", extractionObj);
         if (extractionObj.getClass().equals(String.class)) {
             outputStr = processString((String) extractionObj, response);
         } else if (extractionObj.getClass().equals(HashMap.class)) {
@@ -71,7 +71,7 @@ public class DataExtractionSupport {
             throw new HeatException(logUtils.getExceptionDetails() + "actualValue/expectedValue belongs to "
                     + extractionObj.getClass().toString() + " not supported");
         }
-        logUtils.trace("outputStr = '{}' (class: {})", outputStr, extractionObj.getClass().toString());
+        logUtils.trace("outputStr = '{}' (class: {})", outputStr, extractionObj.getClass());
         return outputStr;
     }
 
@@ -0,0 +1,51 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils;
+
+import java.util.Properties;
+
+import io.restassured.specification.RequestSpecification;
+
+
+/**
+ * Rest Assured default transport: each request creates its own http client, so connections are never reused.
+ */
+public class DefaultHttpTransport implements HttpTransport {
+
+    public DefaultHttpTransport(Properties properties) {
+        // no configuration needed
+    }
+
+    @Override
+    public RequestSpecification configure(RequestSpecification requestSpecification, boolean isHttps) {
+        RequestSpecification configuredSpecification = requestSpecification;
+        if (isHttps) {
+            configuredSpecification = requestSpecification.relaxedHTTPSValidation();
+        }
+        return configuredSpecification;
+    }
+
+    @Override
+    public long getReusedConnections() {
+        return 0;
+    }
+
+    @Override
+    public long getNewConnections() {
+        return 0;
+    }
+
+}
@@ -0,0 +1,322 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.hotels.heat.core.handlers.TestSuiteHandler;
+import com.hotels.heat.core.runner.TestCaseContext;
+import com.hotels.heat.core.specificexception.HeatException;
+
+
+/**
+ * Execution backend of the blocking HTTP calls made by the runners (single mode requests and compare mode blocks).
+ * It is opt-in, with the 'heatExecutor' system property:
+ * <ul>
+ *     <li>'none' (default): the calls run on the thread of the test case, as always</li>
+ *     <li>'virtual': the calls run each on a new virtual thread. Virtual threads are available only from JDK 21: on older JVMs
+ *     the bounded platform pool is used instead</li>
+ *     <li>'platform': the calls run on a pool of platform threads, whose size is set with the 'heatExecutorPoolSize' system property</li>
+ * </ul>
+ * The {@link TestCaseContext} of the submitting thread is propagated to the thread running the task, so that logs and placeholders
+ * still refer to the right test case.
+ * Independent tasks of the same test case (i.e. the compare mode blocks) are always run concurrently with {@link #submitAll(Map, int)}:
+ * if there is no backend, they use a pool of at most 'heatExecutorPoolSize' platform threads, created on demand. The tasks
+ * exceeding the size of the pool wait in queue, so that a burst of requests cannot create an unbounded number of threads.
+ */
+public final class HeatExecutor {
+
+    public static final String SYS_PROP_EXECUTOR = "heatExecutor";
+    public static final String SYS_PROP_EXECUTOR_POOL_SIZE = "heatExecutorPoolSize";
+    public static final String EXECUTOR_NONE = "none";
+    public static final String EXECUTOR_VIRTUAL = "virtual";
+    public static final String EXECUTOR_PLATFORM = "platform";
+    public static final int DEFAULT_POOL_SIZE = 64;
+
+    private static final long FAN_OUT_KEEP_ALIVE_SECONDS = 60;
+    private static final String VIRTUAL_EXECUTOR_FACTORY_METHOD = "newVirtualThreadPerTaskExecutor";
+
+    private static final ThreadLocal<Boolean> EXECUTOR_THREAD = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private static volatile HeatExecutor instance;
+
+    private final String backend;
+    private final ExecutorService executorService;
+    private volatile ExecutorService fanOutService;
+
+    private HeatExecutor(String requestedBackend) {
+        ExecutorService service = null;
+        String effectiveBackend = EXECUTOR_NONE;
+        if (EXECUTOR_VIRTUAL.equalsIgnoreCase(requestedBackend)) {
+            service = createVirtualThreadExecutor();
+            if (service != null) {
+                effectiveBackend = EXECUTOR_VIRTUAL;
+            } else {
+                TestSuiteHandler.getInstance().getLogUtils().info("virtual threads not available in this JVM: using a pool of {} platform threads",
+                    getPoolSize());
+            }
+        }
+        if (service == null && (EXECUTOR_VIRTUAL.equalsIgnoreCase(requestedBackend) || EXECUTOR_PLATFORM.equalsIgnoreCase(requestedBackend))) {
+            service = Executors.newFixedThreadPool(getPoolSize(), new DaemonThreadFactory());
+            effectiveBackend = EXECUTOR_PLATFORM;
+        }
+        this.executorService = service;
+        this.backend = effectiveBackend;
+    }
+
+    /**
+     * Retrieves the executor configured with the system properties, creating it the first time it is requested.
+     * @return the executor shared by all the test cases
+     */
+    public static HeatExecutor getInstance() {
+        if (instance == null) {
+            synchronized (HeatExecutor.class) {
+                if (instance == null) {
+                    instance = new HeatExecutor(System.getProperty(SYS_PROP_EXECUTOR, EXECUTOR_NONE).trim());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Submits a task to the backend. If there is no backend ('none'), or if the current thread is already running a task of the executor,
+     * the task is executed immediately on the current thread.
+     * @param task the task to execute
+     * @param <T> type of the result of the task
+     * @return the future of the task result
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        Future<T> future;
+        if (executorService == null || EXECUTOR_THREAD.get()) {
+            FutureTask<T> futureTask = new FutureTask(task);
+            futureTask.run();
+            future = futureTask;
+        } else {
+            future = executorService.submit(withTestCaseContext(task));
+        }
+        return future;
+    }
+
+    /**
+     * Submits independent tasks, so that they run concurrently. At most 'maxConcurrency' tasks run at the same time: the calling
+     * thread waits for a running task to complete before submitting the next one.
+     * @param tasks the tasks to execute, identified by a key
+     * @param maxConcurrency maximum number of tasks running at the same time
+     * @param <K> type of the key of the tasks
+     * @param <T> type of the result of the tasks
+     * @return the futures of the task results, with the same keys and in the same order of the input tasks
+     */
+    public <K, T> Map<K, Future<T>> submitAll(Map<K, Callable<T>> tasks, int maxConcurrency) {
+        Map<K, Future<T>> futures = new LinkedHashMap();
+        ExecutorService service = getFanOutService();
+        Semaphore permits = new Semaphore(Math.max(1, maxConcurrency));
+        for (Map.Entry<K, Callable<T>> task : tasks.entrySet()) {
+            try {
+                permits.acquire();
+            } catch (InterruptedException oEx) {
+                Thread.currentThread().interrupt();
+                futures.values().forEach(future -> future.cancel(true));
+                throw new HeatException("interrupted while submitting the requests", oEx);
+            }
+            Callable<T> taskWithContext = withTestCaseContext(task.getValue());
+            futures.put(task.getKey(), service.submit(() -> {
+                try {
+                    return taskWithContext.call();
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+        return futures;
+    }
+
+    /**
+     * Starts a task without waiting for its result. Unlike {@link #submit(Callable)}, the task never runs on the calling thread:
+     * if there is no backend ('none') it runs on a daemon thread of the bounded fan-out pool, so that the caller can keep more tasks
+     * in flight.
+     * @param task the task to execute
+     * @param <T> type of the result of the task
+     * @return the future completed with the result of the task, or exceptionally with the exception thrown by the task
+     */
+    public <T> CompletableFuture<T> supplyAsync(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture();
+        Callable<T> taskWithContext = withTestCaseContext(task);
+        getFanOutService().execute(() -> {
+            try {
+                result.complete(taskWithContext.call());
+            } catch (Exception | Error oEx) {
+                result.completeExceptionally(oEx);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Executes a task on the backend and waits for its result.
+     * @param task the task to execute
+     * @param <T> type of the result of the task
+     * @return the result of the task
+     */
+    public <T> T call(Callable<T> task) {
+        return getResult(submit(task));
+    }
+
+    /**
+     * Waits for the result of a task submitted to the backend. Unchecked exceptions and errors thrown by the task (i.e. {@link HeatException})
+     * are rethrown as they are.
+     * @param future the future of the task
+     * @param <T> type of the result of the task
+     * @return the result of the task
+     */
+    public static <T> T getResult(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException oEx) {
+            Thread.currentThread().interrupt();
+            throw new HeatException("interrupted while waiting for the execution of the request", oEx);
+        } catch (ExecutionException oEx) {
+            throw rethrowCause(oEx);
+        }
+    }
+
+    /**
+     * Waits at most 'timeoutMillis' milliseconds for the result of a task. If the task does not complete in time it is cancelled.
+     * @param future the future of the task
+     * @param timeoutMillis maximum time to wait, in milliseconds. Zero or a negative value means no timeout
+     * @param <T> type of the result of the task
+     * @return the result of the task
+     */
+    public static <T> T getResult(Future<T> future, long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            return getResult(future);
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException oEx) {
+            future.cancel(true);
+            throw new HeatException("request not completed in " + timeoutMillis + " ms", oEx);
+        } catch (InterruptedException oEx) {
+            Thread.currentThread().interrupt();
+            throw new HeatException("interrupted while waiting for the execution of the request", oEx);
+        } catch (ExecutionException oEx) {
+            throw rethrowCause(oEx);
+        }
+    }
+
+    private static HeatException rethrowCause(ExecutionException oEx) {
+        Throwable cause = oEx.getCause();
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new HeatException("Exception in the execution of the request: '" + cause.getLocalizedMessage() + "'", cause);
+    }
+
+    /**
+     * @return the backend really in use: 'none', 'virtual' or 'platform'
+     */
+    public String getBackend() {
+        return backend;
+    }
+
+    public boolean isEnabled() {
+        return executorService != null;
+    }
+
+    private ExecutorService getFanOutService() {
+        if (executorService != null) {
+            return executorService;
+        }
+        if (fanOutService == null) {
+            synchronized (this) {
+                if (fanOutService == null) {
+                    int poolSize = getPoolSize();
+                    ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, FAN_OUT_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue(), new DaemonThreadFactory());
+                    // the threads are created on demand and released when idle, as the pool is needed only by some test cases
+                    pool.allowCoreThreadTimeOut(true);
+                    fanOutService = pool;
+                }
+            }
+        }
+        return fanOutService;
+    }
+
+    private static <T> Callable<T> withTestCaseContext(Callable<T> task) {
+        TestCaseContext tcContext = TestCaseContext.current();
+        return () -> {
+            TestCaseContext.attach(tcContext);
+            EXECUTOR_THREAD.set(Boolean.TRUE);
+            try {
+                return task.call();
+            } finally {
+                EXECUTOR_THREAD.remove();
+                TestCaseContext.close();
+            }
+        };
+    }
+
+    /**
+     * The virtual thread executor is looked up by reflection, so that HEAT can still be compiled and run on Java 8.
+     * @return the virtual thread per task executor, null if the JVM does not support virtual threads
+     */
+    private static ExecutorService createVirtualThreadExecutor() {
+        ExecutorService service;
+        try {
+            service = (ExecutorService) Executors.class.getMethod(VIRTUAL_EXECUTOR_FACTORY_METHOD).invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException oEx) {
+            service = null;
+        }
+        return service;
+    }
+
+    private static int getPoolSize() {
+        return Math.max(1, TestCaseUtils.getIntSystemParam(SYS_PROP_EXECUTOR_POOL_SIZE, DEFAULT_POOL_SIZE));
+    }
+
+    /**
+     * Threads of the platform pool are daemon, so that they do not keep the JVM alive at the end of the tests.
+     */
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "heat-executor-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+}
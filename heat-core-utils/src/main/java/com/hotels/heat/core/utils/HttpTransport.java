@@ -0,0 +1,52 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils;
+
+import io.restassured.specification.RequestSpecification;
+
+
+/**
+ * Transport used by {@link RestAssuredRequestMaker} to execute the requests.
+ * The transport is selected with the 'heat.http.transport' property of the environment properties file:
+ * 'pooled' (default, see {@link PooledHttpTransport}), 'default' (a new http client for each request, see {@link DefaultHttpTransport})
+ * or the fully qualified name of a custom implementation with a public constructor accepting the {@link java.util.Properties} of the
+ * environment properties file.
+ */
+public interface HttpTransport {
+
+    String TRANSPORT_PROPERTY = "heat.http.transport";
+    String TRANSPORT_POOLED = "pooled";
+    String TRANSPORT_DEFAULT = "default";
+
+    /**
+     * Sets the transport into the request specification just created for a request.
+     * @param requestSpecification the request specification
+     * @param isHttps true if the request uses the https protocol
+     * @return the request specification to use for the request
+     */
+    RequestSpecification configure(RequestSpecification requestSpecification, boolean isHttps);
+
+    /**
+     * @return the number of requests executed on a connection already used by a previous request
+     */
+    long getReusedConnections();
+
+    /**
+     * @return the number of requests that needed to open a new connection
+     */
+    long getNewConnections();
+
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils;
+
+import io.restassured.path.json.JsonPath;
+
+
+/**
+ * Parsed json document: the JsonPath and its root object, retrieved only once.
+ * The paths are evaluated through the compiled expressions of {@link JsonPathExpression}.
+ */
+public class JsonDocument {
+
+    private final JsonPath jsonPath;
+    private final Object root;
+
+    /**
+     * Constructor of the document: it parses the json of the JsonPath.
+     * @param jsonPath the JsonPath of the document
+     */
+    public JsonDocument(JsonPath jsonPath) {
+        this.jsonPath = jsonPath;
+        this.root = jsonPath.get();
+    }
+
+    /**
+     * Retrieves the value of a json path (GPath syntax).
+     * @param path the json path
+     * @param <T> type of the value
+     * @return the value, null if the path does not exist
+     */
+    public <T> T get(String path) {
+        return (T) JsonPathExpression.compile(path).evaluate(jsonPath, root);
+    }
+
+    public JsonPath getJsonPath() {
+        return jsonPath;
+    }
+
+    /**
+     * @return the root object of the document (map, list or simple value)
+     */
+    public Object getRoot() {
+        return root;
+    }
+
+}
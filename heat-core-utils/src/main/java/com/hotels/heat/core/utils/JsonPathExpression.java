@@ -0,0 +1,168 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.restassured.path.json.JsonPath;
+
+
+/**
+ * Compiled json path (GPath) expression. The expressions are compiled once and kept in a bounded cache keyed by their text.
+ * The simple expressions, made only of field names and non negative indexes (i.e. 'results[0].geometry.location.lat',
+ * 'rooms.name'), are evaluated walking the already parsed Map/List tree of the document, with the same results of the GPath
+ * evaluation. All the other expressions (methods, filters, negative indexes, ...) and the simple ones reaching a value that
+ * the walk does not handle are evaluated by the RestAssured JsonPath, as before.
+ */
+public final class JsonPathExpression {
+
+    private static final int CACHE_SIZE = 2048;
+    private static final String ROOT_PATH = "$";
+    private static final Pattern SEGMENT = Pattern.compile("([A-Za-z_][A-Za-z0-9_]*)?((?:\\[\\d+\\])*)");
+    private static final Pattern INDEX = Pattern.compile("\\[(\\d+)\\]");
+    // names that GPath handles as groovy keywords, not as field names
+    private static final Set<String> GROOVY_KEYWORDS = new HashSet(Arrays.asList("as", "assert", "break", "case", "catch", "class",
+        "const", "continue", "def", "default", "do", "else", "enum", "extends", "false", "finally", "for", "goto", "if", "implements",
+        "import", "in", "instanceof", "interface", "new", "null", "package", "return", "super", "switch", "this", "throw", "throws",
+        "trait", "true", "try", "while", "metaClass"));
+    private static final Map<String, JsonPathExpression> CACHE = Collections.synchronizedMap(
+        new LinkedHashMap<String, JsonPathExpression>(CACHE_SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, JsonPathExpression> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        });
+
+    /** marker of a value that the walk of the tree does not handle. */
+    private static final Object NOT_WALKABLE = new Object();
+
+    private final String path;
+    // field names (String) and indexes (Integer), null if the expression is not a simple one
+    private final List<Object> segments;
+
+    private JsonPathExpression(String path) {
+        this.path = path;
+        this.segments = parseSegments(path);
+    }
+
+    /**
+     * Compiled expression of a json path, taken from the cache if already compiled.
+     * @param path the json path (GPath syntax)
+     * @return the compiled expression
+     */
+    public static JsonPathExpression compile(String path) {
+        JsonPathExpression expression = CACHE.get(path);
+        if (expression == null) {
+            expression = new JsonPathExpression(path);
+            CACHE.put(path, expression);
+        }
+        return expression;
+    }
+
+    /**
+     * @return true if the expression is evaluated walking the parsed document, without GPath
+     */
+    public boolean isSimple() {
+        return segments != null;
+    }
+
+    /**
+     * Evaluates the expression on a json document.
+     * @param jsonPath the JsonPath of the document, used for the expressions that are not simple
+     * @param root the root of the document, as returned by jsonPath.get(): its maps and lists are not copied, so they must not be modified
+     * @return the value of the path, null if the path does not exist
+     */
+    public Object evaluate(JsonPath jsonPath, Object root) {
+        Object value = segments != null ? walk(root) : NOT_WALKABLE;
+        return value != NOT_WALKABLE ? value : jsonPath.get(path);
+    }
+
+    private Object walk(Object root) {
+        Object current = root;
+        for (Object segment : segments) {
+            if (current == null) {
+                break;
+            }
+            if (segment instanceof Integer) {
+                if (!(current instanceof List)) {
+                    return NOT_WALKABLE;
+                }
+                List list = (List) current;
+                int index = (Integer) segment;
+                current = index < list.size() ? list.get(index) : null;
+            } else if (current instanceof Map) {
+                current = ((Map) current).get(segment);
+            } else if (current instanceof List) {
+                // a field of a list is the list of the fields of its elements, as in GPath
+                List<Object> collected = new ArrayList(((List) current).size());
+                for (Object element : (List) current) {
+                    if (!(element instanceof Map)) {
+                        return NOT_WALKABLE;
+                    }
+                    collected.add(((Map) element).get(segment));
+                }
+                current = collected;
+            } else {
+                return NOT_WALKABLE;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Splits a simple expression in field names and indexes.
+     * @return the segments of the expression, null if it is not a simple expression
+     */
+    private static List<Object> parseSegments(String path) {
+        List<Object> parsedSegments = new ArrayList();
+        if (path.isEmpty() || ROOT_PATH.equals(path)) {
+            return parsedSegments;
+        }
+        String[] pathParts = path.split("\\.", -1);
+        for (int i = 0; i < pathParts.length; i++) {
+            Matcher segmentMatcher = SEGMENT.matcher(pathParts[i]);
+            String name = segmentMatcher.matches() ? segmentMatcher.group(1) : null;
+            // only the first part can be an index without name (root array)
+            boolean validPart = segmentMatcher.matches() && !pathParts[i].isEmpty() && (name != null || i == 0)
+                && (name == null || !GROOVY_KEYWORDS.contains(name));
+            if (!validPart) {
+                return null;
+            }
+            if (name != null) {
+                parsedSegments.add(name);
+            }
+            Matcher indexMatcher = INDEX.matcher(segmentMatcher.group(2));
+            while (indexMatcher.find()) {
+                try {
+                    parsedSegments.add(Integer.valueOf(indexMatcher.group(1)));
+                } catch (NumberFormatException oEx) {
+                    return null;
+                }
+            }
+        }
+        return parsedSegments;
+    }
+
+}
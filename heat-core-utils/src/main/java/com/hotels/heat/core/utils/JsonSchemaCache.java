@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2015-2017 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils;
+
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jackson.JacksonUtils;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import com.hotels.heat.core.specificexception.HeatException;
+
+
+/**
+ * Cache of the compiled json schemas used by the 'jsonSchemaToCheck' expectations, keyed by their path in the classpath.
+ * Each schema is loaded and compiled only once per JVM (the schemas of the 'jsonSchemas' section are loaded with the suite),
+ * and the responses are validated on their already parsed json body.
+ */
+public final class JsonSchemaCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsonSchemaCache.class);
+    private static final ObjectMapper JSON_MAPPER = JacksonUtils.newMapper();
+    private static final JsonSchemaCache INSTANCE = new JsonSchemaCache();
+
+    private final JsonSchemaFactory schemaFactory = JsonSchemaFactory.byDefault();
+    private final Map<String, JsonSchema> schemas = new ConcurrentHashMap();
+
+    JsonSchemaCache() {
+    }
+
+    public static JsonSchemaCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Retrieves a compiled json schema, loading it the first time it is requested.
+     * The references of the schema are resolved against its location, as done by the rest-assured json schema validator.
+     * @param jsonSchemaPath path of the json schema in the classpath
+     * @return the compiled json schema, null if the file does not exist
+     * @throws HeatException if the file is not a json schema
+     */
+    public JsonSchema getSchema(String jsonSchemaPath) {
+        JsonSchema jsonSchema = schemas.get(jsonSchemaPath);
+        if (jsonSchema == null) {
+            URL jsonSchemaUrl = getClass().getResource("/" + jsonSchemaPath);
+            if (jsonSchemaUrl != null) {
+                jsonSchema = schemas.computeIfAbsent(jsonSchemaPath, path -> loadSchema(path, jsonSchemaUrl));
+            }
+        }
+        return jsonSchema;
+    }
+
+    /**
+     * Loads the json schemas of a test suite before its test cases run.
+     * A schema that cannot be loaded is only logged: the test cases using it will report the error.
+     * @param jsonSchemaPaths paths of the json schemas in the classpath
+     */
+    public void preload(Collection<String> jsonSchemaPaths) {
+        for (String jsonSchemaPath : jsonSchemaPaths) {
+            try {
+                if (getSchema(jsonSchemaPath) == null) {
+                    LOGGER.warn("the json schema '{}' does not exist", jsonSchemaPath);
+                }
+            } catch (HeatException oEx) {
+                LOGGER.error(oEx.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Validates a parsed json document against a json schema.
+     * @param jsonSchema the compiled json schema
+     * @param document the parsed json document (i.e. the body of a response)
+     * @return the report of the validation
+     * @throws ProcessingException if the validation cannot be executed (i.e. the schema is not valid)
+     */
+    public static ProcessingReport validate(JsonSchema jsonSchema, JsonDocument document) throws ProcessingException {
+        JsonNode jsonTree = JSON_MAPPER.valueToTree(document.getRoot());
+        return jsonSchema.validate(jsonTree);
+    }
+
+    private JsonSchema loadSchema(String jsonSchemaPath, URL jsonSchemaUrl) {
+        try {
+            LOGGER.debug("loading the json schema '{}'", jsonSchemaPath);
+            return schemaFactory.getJsonSchema(jsonSchemaUrl.toURI().toString());
+        } catch (ProcessingException | URISyntaxException oEx) {
+            throw new HeatException("the json schema '" + jsonSchemaPath + "' cannot be loaded: " + oEx.getLocalizedMessage(), oEx);
+        }
+    }
+
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+
+/**
+ * Collects the time spent by HEAT in each phase of the test cases, in HDR histograms (microseconds) by service under test and by step,
+ * so that the time of the service (network phases) can be told apart from the time of HEAT itself (the other phases).
+ * The step of a single mode test case is its test suite, the step of a flow or compare mode block is 'suiteName.objectName'.
+ */
+public final class LatencyRecorder {
+
+    /**
+     * Phases of a test case.
+     */
+    public enum Phase {
+        /** placeholders resolution. */
+        RESOLVE,
+        /** creation of the request specification. */
+        BUILD_REQUEST,
+        /** from the request sent to the response headers received. */
+        FIRST_BYTE,
+        /** read of the response body. */
+        BODY_READ,
+        /** whole http exchange: first byte and body read. */
+        NETWORK,
+        /** expectations and specific checks on the responses. */
+        CHECKS
+    }
+
+    private static final LatencyRecorder INSTANCE = new LatencyRecorder();
+    private static final int HISTOGRAM_SIGNIFICANT_DIGITS = 3;
+    private static final long NANOS_PER_MICRO = TimeUnit.MICROSECONDS.toNanos(1);
+
+    private final Map<String, Map<Phase, Histogram>> serviceHistograms = new ConcurrentHashMap();
+    private final Map<String, Map<Phase, Histogram>> stepHistograms = new ConcurrentHashMap();
+
+    private LatencyRecorder() {
+    }
+
+    public static LatencyRecorder getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records the time spent in a phase.
+     * @param service name of the service under test, null if the phase is not related to a single service
+     * @param step name of the step, null if the phase is not related to a single step
+     * @param phase the phase
+     * @param elapsedNanos time spent in the phase, in nanoseconds
+     */
+    public void record(String service, String step, Phase phase, long elapsedNanos) {
+        long elapsedMicros = Math.max(0, elapsedNanos / NANOS_PER_MICRO);
+        if (service != null) {
+            getHistogram(serviceHistograms, service, phase).recordValue(elapsedMicros);
+        }
+        if (step != null) {
+            getHistogram(stepHistograms, step, phase).recordValue(elapsedMicros);
+        }
+    }
+
+    /**
+     * Executes an action, recording the time it takes (also if it fails).
+     * @param service name of the service under test, null if the phase is not related to a single service
+     * @param step name of the step, null if the phase is not related to a single step
+     * @param phase the phase the action belongs to
+     * @param action the action to execute
+     * @param <T> type of the result of the action
+     * @return the result of the action
+     */
+    public <T> T time(String service, String step, Phase phase, Supplier<T> action) {
+        long startTime = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            record(service, step, phase, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Executes an action without result, recording the time it takes (also if it fails).
+     * @param service name of the service under test, null if the phase is not related to a single service
+     * @param step name of the step, null if the phase is not related to a single step
+     * @param phase the phase the action belongs to
+     * @param action the action to execute
+     */
+    public void time(String service, String step, Phase phase, Runnable action) {
+        time(service, step, phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private static Histogram getHistogram(Map<String, Map<Phase, Histogram>> histograms, String name, Phase phase) {
+        return histograms.computeIfAbsent(name, key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(phase, key -> new ConcurrentHistogram(HISTOGRAM_SIGNIFICANT_DIGITS));
+    }
+
+    /**
+     * @return the histograms by service under test (sorted by name) and phase
+     */
+    public Map<String, Map<Phase, Histogram>> getServiceHistograms() {
+        return sorted(serviceHistograms);
+    }
+
+    /**
+     * @return the histograms by step (sorted by name) and phase
+     */
+    public Map<String, Map<Phase, Histogram>> getStepHistograms() {
+        return sorted(stepHistograms);
+    }
+
+    private static Map<String, Map<Phase, Histogram>> sorted(Map<String, Map<Phase, Histogram>> histograms) {
+        Map<String, Map<Phase, Histogram>> sortedHistograms = new TreeMap();
+        histograms.forEach((name, phases) -> {
+            if (!phases.isEmpty()) {
+                sortedHistograms.put(name, new EnumMap(phases));
+            }
+        });
+        return sortedHistograms;
+    }
+
+    /**
+     * Removes all the collected data.
+     */
+    public void reset() {
+        serviceHistograms.clear();
+        stepHistograms.clear();
+    }
+
+}
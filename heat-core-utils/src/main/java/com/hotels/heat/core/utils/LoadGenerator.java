@@ -0,0 +1,268 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.hotels.heat.core.specificexception.HeatException;
+
+
+/**
+ * Drives the same request for a fixed duration, recording the latency of each response in a HDR histogram (microseconds).
+ * Two scheduling models are supported:
+ * <ul>
+ * <li>'open': the requests start at a constant rate, whatever the number of requests still in flight. The latency is measured
+ * from the time the request should have started, so that a slow service does not hide its delay by slowing down the generator</li>
+ * <li>'closed': a fixed number of virtual users, each one sending a new request as soon as it receives the previous response</li>
+ * </ul>
+ * One response every 'sampleEvery' is passed to the check, always on the thread calling {@link #run(Supplier, Consumer)}.
+ */
+public class LoadGenerator {
+
+    public static final String MODEL_OPEN = "open";
+    public static final String MODEL_CLOSED = "closed";
+
+    private static final int HISTOGRAM_SIGNIFICANT_DIGITS = 3;
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long NANOS_PER_MICRO = TimeUnit.MICROSECONDS.toNanos(1);
+
+    private final String model;
+    private final double rate;
+    private final int users;
+    private final long durationMillis;
+    private final int sampleEvery;
+
+    /**
+     * Constructor of the load generator.
+     * @param model scheduling model, 'open' or 'closed'
+     * @param rate requests per second started by the 'open' model
+     * @param users number of virtual users of the 'closed' model
+     * @param durationMillis time, in milliseconds, during which new requests are started
+     * @param sampleEvery one response every 'sampleEvery' is checked, zero or a negative value disables the checks
+     */
+    public LoadGenerator(String model, double rate, int users, long durationMillis, int sampleEvery) {
+        if (!MODEL_OPEN.equalsIgnoreCase(model) && !MODEL_CLOSED.equalsIgnoreCase(model)) {
+            throw new HeatException("load model '" + model + "' not supported: use '" + MODEL_OPEN + "' or '" + MODEL_CLOSED + "'");
+        }
+        if (MODEL_OPEN.equalsIgnoreCase(model) && rate <= 0) {
+            throw new HeatException("the rate of the open load model has to be greater than zero");
+        }
+        if (MODEL_CLOSED.equalsIgnoreCase(model) && users <= 0) {
+            throw new HeatException("the number of users of the closed load model has to be greater than zero");
+        }
+        this.model = model.toLowerCase();
+        this.rate = rate;
+        this.users = users;
+        this.durationMillis = durationMillis;
+        this.sampleEvery = sampleEvery;
+    }
+
+    /**
+     * Starts the requests until the end of the configured duration, then waits for the responses still in flight.
+     * @param request supplier starting a new request, without waiting for its response
+     * @param check check of a sampled response: the response is wrong if the check throws an exception or an error
+     * @param <T> type of the response
+     * @return the result of the load
+     */
+    public <T> LoadResult run(Supplier<CompletableFuture<T>> request, Consumer<T> check) {
+        LoadResult result = new LoadResult();
+        Queue<T> sampledResponses = new ConcurrentLinkedQueue();
+        Set<CompletableFuture<Void>> inFlight = ConcurrentHashMap.newKeySet();
+        // the virtual users of the closed model: the open model does not limit the requests in flight
+        Semaphore permits = MODEL_CLOSED.equals(model) ? new Semaphore(users) : null;
+        long intervalNanos = MODEL_OPEN.equals(model) ? (long) (NANOS_PER_SECOND / rate) : 0;
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        while (true) {
+            long intendedStart = waitNextStart(start, intervalNanos, deadline, result.getRequests(), permits, sampledResponses, check, result);
+            if (intendedStart >= deadline) {
+                break;
+            }
+            CompletableFuture<Void> tracked = startRequest(request, intendedStart, permits, sampledResponses, result);
+            inFlight.add(tracked);
+            tracked.whenComplete((ignored, oEx) -> inFlight.remove(tracked));
+            checkSampledResponses(sampledResponses, check, result);
+        }
+        List<CompletableFuture<Void>> pendingRequests = new ArrayList(inFlight);
+        pendingRequests.forEach(CompletableFuture::join);
+        checkSampledResponses(sampledResponses, check, result);
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * Waits for the time the next request has to start (open model) or for a free virtual user (closed model),
+     * checking the sampled responses in the meanwhile.
+     * @return the time the next request should start, or a value not lower than the deadline if the load is over
+     */
+    private <T> long waitNextStart(long start, long intervalNanos, long deadline, long requestsStarted, Semaphore permits,
+                                   Queue<T> sampledResponses, Consumer<T> check, LoadResult result) {
+        long intendedStart;
+        if (MODEL_OPEN.equals(model)) {
+            intendedStart = start + requestsStarted * intervalNanos;
+            long now = System.nanoTime();
+            while (intendedStart > now && intendedStart < deadline) {
+                LockSupport.parkNanos(intendedStart - now);
+                checkInterrupted();
+                checkSampledResponses(sampledResponses, check, result);
+                now = System.nanoTime();
+            }
+        } else {
+            try {
+                long remaining = deadline - System.nanoTime();
+                intendedStart = remaining > 0 && permits.tryAcquire(remaining, TimeUnit.NANOSECONDS) ? System.nanoTime() : deadline;
+            } catch (InterruptedException oEx) {
+                Thread.currentThread().interrupt();
+                throw new HeatException("interrupted while waiting for a virtual user", oEx);
+            }
+        }
+        return intendedStart;
+    }
+
+    private <T> CompletableFuture<Void> startRequest(Supplier<CompletableFuture<T>> request, long intendedStart, Semaphore permits,
+                                                     Queue<T> sampledResponses, LoadResult result) {
+        result.requests.incrementAndGet();
+        CompletableFuture<T> response;
+        try {
+            response = request.get();
+        } catch (Exception | HeatException oEx) {
+            response = new CompletableFuture();
+            response.completeExceptionally(oEx);
+        }
+        return response.handle((rsp, oEx) -> {
+            result.histogram.recordValue(Math.max(0, (System.nanoTime() - intendedStart) / NANOS_PER_MICRO));
+            if (oEx != null || rsp == null) {
+                result.errors.incrementAndGet();
+            } else if (sampleEvery > 0 && result.responses.incrementAndGet() % sampleEvery == 0) {
+                sampledResponses.add(rsp);
+            }
+            if (permits != null) {
+                permits.release();
+            }
+            return null;
+        });
+    }
+
+    private <T> void checkSampledResponses(Queue<T> sampledResponses, Consumer<T> check, LoadResult result) {
+        T rsp = sampledResponses.poll();
+        while (rsp != null) {
+            result.checkedResponses++;
+            try {
+                check.accept(rsp);
+            } catch (Exception | Error oEx) {
+                result.checkFailures++;
+                if (result.firstCheckFailure == null) {
+                    result.firstCheckFailure = oEx.getLocalizedMessage();
+                }
+            }
+            rsp = sampledResponses.poll();
+        }
+    }
+
+    private static void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new HeatException("interrupted while generating the load");
+        }
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * Result of a load: latency histogram (microseconds), number of requests, errors and sampled checks.
+     */
+    public static class LoadResult {
+        private final Histogram histogram = new ConcurrentHistogram(HISTOGRAM_SIGNIFICANT_DIGITS);
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong responses = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private long checkedResponses;
+        private long checkFailures;
+        private String firstCheckFailure;
+        private long elapsedNanos;
+
+        public Histogram getLatencyHistogram() {
+            return histogram;
+        }
+
+        public long getRequests() {
+            return requests.get();
+        }
+
+        /**
+         * @return the number of requests completed with an exception or without a response
+         */
+        public long getErrors() {
+            return errors.get();
+        }
+
+        public long getCheckedResponses() {
+            return checkedResponses;
+        }
+
+        public long getCheckFailures() {
+            return checkFailures;
+        }
+
+        /**
+         * @return the message of the first sampled check that failed, null if all the checks were successful
+         */
+        public String getFirstCheckFailure() {
+            return firstCheckFailure;
+        }
+
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+
+        /**
+         * @return the number of requests completed per second
+         */
+        public double getThroughput() {
+            return elapsedNanos > 0 ? histogram.getTotalCount() * (double) NANOS_PER_SECOND / elapsedNanos : 0;
+        }
+    }
+
+}
@@ -0,0 +1,178 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils;
+
+import java.security.GeneralSecurityException;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+
+import org.apache.http.HttpConnection;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.client.params.CookiePolicy;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.protocol.ExecutionContext;
+import org.apache.http.ssl.SSLContexts;
+
+import com.hotels.heat.core.specificexception.HeatException;
+
+import io.restassured.RestAssured;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.config.SSLConfig;
+import io.restassured.specification.RequestSpecification;
+
+
+/**
+ * Transport sharing a single http client among all the requests of the JVM: the connections are kept alive in a bounded pool
+ * (per host and total) and reused by the following requests to the same host, idle connections are evicted in background
+ * and the TLS sessions are cached, so that a new connection to an https host can resume the previous handshake.
+ * The pool is configured with the following properties of the environment properties file:
+ * <ul>
+ * <li>heat.http.pool.maxTotal: maximum number of connections in the pool (default 200)</li>
+ * <li>heat.http.pool.maxPerRoute: maximum number of connections to the same host (default 20)</li>
+ * <li>heat.http.pool.idleTimeoutMs: milliseconds after which an unused connection is closed (default 30000)</li>
+ * <li>heat.http.tls.sessionCacheSize: number of TLS sessions cached for resumption, 0 for no limit (default 1000)</li>
+ * <li>heat.http.tls.sessionTimeoutSec: seconds a cached TLS session can be resumed (default 3600)</li>
+ * </ul>
+ */
+public class PooledHttpTransport implements HttpTransport {
+
+    public static final String PROP_POOL_MAX_TOTAL = "heat.http.pool.maxTotal";
+    public static final String PROP_POOL_MAX_PER_ROUTE = "heat.http.pool.maxPerRoute";
+    public static final String PROP_POOL_IDLE_TIMEOUT = "heat.http.pool.idleTimeoutMs";
+    public static final String PROP_TLS_SESSION_CACHE_SIZE = "heat.http.tls.sessionCacheSize";
+    public static final String PROP_TLS_SESSION_TIMEOUT = "heat.http.tls.sessionTimeoutSec";
+
+    private static final int DEFAULT_POOL_MAX_TOTAL = 200;
+    private static final int DEFAULT_POOL_MAX_PER_ROUTE = 20;
+    private static final int DEFAULT_POOL_IDLE_TIMEOUT = 30000;
+    private static final int DEFAULT_TLS_SESSION_CACHE_SIZE = 1000;
+    private static final int DEFAULT_TLS_SESSION_TIMEOUT = 3600;
+    private static final int MIN_EVICTION_PERIOD = 1000;
+    private static final int HTTPS_DEFAULT_PORT = 443;
+
+    private final PoolingClientConnectionManager connectionManager;
+    private final DefaultHttpClient httpClient;
+    private final SSLSocketFactory sslSocketFactory;
+    private final RestAssuredConfig httpConfig;
+    private final RestAssuredConfig httpsConfig;
+    private final ScheduledExecutorService evictor;
+    private final AtomicLong reusedConnections = new AtomicLong();
+    private final AtomicLong newConnections = new AtomicLong();
+
+    public PooledHttpTransport(Properties properties) {
+        sslSocketFactory = createSslSocketFactory(properties);
+        SchemeRegistry schemeRegistry = SchemeRegistryFactory.createDefault();
+        schemeRegistry.register(new Scheme("https", HTTPS_DEFAULT_PORT, sslSocketFactory));
+
+        connectionManager = new PoolingClientConnectionManager(schemeRegistry);
+        connectionManager.setMaxTotal(getIntProperty(properties, PROP_POOL_MAX_TOTAL, DEFAULT_POOL_MAX_TOTAL));
+        connectionManager.setDefaultMaxPerRoute(getIntProperty(properties, PROP_POOL_MAX_PER_ROUTE, DEFAULT_POOL_MAX_PER_ROUTE));
+
+        httpClient = new DefaultHttpClient(connectionManager);
+        httpClient.getParams().setParameter(ClientPNames.COOKIE_POLICY, CookiePolicy.IGNORE_COOKIES);
+        httpClient.addRequestInterceptor((request, context) -> {
+            // the connection is bound to the context before the request is sent: if it already sent requests, it comes from the pool
+            Object connection = context.getAttribute(ExecutionContext.HTTP_CONNECTION);
+            if (connection instanceof HttpConnection && ((HttpConnection) connection).getMetrics().getRequestCount() > 0) {
+                reusedConnections.incrementAndGet();
+            } else {
+                newConnections.incrementAndGet();
+            }
+        });
+
+        // the factory always returns the shared client, and rest assured must not shut it down at the end of each request
+        HttpClientConfig clientConfig = HttpClientConfig.httpClientConfig().reuseHttpClientInstance().httpClientFactory(() -> httpClient);
+        httpConfig = RestAssured.config().httpClient(clientConfig);
+        httpsConfig = httpConfig.sslConfig(SSLConfig.sslConfig().sslSocketFactory(sslSocketFactory).allowAllHostnames());
+
+        int idleTimeout = getIntProperty(properties, PROP_POOL_IDLE_TIMEOUT, DEFAULT_POOL_IDLE_TIMEOUT);
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "heat-http-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long evictionPeriod = Math.max(MIN_EVICTION_PERIOD, idleTimeout / 2);
+        evictor.scheduleWithFixedDelay(() -> {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+        }, evictionPeriod, evictionPeriod, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The https connections do not validate the certificates of the hosts, as the rest assured 'relaxedHTTPSValidation' does,
+     * but all of them share the same SSL context, that is the cache of the TLS sessions.
+     */
+    private static SSLSocketFactory createSslSocketFactory(Properties properties) {
+        try {
+            SSLContext sslContext = SSLContexts.custom().loadTrustMaterial(null, (chain, authType) -> true).build();
+            SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+            sessionContext.setSessionCacheSize(getIntProperty(properties, PROP_TLS_SESSION_CACHE_SIZE, DEFAULT_TLS_SESSION_CACHE_SIZE));
+            sessionContext.setSessionTimeout(getIntProperty(properties, PROP_TLS_SESSION_TIMEOUT, DEFAULT_TLS_SESSION_TIMEOUT));
+            return new SSLSocketFactory(sslContext, SSLSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER);
+        } catch (GeneralSecurityException oEx) {
+            throw new HeatException("PooledHttpTransport - unable to create the SSL context: " + oEx.getLocalizedMessage());
+        }
+    }
+
+    private static int getIntProperty(Properties properties, String propertyName, int defaultValue) {
+        int value = defaultValue;
+        String propertyValue = properties.getProperty(propertyName);
+        if (propertyValue != null && !propertyValue.trim().isEmpty()) {
+            try {
+                value = Integer.parseInt(propertyValue.trim());
+            } catch (NumberFormatException oEx) {
+                throw new HeatException("PooledHttpTransport - property '" + propertyName + "' is not a number: '" + propertyValue + "'");
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public RequestSpecification configure(RequestSpecification requestSpecification, boolean isHttps) {
+        return requestSpecification.config(isHttps ? httpsConfig : httpConfig);
+    }
+
+    @Override
+    public long getReusedConnections() {
+        return reusedConnections.get();
+    }
+
+    @Override
+    public long getNewConnections() {
+        return newConnections.get();
+    }
+
+    /**
+     * Closes all the connections of the pool. The transport cannot be used anymore after the shutdown.
+     */
+    public void shutdown() {
+        evictor.shutdownNow();
+        connectionManager.shutdown();
+    }
+
+}
@@ -0,0 +1,209 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.apache.commons.io.output.ByteArrayOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.hotels.heat.core.handlers.TestSuiteHandler;
+import com.hotels.heat.core.runner.TestCaseContext;
+import com.hotels.heat.core.utils.log.LoggingUtils;
+
+import io.restassured.filter.log.LogDetail;
+import io.restassured.http.Method;
+import io.restassured.internal.print.RequestPrinter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.RequestSpecification;
+
+
+/**
+ * Keeps the last http exchanges made by HEAT in a ring buffer, with the raw request and response, so that the diagnostics of a request
+ * (cURL hint, detailed request, response body) are built only when they are needed: at DEBUG log level, or when a test case fails
+ * and its exchanges are dumped.
+ * The size of the buffer is set with the system property 'heat.diagnostics.bufferSize' (default 64); 0 disables the buffer.
+ */
+public final class RequestDiagnostics {
+
+    public static final String BUFFER_SIZE_PROPERTY = "heat.diagnostics.bufferSize";
+    private static final int DEFAULT_BUFFER_SIZE = 64;
+    private static final Logger LOGGER = LoggerFactory.getLogger(RequestDiagnostics.class);
+    private static final RequestDiagnostics INSTANCE = new RequestDiagnostics(Integer.getInteger(BUFFER_SIZE_PROPERTY, DEFAULT_BUFFER_SIZE));
+
+    private final Exchange[] exchanges;
+    private int nextIndex;
+
+    RequestDiagnostics(int bufferSize) {
+        this.exchanges = new Exchange[Math.max(0, bufferSize)];
+    }
+
+    public static RequestDiagnostics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records an http exchange of the test case running on the current thread, overwriting the oldest one if the buffer is full.
+     * @param testRequest the test request, null if the request has not been built from a test case (no cURL hint available)
+     * @param requestSpecification the specification of the request, as sent
+     * @param httpMethod http method of the request
+     * @param url url of the request
+     * @param response the response retrieved, null if the request failed
+     * @param responseBody the body of the response, already read
+     */
+    public void record(TestRequest testRequest, RequestSpecification requestSpecification, Method httpMethod, String url, Response response,
+                       String responseBody) {
+        if (exchanges.length == 0) {
+            return;
+        }
+        TestCaseContext tcContext = TestCaseContext.current();
+        Exchange exchange = new Exchange(tcContext != null ? tcContext.getTestSuiteName() : null, tcContext != null ? tcContext.getTestCaseId() : null,
+            testRequest, requestSpecification, httpMethod, url, response != null ? response.getStatusCode() : null, responseBody);
+        synchronized (exchanges) {
+            exchanges[nextIndex] = exchange;
+            nextIndex = (nextIndex + 1) % exchanges.length;
+        }
+    }
+
+    /**
+     * Retrieves the exchanges of a test case still in the buffer, from the oldest one.
+     * @param testSuiteName name of the test suite
+     * @param testCaseId id of the test case
+     * @return the exchanges of the test case
+     */
+    public List<Exchange> getExchanges(String testSuiteName, String testCaseId) {
+        List<Exchange> tcExchanges = new ArrayList();
+        synchronized (exchanges) {
+            for (int i = 0; i < exchanges.length; i++) {
+                Exchange exchange = exchanges[(nextIndex + i) % exchanges.length];
+                if (exchange != null && Objects.equals(exchange.getTestSuiteName(), testSuiteName)
+                        && Objects.equals(exchange.getTestCaseId(), testCaseId)) {
+                    tcExchanges.add(exchange);
+                }
+            }
+        }
+        return tcExchanges;
+    }
+
+    /**
+     * Logs the diagnostics of all the exchanges of a test case still in the buffer (i.e. of a failed test case).
+     * @param testSuiteName name of the test suite
+     * @param testCaseId id of the test case
+     */
+    public void dump(String testSuiteName, String testCaseId) {
+        LoggingUtils logUtils = TestSuiteHandler.getInstance().getLogUtils();
+        for (Exchange exchange : getExchanges(testSuiteName, testCaseId)) {
+            LOGGER.error("[{}.{}] {} {} --> status {}\nCURL-HINT >> \n{}\nDetailed Request: \n{}\nThe response is: {}", testSuiteName, testCaseId,
+                exchange.getHttpMethod(), exchange.getUrl(), exchange.getStatusCode(), exchange.toCURL(logUtils), exchange.getRequestDetails(),
+                exchange.getResponseBody());
+        }
+    }
+
+    /**
+     * Raw data of an http exchange. The diagnostics are built from them on demand.
+     */
+    public static final class Exchange {
+
+        private final String testSuiteName;
+        private final String testCaseId;
+        private final TestRequest testRequest;
+        private final RequestSpecification requestSpecification;
+        private final Method httpMethod;
+        private final String url;
+        private final Integer statusCode;
+        private final String responseBody;
+
+        private Exchange(String testSuiteName, String testCaseId, TestRequest testRequest, RequestSpecification requestSpecification, Method httpMethod,
+                         String url, Integer statusCode, String responseBody) {
+            this.testSuiteName = testSuiteName;
+            this.testCaseId = testCaseId;
+            this.testRequest = testRequest;
+            this.requestSpecification = requestSpecification;
+            this.httpMethod = httpMethod;
+            this.url = url;
+            this.statusCode = statusCode;
+            this.responseBody = responseBody;
+        }
+
+        public String getTestSuiteName() {
+            return testSuiteName;
+        }
+
+        public String getTestCaseId() {
+            return testCaseId;
+        }
+
+        public Method getHttpMethod() {
+            return httpMethod;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public Integer getStatusCode() {
+            return statusCode;
+        }
+
+        public String getResponseBody() {
+            return responseBody;
+        }
+
+        /**
+         * Builds the cURL command of the request.
+         * @param logUtils the logger of the formatting errors, the one of the test suite
+         * @return the cURL command, empty if the request has not been built from a test case
+         */
+        public String toCURL(LoggingUtils logUtils) {
+            return testRequest != null ? new HttpRequestFormatter(testRequest, logUtils).toCURL() : "";
+        }
+
+        /**
+         * Prints the request as sent, with all its details.
+         * @return the detailed request, empty if it cannot be printed
+         */
+        public String getRequestDetails() {
+            return printRequest(requestSpecification, httpMethod, url);
+        }
+    }
+
+    /**
+     * Prints a request with {@link RequestPrinter}.
+     * @param requestSpecification the specification of the request
+     * @param httpMethod http method of the request
+     * @param url url of the request
+     * @return the detailed request, empty if it cannot be printed
+     */
+    static String printRequest(RequestSpecification requestSpecification, Method httpMethod, String url) {
+        String requestDetails = "";
+        if (requestSpecification instanceof FilterableRequestSpecification) {
+            try (ByteArrayOutputStream os = new ByteArrayOutputStream(); PrintStream ps = new PrintStream(os)) {
+                requestDetails = RequestPrinter.print((FilterableRequestSpecification) requestSpecification, httpMethod.name(), url, LogDetail.ALL,
+                    ps, true);
+            } catch (IOException e) {
+                LOGGER.error("Unable to log 'Request Details', error occured during retrieving the information");
+            }
+        }
+        return requestDetails != null ? requestDetails : "";
+    }
+
+}
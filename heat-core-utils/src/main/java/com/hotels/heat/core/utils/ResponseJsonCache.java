@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import com.hotels.heat.core.runner.TestCaseContext;
+
+import io.restassured.path.json.config.JsonPathConfig;
+import io.restassured.response.Response;
+
+
+/**
+ * Cache of the parsed json bodies of the responses of a test case, keyed by the identity of the Response object.
+ * All the paths retrieved from the same response (placeholders, field checks, output parameters, ...) share the same
+ * parsed tree instead of parsing the body again each time.
+ * The cache belongs to the {@link TestCaseContext}, so that its content is released together with the test case.
+ */
+public class ResponseJsonCache {
+
+    private static final JsonPathConfig BIG_DECIMAL_CONFIG = new JsonPathConfig(JsonPathConfig.NumberReturnType.BIG_DECIMAL);
+
+    private final Map<Response, JsonDocument> documents = new IdentityHashMap();
+
+    /**
+     * Parsed json body of a response, with the decimal numbers returned as BigDecimal.
+     * The response is parsed the first time it is requested, the following requests get the same document.
+     * @param rsp the response
+     * @return the parsed response body
+     */
+    public JsonDocument getDocument(Response rsp) {
+        JsonDocument document;
+        synchronized (documents) {
+            document = documents.get(rsp);
+        }
+        if (document == null) {
+            // parsing outside the lock: the steps of a flow running concurrently parse their own responses in parallel
+            JsonDocument parsedDocument = new JsonDocument(rsp.jsonPath(BIG_DECIMAL_CONFIG));
+            synchronized (documents) {
+                document = documents.computeIfAbsent(rsp, key -> parsedDocument);
+            }
+        }
+        return document;
+    }
+
+    /**
+     * Removes all the parsed responses (i.e. when the responses already checked are not used anymore by the test case).
+     */
+    public void clear() {
+        synchronized (documents) {
+            documents.clear();
+        }
+    }
+
+    /**
+     * Parsed json body of a response, taken from the cache of the test case running on the current thread.
+     * Without a running test case the response is parsed without caching it.
+     * @param rsp the response
+     * @return the parsed response body
+     */
+    public static JsonDocument documentOf(Response rsp) {
+        TestCaseContext tcContext = TestCaseContext.current();
+        return tcContext != null ? tcContext.getResponseJsonCache().getDocument(rsp) : new JsonDocument(rsp.jsonPath(BIG_DECIMAL_CONFIG));
+    }
+
+}
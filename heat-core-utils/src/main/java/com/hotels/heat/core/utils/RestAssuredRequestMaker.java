@@ -17,29 +17,23 @@ package com.hotels.heat.core.utils;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
-import org.apache.commons.io.output.ByteArrayOutputStream;
 import org.apache.http.conn.ConnectTimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.base.Optional;
-
 import com.hotels.heat.core.handlers.TestSuiteHandler;
 import com.hotels.heat.core.specificexception.HeatException;
 import com.hotels.heat.core.utils.log.LoggingUtils;
 
 import io.restassured.RestAssured;
-import io.restassured.filter.log.LogDetail;
 import io.restassured.http.Method;
-import io.restassured.internal.print.RequestPrinter;
 import io.restassured.response.Response;
-import io.restassured.specification.FilterableRequestSpecification;
 import io.restassured.specification.MultiPartSpecification;
 import io.restassured.specification.RequestSpecification;
 
@@ -57,6 +51,8 @@ public class RestAssuredRequestMaker {
     private String defUrl;
     private final LoggingUtils logUtils;
     private String webappPath;
+    private String latencyService;
+    private String latencyStep;
 
     /**
      * Constructor of the class RestAssuredRequestMaker. This is the class that really executes the request against the service under test.
@@ -71,6 +67,20 @@ public class RestAssuredRequestMaker {
         this.webappPath = webappPath;
     }
 
+    /**
+     * Sets the names used to record the latency of the requests in the {@link LatencyRecorder}.
+     * @param service name of the service under test. If it is not set, the base path is used
+     * @param step name of the step the requests belong to, null if the requests are not part of a step
+     */
+    public void setLatencyLabels(String service, String step) {
+        this.latencyService = service;
+        this.latencyStep = step;
+    }
+
+    private String getLatencyService() {
+        return latencyService != null || webappPath == null || webappPath.isEmpty() ? latencyService : webappPath;
+    }
+
     /**
      * Builds a test request starting from test case parameters.
      *
@@ -80,6 +90,7 @@ public class RestAssuredRequestMaker {
      * @return TestRequest object with all the info related to the test to run
      */
     public TestRequest buildRequestByParams(Method httpMethod, Map singleRequestParamsMap) {
+        long buildStartTime = System.nanoTime();
 
         Map<String, String> cookiesParam = setRequestParameters(singleRequestParamsMap, TestCaseUtils.JSON_FIELD_COOKIES);
         Map<String, Object> queryParams = setRequestParameters(singleRequestParamsMap, TestCaseUtils.JSON_FIELD_QUERY_PARAMETERS);
@@ -109,24 +120,50 @@ public class RestAssuredRequestMaker {
         tcRequest.setHttpMethod(httpMethod);
         tcRequest.setQueryParams(queryParams);
 
+        LatencyRecorder.getInstance().record(getLatencyService(), latencyStep, LatencyRecorder.Phase.BUILD_REQUEST, System.nanoTime() - buildStartTime);
         return tcRequest;
     }
 
     /**
      * Execute a request and return the related response. If the test is in DEBUG log level modality, it shows also the curl so that it can be
-     * more useful to replicate a single request in a separate shell.
+     * more useful to replicate a single request in a separate shell. In the other log levels the curl is built only if the test case fails,
+     * from the exchange recorded in {@link RequestDiagnostics}.
      *
      * @param testRequest TestRequest object with all the info related to the test to run
      * @return the Response retrieved from the service under test
      */
     public Response executeTestRequest(TestRequest testRequest) {
-        HttpRequestFormatter reqFormatter = new HttpRequestFormatter(testRequest, logUtils);
-        logUtils.debug("CURL-HINT >> \n" + reqFormatter.toCURL());
+        logCurlHint(testRequest);
 
-        return executeHttpRequest(testRequest.getHttpMethod(), testRequest.getUrl(), testRequest.getQueryParams());
+        return executeHttpRequest(requestSpecification, testRequest, testRequest.getHttpMethod(), testRequest.getUrl(), testRequest.getQueryParams());
 
     }
 
+    /**
+     * Execute a request without waiting for its response. The request has its own request specification, built from the TestRequest,
+     * so that more requests of the same RestAssuredRequestMaker can be in flight at the same time.
+     * The request runs on the thread backend of {@link HeatExecutor}: with the 'virtual' backend an in-flight request does not hold
+     * any platform thread, otherwise at most 'heatExecutorPoolSize' requests are in flight and the others wait in queue.
+     *
+     * @param testRequest TestRequest object with all the info related to the test to run
+     * @return the future of the Response retrieved from the service under test
+     */
+    public CompletableFuture<Response> executeTestRequestAsync(TestRequest testRequest) {
+        logCurlHint(testRequest);
+
+        RequestSpecification asyncSpecification = createRequestSpecification(testRequest.getCookieParams(), testRequest.getHeadersParams(),
+            testRequest.getUrl());
+        Map<String, Object> queryParams = testRequest.getQueryParams() != null ? testRequest.getQueryParams() : new HashMap();
+        return HeatExecutor.getInstance().supplyAsync(() -> executeHttpRequest(asyncSpecification, testRequest, testRequest.getHttpMethod(),
+            testRequest.getUrl(), queryParams));
+    }
+
+    private void logCurlHint(TestRequest testRequest) {
+        if (logUtils.isDebugEnabled()) {
+            logUtils.debug("CURL-HINT >> \n{}", new HttpRequestFormatter(testRequest, logUtils).toCURL());
+        }
+    }
+
     private String getPostBodyFromQueryParams(Method httpMethod, Map<String, Object> queryParams) {
         String postBody = (String) queryParams.get(TestCaseUtils.JSON_FIELD_POST_BODY);
         try {
@@ -160,6 +197,11 @@ public class RestAssuredRequestMaker {
      * @return the response of the request done.
      */
     public Response executeHttpRequest(Method httpMethod, String url, Map<String, Object> queryParams) {
+        return executeHttpRequest(requestSpecification, null, httpMethod, url, queryParams);
+    }
+
+    private Response executeHttpRequest(RequestSpecification requestSpecification, TestRequest testRequest, Method httpMethod, String url,
+                                        Map<String, Object> queryParams) {
         Response serviceResponse = null;
 
         try {
@@ -178,10 +220,13 @@ public class RestAssuredRequestMaker {
                 multipart.forEach(requestSpecification::multiPart);
 
             } else if (!queryParams.isEmpty()) {
-                addQueryParameters(queryParams);
+                addQueryParameters(requestSpecification, queryParams);
             }
 
-            logUtils.debug("Detailed Request: \n{}", getRequestDetails(httpMethod, url));
+            if (logUtils.isDebugEnabled()) {
+                logUtils.debug("Detailed Request: \n{}", RequestDiagnostics.printRequest(requestSpecification, httpMethod, url));
+            }
+            long requestStartTime = System.nanoTime();
             switch (httpMethod) {
             case GET:
                 serviceResponse = requestSpecification.when().get(url);
@@ -200,9 +245,19 @@ public class RestAssuredRequestMaker {
                 serviceResponse = requestSpecification.when().get(url);
                 break;
             }
-            logUtils.debug("The response is: {}", serviceResponse.asString());
+            long firstByteTime = System.nanoTime();
+            // the body has to be read in any case: it gives the connection back to the pool of the http transport
+            String responseBody = serviceResponse.asString();
+            long bodyReadTime = System.nanoTime();
+            LatencyRecorder latencyRecorder = LatencyRecorder.getInstance();
+            latencyRecorder.record(getLatencyService(), latencyStep, LatencyRecorder.Phase.FIRST_BYTE, firstByteTime - requestStartTime);
+            latencyRecorder.record(getLatencyService(), latencyStep, LatencyRecorder.Phase.BODY_READ, bodyReadTime - firstByteTime);
+            latencyRecorder.record(getLatencyService(), latencyStep, LatencyRecorder.Phase.NETWORK, bodyReadTime - requestStartTime);
+            logUtils.debug("The response is: {}", responseBody);
+            RequestDiagnostics.getInstance().record(testRequest, requestSpecification, httpMethod, url, serviceResponse, responseBody);
         } catch (Exception oEx) {
             logUtils.error("exception --> {}", oEx.getLocalizedMessage());
+            RequestDiagnostics.getInstance().record(testRequest, requestSpecification, httpMethod, url, null, null);
             if (oEx.getClass().equals(ConnectTimeoutException.class)) {
                 throw new HeatException(this.logUtils.getTestCaseDetails() + "RestAssuredMessages::executeHttpRequest --> Connect Timeout Exception");
             }
@@ -213,7 +268,7 @@ public class RestAssuredRequestMaker {
     }
 
 
-    private void addQueryParameters(Map<String, ?> queryParams) {
+    private void addQueryParameters(RequestSpecification requestSpecification, Map<String, ?> queryParams) {
         queryParams.forEach((key, value) -> {
             if (value instanceof String) {
                 requestSpecification.parameter(key, value);
@@ -233,13 +288,18 @@ public class RestAssuredRequestMaker {
      * @param headers is a key-value Map with the headers
      */
     public void setRequestSpecification(Map<String, String> cookies, Map<String, String> headers, String url) {
-        requestSpecification = protocolSetting(url);
+        requestSpecification = createRequestSpecification(cookies, headers, url);
+    }
+
+    private RequestSpecification createRequestSpecification(Map<String, String> cookies, Map<String, String> headers, String url) {
+        RequestSpecification newSpecification = protocolSetting(url);
         if (cookies != null) {
-            requestSpecification = requestSpecification.cookies(cookies);
+            newSpecification = newSpecification.cookies(cookies);
         }
         if (headers != null) {
-            requestSpecification = requestSpecification.headers(headers);
+            newSpecification = newSpecification.headers(headers);
         }
+        return newSpecification;
     }
 
     /**
@@ -272,34 +332,23 @@ public class RestAssuredRequestMaker {
         } else {
             restSpec = RestAssured.given().log().ifValidationFails().baseUri(defUrl);
         }
-        return restSpec;
+        return TestSuiteHandler.getInstance().getHttpTransport().configure(restSpec, false);
     }
 
     /**
      * This method returns a RequestSpecification object specific for the https
-     * method.
+     * method. The certificate validation is relaxed by the http transport.
      *
      * @return the request specification for SSL endpoint
      */
     private RequestSpecification givenSsl() {
         RequestSpecification restSpec;
         if (LoggingUtils.LOG_LEVEL_DEBUG.equals(System.getProperty(LOG_LEVEL_PROPERTY, LoggingUtils.LOG_LEVEL_INFO).toUpperCase())) {
-            restSpec = RestAssured.given().urlEncodingEnabled(true).relaxedHTTPSValidation().baseUri(defUrl);
+            restSpec = RestAssured.given().urlEncodingEnabled(true).baseUri(defUrl);
         } else {
-            restSpec = RestAssured.given().urlEncodingEnabled(true).log().ifValidationFails().relaxedHTTPSValidation().baseUri(defUrl);
-        }
-        return restSpec;
-    }
-
-    private String getRequestDetails(Method httpMethod, String url) {
-        Optional<String> requestDetails = Optional.absent();
-        try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
-            requestDetails = Optional.fromNullable(RequestPrinter.print((FilterableRequestSpecification) requestSpecification, httpMethod.name(), url, LogDetail.ALL,
-                    new PrintStream(os), true));
-        } catch (IOException e) {
-            logUtils.error("Unable to log 'Request Details', error occured during retrieving the information");
+            restSpec = RestAssured.given().urlEncodingEnabled(true).log().ifValidationFails().baseUri(defUrl);
         }
-        return requestDetails.or("");
+        return TestSuiteHandler.getInstance().getHttpTransport().configure(restSpec, true);
     }
 
 }
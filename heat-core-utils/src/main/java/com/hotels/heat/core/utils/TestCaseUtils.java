@@ -15,18 +15,19 @@
  */
 package com.hotels.heat.core.utils;
 
-import static io.restassured.path.json.JsonPath.with;
-
 import java.io.File;
 import java.io.FileReader;
 import java.io.UnsupportedEncodingException;
+import java.net.URL;
 import java.net.URLDecoder;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -34,18 +35,16 @@ import org.testng.ITestContext;
 import org.testng.SkipException;
 
 
-import com.google.gson.Gson;
+import com.hotels.heat.core.checks.CheckPlan;
 import com.hotels.heat.core.environment.EnvironmentHandler;
 import com.hotels.heat.core.handlers.PlaceholderHandler;
+import com.hotels.heat.core.handlers.StaticPlaceholderFolder;
 import com.hotels.heat.core.handlers.TestSuiteHandler;
 import com.hotels.heat.core.runner.TestBaseRunner;
 import com.hotels.heat.core.specificexception.HeatException;
 import com.hotels.heat.core.utils.log.LoggingUtils;
-import com.opencsv.CSVReader;
-import com.opencsv.CSVReaderHeaderAware;
 
 import io.restassured.http.Method;
-import io.restassured.path.json.JsonPath;
 
 /**
  * Class which reads out the test details from the JSON input files.
@@ -69,10 +68,9 @@ public class TestCaseUtils {
     public static final String JSON_FIELD_HEADERS = "headers";
     public static final String JSONPATH_CSV_PRELOAD_FILE = "csv_preloadFile";
 
-    private static final String JSONPATH_GENERAL_SETTINGS = "testSuite.generalSettings";
-    private static final String JSONPATH_BEFORE_SUITE_SECTION = "testSuite.beforeTestSuite";
-    private static final String JSONPATH_JSONSCHEMAS = "testSuite.jsonSchemas";
-    private static final String JSONPATH_TEST_CASES = "testSuite.testCases";
+    private static final String JSON_SECTION_GENERAL_SETTINGS = "generalSettings";
+    private static final String JSON_SECTION_BEFORE_SUITE = "beforeTestSuite";
+    private static final String JSON_SECTION_JSONSCHEMAS = "jsonSchemas";
     private static final String SUITE_DESCRIPTION_DEFAULT = "TEST SUITE";
     private static final String SUITE_DESCRIPTION_PATH = "suiteDesc";
     public static final String CUSTOM_FIELDS        = "customFields";
@@ -85,7 +83,12 @@ public class TestCaseUtils {
     private Iterator<Object[]> tcArrayIterator;
     private PlaceholderHandler placeholderHandler;
     private Map<String, Object> beforeSuiteVariables;
-    private Map<String, Object> beforeStepVariables;
+    private volatile StaticPlaceholderFolder staticPlaceholderFolder;
+    private final Map<String, CsvRowStore> csvRowStores = new ConcurrentHashMap();
+    // check plans of the test cases loaded by the data provider and not yet started
+    private final Map<Map, CheckPlan> loadedCheckPlans = Collections.synchronizedMap(new IdentityHashMap());
+    // flow steps can run concurrently: each one sets its 'beforeStep' variables on the thread executing it
+    private final ThreadLocal<Map<String, Object>> beforeStepVariables = ThreadLocal.withInitial(HashMap::new);
 
     private LoggingUtils logUtils;
 
@@ -96,7 +99,6 @@ public class TestCaseUtils {
      * inside the suite.
      */
     public TestCaseUtils() {
-        this.beforeStepVariables = new HashMap();
         this.httpMethod = Method.GET;
         this.suiteDescription = SUITE_DESCRIPTION_DEFAULT;
     }
@@ -105,8 +107,8 @@ public class TestCaseUtils {
         this.logUtils = logUtils;
     }
 
-    private void loadGeneralSettings(JsonPath testSuiteJsonPath) {
-        Map<String, String> generalSettings = testSuiteJsonPath.get(JSONPATH_GENERAL_SETTINGS);
+    private void loadGeneralSettings(TestSuiteJsonReader testSuiteReader) {
+        Map<String, String> generalSettings = (Map<String, String>) testSuiteReader.getSection(JSON_SECTION_GENERAL_SETTINGS);
         if (generalSettings.containsKey(JSON_FIELD_HTTP_METHOD)) {
             try {
                 httpMethod = Method.valueOf(generalSettings.get(JSON_FIELD_HTTP_METHOD));
@@ -120,8 +122,9 @@ public class TestCaseUtils {
 
     }
 
-    private void loadBeforeSuiteSection(JsonPath testSuiteJsonPath) {
-        beforeSuiteVariables = testSuiteJsonPath.get(JSONPATH_BEFORE_SUITE_SECTION);
+    private void loadBeforeSuiteSection(TestSuiteJsonReader testSuiteReader) {
+        staticPlaceholderFolder = null;
+        beforeSuiteVariables = (Map<String, Object>) testSuiteReader.getSection(JSON_SECTION_BEFORE_SUITE);
         if (beforeSuiteVariables != null && !beforeSuiteVariables.isEmpty()) {
             logUtils.debug("BEFORE SUITE VARIABLES PRESENT");
             placeholderHandler = new PlaceholderHandler();
@@ -130,61 +133,46 @@ public class TestCaseUtils {
                 logUtils.debug("BEFORE SUITE VARIABLE: '{}' = '{}'", entry.getKey(), entry.getValue());
             }
         }
+        // the before suite variables cannot change during the run: the placeholders using them are resolved only once
+        staticPlaceholderFolder = new StaticPlaceholderFolder(beforeSuiteVariables);
     }
 
-    private void loadJsonSchemaForOutputValidation(JsonPath testSuiteJsonPath) {
-        jsonSchemas = testSuiteJsonPath.get(JSONPATH_JSONSCHEMAS);
-    }
-
-    private Iterator<Object[]> getTestCaseIterator(JsonPath testSuiteJsonPath) {
-        List<Object> testCases = testSuiteJsonPath.get(JSONPATH_TEST_CASES);
-        List<Object[]> listOfArray = new ArrayList();
-        for (Object testCase : testCases) {
-            if (((Map)testCase).get(JSONPATH_CSV_PRELOAD_FILE)!=null){
-
-                String testId = (String) ((Map) testCase).get(TestBaseRunner.ATTR_TESTCASE_ID) ;
-                logUtils.debug("Csv File Input detected into base test case {} ", testId);
-
-                Gson jsonObj = new Gson();
-                String baseTestCaseString = jsonObj.toJson(testCase);
-
-                long numberOfCsvLines = getCsvLinesNumber((String) ((Map)testCase).get(JSONPATH_CSV_PRELOAD_FILE));
-
-                for (int i = 0; i < numberOfCsvLines; i++) {
-
-                    JsonPath jsPath = new JsonPath(baseTestCaseString);
-
-                    Object duplicatedTestCases = jsPath.get();
-
-                    ((Map) duplicatedTestCases).put(TestBaseRunner.ATTR_TESTCASE_ID,testId + String.format("_%03d", i));
-                    listOfArray.add(new Object[]{duplicatedTestCases});
-                }
-            }else{
-                listOfArray.add(new Object[]{testCase});
-            }
+    private void loadJsonSchemaForOutputValidation(TestSuiteJsonReader testSuiteReader) {
+        jsonSchemas = (Map<String, String>) testSuiteReader.getSection(JSON_SECTION_JSONSCHEMAS);
+        if (jsonSchemas != null) {
+            JsonSchemaCache.getInstance().preload(jsonSchemas.values());
         }
-        tcArrayIterator = listOfArray.iterator();
-        return tcArrayIterator;
     }
 
-    private long getCsvLinesNumber(String cvsFileNamePath){
-
-        CSVReaderHeaderAware csvReader ;
-        long numberCsvRows = 1;
-        try {
-            csvReader = new CSVReaderHeaderAware(new FileReader(getClass().getResource("/"+cvsFileNamePath).getFile()));
-            csvReader.readAll();
-            numberCsvRows = csvReader.getLinesRead();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        numberCsvRows -- ;
-
+    private long getCsvLinesNumber(String cvsFileNamePath) {
+        long numberCsvRows = getCsvRowStore(cvsFileNamePath).size();
         logUtils.debug("number of lines read  {} (fileName = {}) ", numberCsvRows , cvsFileNamePath);
-
         return numberCsvRows;
     }
 
+    /**
+     * Rows of a csv file of the classpath. The file is read only the first time it is requested, then its rows are shared
+     * by all the test cases using it.
+     * @param cvsFileNamePath path of the csv file in the classpath
+     * @return the rows of the file, without rows if the file cannot be read
+     */
+    public CsvRowStore getCsvRowStore(String cvsFileNamePath) {
+        return csvRowStores.computeIfAbsent(cvsFileNamePath, path -> {
+            logUtils.debug("Csv File Ready To be read (fileName = {}) ", path);
+            URL csvFileUrl = getClass().getResource("/" + path);
+            if (csvFileUrl == null) {
+                logUtils.error("the csv file '{}' does not exist", path);
+                return CsvRowStore.empty();
+            }
+            try {
+                return new CsvRowStore(new FileReader(csvFileUrl.getFile()));
+            } catch (Exception oEx) {
+                logUtils.error("unable to read the csv file '{}': {}", path, oEx.getLocalizedMessage());
+                return CsvRowStore.empty();
+            }
+        });
+    }
+
     /**
      * It is the method that handles the reading of the json input file that is driving the test suite.
      * @param testSuiteFilePath the path of the json input file
@@ -208,11 +196,14 @@ public class TestCaseUtils {
                 .orElseThrow(() -> new HeatException(logUtils.getExceptionDetails()
                     + "the file '" + testSuiteFilePath + "' does not exist"));
             try {
-                JsonPath testSuiteJsonPath = with(testSuiteJsonFile);
-                loadGeneralSettings(testSuiteJsonPath);
-                loadBeforeSuiteSection(testSuiteJsonPath);
-                loadJsonSchemaForOutputValidation(testSuiteJsonPath);
-                iterator = getTestCaseIterator(testSuiteJsonPath);
+                TestSuiteJsonReader testSuiteReader = new TestSuiteJsonReader(testSuiteJsonFile);
+                loadGeneralSettings(testSuiteReader);
+                loadBeforeSuiteSection(testSuiteReader);
+                loadJsonSchemaForOutputValidation(testSuiteReader);
+                // the test cases are parsed (and the csv ones expanded) while the data provider iterates on them
+                loadedCheckPlans.clear();
+                tcArrayIterator = compileCheckPlans(testSuiteReader.testCaseIterator(this::getCsvLinesNumber));
+                iterator = tcArrayIterator;
             } catch (Exception oEx) {
                 throw new HeatException(String.format("%scatched exception '%s'",
                     logUtils.getExceptionDetails(), oEx.getLocalizedMessage()), oEx);
@@ -224,33 +215,55 @@ public class TestCaseUtils {
         return iterator;
     }
 
+    /**
+     * Compiles the checks of each test case as soon as the data provider loads it, so that a malformed check is found before
+     * any request of the test case is sent. The failure is kept in the plan of the test case, that fails as soon as it starts,
+     * while the other test cases of the suite still run.
+     * @param testCases the iterator of the test cases of the suite
+     * @return the iterator of the same test cases
+     */
+    Iterator<Object[]> compileCheckPlans(Iterator<Object[]> testCases) {
+        return new Iterator<Object[]>() {
+            @Override
+            public boolean hasNext() {
+                return testCases.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                Object[] testCase = testCases.next();
+                Map testCaseParams = (Map) testCase[0];
+                CheckPlan checkPlan;
+                try {
+                    checkPlan = CheckPlan.compile(testCaseParams);
+                } catch (HeatException oEx) {
+                    // an error thrown by the data provider would drop all the following test cases: only this one has to fail
+                    logUtils.error("malformed check blocks: {}", oEx.getMessage());
+                    checkPlan = CheckPlan.failed(oEx);
+                }
+                loadedCheckPlans.put(testCaseParams, checkPlan);
+                return testCase;
+            }
+        };
+    }
+
+    /**
+     * Retrieves the check plan compiled when the test case was loaded, releasing it.
+     * @param testCaseParams the test case, as given by the data provider
+     * @return the check plan of the test case, compiled now if the test case has not been loaded by {@link #jsonReader}
+     * @throws HeatException if the check blocks of the test case are malformed
+     */
+    public CheckPlan takeCheckPlan(Map testCaseParams) {
+        CheckPlan checkPlan = loadedCheckPlans.remove(testCaseParams);
+        return checkPlan != null ? checkPlan.verify() : CheckPlan.compile(testCaseParams);
+    }
+
     public Map<String, Object> getBeforeSuiteVariables() {
         return beforeSuiteVariables;
     }
 
     public List<Map<String,String>> getFromCsvFile(String cvsFileNamePath){
-
-        CSVReader csvReader ;
-        List<Map<String,String>> csvListRows = new ArrayList();
-        try {
-            logUtils.debug("Csv File Ready To be read (fileName = {}) ", cvsFileNamePath);
-
-            csvReader = new CSVReader(new FileReader(getClass().getResource("/"+cvsFileNamePath).getFile()));
-
-            String[] header = csvReader.readNext();
-            String[] row;
-            while ((row = csvReader.readNext()) != null) {
-                Map<String,String> rowMap = new HashMap<>();
-                for (int i = 0; i < row.length; i++) {
-                    rowMap.put(header[i],row[i]);
-                }
-                csvListRows.add(rowMap);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        return csvListRows;
+        return getCsvRowStore(cvsFileNamePath).getRows();
     }
 
     /**
@@ -360,6 +373,26 @@ public class TestCaseUtils {
         return "true".equals(System.getProperty("blockingAssert", "true"));
     }
 
+    /**
+     * Reads a numeric system property.
+     * @param propertyName name of the system property
+     * @param defaultValue value used if the system property is not set or if it is not a number
+     * @return the value of the system property
+     */
+    public static int getIntSystemParam(String propertyName, int defaultValue) {
+        int value = defaultValue;
+        String propertyValue = System.getProperty(propertyName);
+        if (propertyValue != null) {
+            try {
+                value = Integer.parseInt(propertyValue.trim());
+            } catch (NumberFormatException oEx) {
+                TestSuiteHandler.getInstance().getLogUtils().warning("'{}' system property is not a number: using the default value '{}'",
+                    propertyName, defaultValue);
+            }
+        }
+        return value;
+    }
+
     /**
      * Method useful to check if all the test parameters are valid (used to check if the suite is runnable or not).
      * @param webappName name of the service under test
@@ -394,15 +427,24 @@ public class TestCaseUtils {
     }
 
     public void setBeforeStepVariables(Map<String,Object> beforeStepVariables) {
-        this.beforeStepVariables = beforeStepVariables;
+        this.beforeStepVariables.set(beforeStepVariables);
     }
 
     public Map<String,Object> getBeforeStepVariables() {
-        return this.beforeStepVariables;
+        return this.beforeStepVariables.get();
     }
 
     public void setBeforeSuiteVariables(Map<String, Object> beforeSuiteVariables) {
         this.beforeSuiteVariables = beforeSuiteVariables;
+        // variables set explicitly can change again: they are not folded
+        this.staticPlaceholderFolder = null;
+    }
+
+    /**
+     * @return the folder of the static placeholders of the suite, null if the suite has not been loaded from the json input file
+     */
+    public StaticPlaceholderFolder getStaticPlaceholderFolder() {
+        return staticPlaceholderFolder;
     }
 
 
@@ -0,0 +1,286 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.ToLongFunction;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.hotels.heat.core.runner.TestBaseRunner;
+import com.hotels.heat.core.specificexception.HeatException;
+
+
+/**
+ * Streaming reader of the json input file of a test suite.
+ * The sections of the suite ('generalSettings', 'beforeTestSuite', ...) are read when the reader is created, skipping the
+ * test cases, then the test cases are parsed one at a time while the data provider iterates on them, so that the memory
+ * needed does not depend on the size of the suite. The test cases with a 'csv_preloadFile' are expanded on the fly:
+ * one copy of the test case for each row of the csv file, with test id 'testId_000', 'testId_001', ...
+ * The values have the same types given by JsonPath: HashMap, ArrayList, String, Boolean, Integer/Long/BigInteger and
+ * Float/Double (the test case handlers rely on the exact classes of the maps and of the lists).
+ */
+public class TestSuiteJsonReader {
+
+    public static final String JSON_FIELD_TEST_SUITE = "testSuite";
+    public static final String JSON_FIELD_TEST_CASES = "testCases";
+
+    private final File testSuiteFile;
+    private final Map<String, Object> sections = new HashMap();
+
+    /**
+     * Constructor of the reader: it reads the sections of the test suite, apart from the test cases.
+     * @param testSuiteFile the json input file of the test suite
+     */
+    public TestSuiteJsonReader(File testSuiteFile) {
+        this.testSuiteFile = testSuiteFile;
+        boolean testCasesFound = false;
+        try (JsonReader reader = openReader()) {
+            if (moveToTestSuite(reader)) {
+                while (reader.hasNext()) {
+                    String fieldName = reader.nextName();
+                    if (JSON_FIELD_TEST_CASES.equals(fieldName)) {
+                        testCasesFound = true;
+                        reader.skipValue();
+                    } else {
+                        sections.put(fieldName, readValue(reader));
+                    }
+                }
+            }
+        } catch (IOException | IllegalStateException oEx) {
+            throw new HeatException("unable to read the test suite '" + testSuiteFile.getPath() + "': " + oEx.getLocalizedMessage(), oEx);
+        }
+        if (!testCasesFound) {
+            throw new HeatException("the test suite '" + testSuiteFile.getPath() + "' has no '" + JSON_FIELD_TEST_CASES + "' section");
+        }
+    }
+
+    /**
+     * @param sectionName name of a section of the test suite, e.g. 'generalSettings'
+     * @return the content of the section, null if the suite does not have it
+     */
+    public Object getSection(String sectionName) {
+        return sections.get(sectionName);
+    }
+
+    /**
+     * Iterator on the test cases of the suite, parsed while iterating. The file stays open until the last test case is read.
+     * @param csvRowsCounter function giving the number of rows of a 'csv_preloadFile'
+     * @return the iterator of the test cases, each one wrapped in the array expected by a TestNG data provider
+     */
+    public Iterator<Object[]> testCaseIterator(ToLongFunction<String> csvRowsCounter) {
+        JsonReader reader = openReader();
+        try {
+            moveToTestSuite(reader);
+            while (!JSON_FIELD_TEST_CASES.equals(reader.nextName())) {
+                reader.skipValue();
+            }
+            reader.beginArray();
+        } catch (IOException | IllegalStateException oEx) {
+            closeQuietly(reader);
+            throw new HeatException("unable to read the test cases of '" + testSuiteFile.getPath() + "': " + oEx.getLocalizedMessage(), oEx);
+        }
+        return new TestCaseIterator(reader, csvRowsCounter);
+    }
+
+    private JsonReader openReader() {
+        try {
+            return new JsonReader(new BufferedReader(new InputStreamReader(new FileInputStream(testSuiteFile), StandardCharsets.UTF_8)));
+        } catch (IOException oEx) {
+            throw new HeatException("unable to open the test suite '" + testSuiteFile.getPath() + "': " + oEx.getLocalizedMessage(), oEx);
+        }
+    }
+
+    /**
+     * Moves the reader inside the 'testSuite' object.
+     * @return true if the suite has the 'testSuite' object, false otherwise
+     */
+    private static boolean moveToTestSuite(JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (JSON_FIELD_TEST_SUITE.equals(reader.nextName())) {
+                reader.beginObject();
+                return true;
+            }
+            reader.skipValue();
+        }
+        return false;
+    }
+
+    private static Object readValue(JsonReader reader) throws IOException {
+        Object value;
+        switch (reader.peek()) {
+        case BEGIN_OBJECT:
+            Map<String, Object> map = new HashMap();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                map.put(reader.nextName(), readValue(reader));
+            }
+            reader.endObject();
+            value = map;
+            break;
+        case BEGIN_ARRAY:
+            List<Object> list = new ArrayList();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                list.add(readValue(reader));
+            }
+            reader.endArray();
+            value = list;
+            break;
+        case NUMBER:
+            value = toNumber(reader.nextString());
+            break;
+        case BOOLEAN:
+            value = reader.nextBoolean();
+            break;
+        case NULL:
+            reader.nextNull();
+            value = null;
+            break;
+        default:
+            value = reader.nextString();
+            break;
+        }
+        return value;
+    }
+
+    /**
+     * Converts a json number as JsonPath does: Integer, Long or BigInteger for integers, Float or Double for decimals.
+     */
+    private static Number toNumber(String number) {
+        Number value;
+        if (number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0) {
+            BigInteger bigInteger = new BigInteger(number);
+            if (bigInteger.bitLength() < Integer.SIZE) {
+                value = bigInteger.intValue();
+            } else if (bigInteger.bitLength() < Long.SIZE) {
+                value = bigInteger.longValue();
+            } else {
+                value = bigInteger;
+            }
+        } else {
+            float floatValue = Float.parseFloat(number);
+            value = Float.isInfinite(floatValue) ? (Number) Double.parseDouble(number) : (Number) floatValue;
+        }
+        return value;
+    }
+
+    private static Object deepCopy(Object value) {
+        Object copy = value;
+        if (value instanceof Map) {
+            Map<Object, Object> mapCopy = new HashMap();
+            ((Map<Object, Object>) value).forEach((key, item) -> mapCopy.put(key, deepCopy(item)));
+            copy = mapCopy;
+        } else if (value instanceof List) {
+            List<Object> listCopy = new ArrayList();
+            ((List<Object>) value).forEach(item -> listCopy.add(deepCopy(item)));
+            copy = listCopy;
+        }
+        return copy;
+    }
+
+    private static void closeQuietly(JsonReader reader) {
+        try {
+            reader.close();
+        } catch (IOException oEx) {
+            // nothing else can be done on a file already read
+        }
+    }
+
+    /**
+     * Iterator parsing a test case (or the next csv row of a test case) at each step.
+     */
+    private final class TestCaseIterator implements Iterator<Object[]> {
+        private final JsonReader reader;
+        private final ToLongFunction<String> csvRowsCounter;
+        private Map csvTestCase;
+        private long csvRows;
+        private long csvNextRow;
+        private Map nextTestCase;
+        private boolean finished;
+
+        private TestCaseIterator(JsonReader reader, ToLongFunction<String> csvRowsCounter) {
+            this.reader = reader;
+            this.csvRowsCounter = csvRowsCounter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextTestCase == null && !finished) {
+                nextTestCase = readNextTestCase();
+            }
+            return nextTestCase != null;
+        }
+
+        @Override
+        public Object[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map testCase = nextTestCase;
+            nextTestCase = null;
+            return new Object[]{testCase};
+        }
+
+        private Map readNextTestCase() {
+            try {
+                while (true) {
+                    if (csvTestCase != null && csvNextRow < csvRows) {
+                        Map rowTestCase = (Map) deepCopy(csvTestCase);
+                        rowTestCase.put(TestBaseRunner.ATTR_TESTCASE_ID,
+                            csvTestCase.get(TestBaseRunner.ATTR_TESTCASE_ID) + String.format("_%03d", csvNextRow++));
+                        return rowTestCase;
+                    }
+                    csvTestCase = null;
+                    if (!reader.hasNext()) {
+                        finished = true;
+                        reader.close();
+                        return null;
+                    }
+                    Object testCase = readValue(reader);
+                    if (!(testCase instanceof Map)) {
+                        throw new HeatException("the test cases of '" + testSuiteFile.getPath() + "' have to be json objects");
+                    }
+                    Object csvFile = ((Map) testCase).get(TestCaseUtils.JSONPATH_CSV_PRELOAD_FILE);
+                    if (csvFile == null) {
+                        return (Map) testCase;
+                    }
+                    csvTestCase = (Map) testCase;
+                    csvRows = csvRowsCounter.applyAsLong((String) csvFile);
+                    csvNextRow = 0;
+                }
+            } catch (IOException | IllegalStateException oEx) {
+                finished = true;
+                closeQuietly(reader);
+                throw new HeatException("unable to read the test cases of '" + testSuiteFile.getPath() + "': " + oEx.getLocalizedMessage(), oEx);
+            }
+        }
+    }
+
+}
@@ -15,14 +15,12 @@
  */
 package com.hotels.heat.core.utils.log;
 
-import java.lang.reflect.Method;
-
 import org.slf4j.LoggerFactory;
 import org.testng.ITestContext;
 
 
 import com.hotels.heat.core.runner.TestBaseRunner;
-import com.hotels.heat.core.specificexception.HeatException;
+import com.hotels.heat.core.runner.TestCaseContext;
 
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
@@ -30,6 +28,9 @@ import ch.qos.logback.classic.Logger;
 
 /**
  * This class contains utilities for logging.
+ * The level of each message is checked before doing any work: the details of the test case (suite, test case id and flow
+ * step) are taken from the {@link TestCaseContext} of the current thread, and the class and the method logging the message
+ * are looked up in the stack only when the trace level is enabled.
  */
 public class LoggingUtils {
 
@@ -43,25 +44,23 @@ public class LoggingUtils {
     public static final int THREAD_COUNT_EXCEPTION_LEVEL = 4;
     public static final int THREAD_COUNT_LOG_LEVEL = THREAD_COUNT_EXCEPTION_LEVEL - 1;
 
+    private static final org.slf4j.Logger LOGGER = LoggerFactory.getLogger(LoggingUtils.class);
+    private static final String LOGGING_UTILS_CLASS_NAME = LoggingUtils.class.getName();
 
     private ITestContext context;
     private String testID;
 
-    private String testCaseDetails;
     private Integer flowStep;
-    private String logLevel;
 
     public LoggingUtils() {
-        this.testCaseDetails = "";
         this.setLogLevel();
-        this.logLevel = LOG_LEVEL_INFO;
     }
 
     /**
      * This method sets the log level (logback).
      */
     public void setLogLevel() {
-        logLevel = System.getProperty("logLevel", LOG_LEVEL_INFO);
+        String logLevel = System.getProperty("logLevel", LOG_LEVEL_INFO);
         Logger root = (Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
         Level logLevelSetting;
         switch (logLevel.toLowerCase()) {
@@ -100,33 +99,65 @@ public class LoggingUtils {
 
 
 
+    /**
+     * Sets the flow step currently in execution. If a test case is running on the current thread,
+     * the step is stored in its own context.
+     * @param flowStepInput the flow step number
+     */
     public void setFlowStep(Integer flowStepInput) {
-        flowStep = flowStepInput;
+        TestCaseContext tcContext = TestCaseContext.current();
+        if (tcContext != null) {
+            tcContext.setFlowStep(flowStepInput);
+        } else {
+            flowStep = flowStepInput;
+        }
     }
 
+    /**
+     * Details of the test case currently in execution, used as prefix in logs.
+     * If a test case is running on the current thread, its own context is used.
+     * @return a string like "[SUITE.001] [FLOW STEP #1] "
+     */
     public String getTestCaseDetails() {
-        testCaseDetails = "[" + (context != null ? context.getName() : "") + "] ";
-        if (testID != null) {
-            testCaseDetails = "[" + context.getName() + TestBaseRunner.TESTCASE_ID_SEPARATOR + testID + "]";
+        TestCaseContext tcContext = TestCaseContext.current();
+        String suiteName = context != null ? context.getName() : "";
+        String currentTestId = testID;
+        Integer currentFlowStep = flowStep;
+        if (tcContext != null) {
+            suiteName = tcContext.getTestSuiteName();
+            currentTestId = tcContext.getTestCaseId();
+            currentFlowStep = tcContext.getFlowStep();
+        }
+        String testCaseDetails = "[" + suiteName + "] ";
+        if (currentTestId != null) {
+            testCaseDetails = "[" + suiteName + TestBaseRunner.TESTCASE_ID_SEPARATOR + currentTestId + "]";
         }
 
         testCaseDetails += " ";
-        if (flowStep != null) {
-            testCaseDetails += "[FLOW STEP #" + flowStep + "] ";
+        if (currentFlowStep != null) {
+            testCaseDetails += "[FLOW STEP #" + currentFlowStep + "] ";
         }
         return testCaseDetails;
     }
 
-    private Class getCurrentClass(int group) {
-        return Thread.currentThread().getStackTrace()[group].getClass();
-    }
-
-    private String getCurrentClassName(int group) {
-        return Thread.currentThread().getStackTrace()[group].getClassName();
+    /**
+     * Element of the stack of the current thread.
+     * @param group index of the element in the stack, where 1 is this method and 2 is the method calling it
+     */
+    private StackTraceElement getStackElement(int group) {
+        return Thread.currentThread().getStackTrace()[group];
     }
 
-    private String getCurrentMethodName(int group) {
-        return Thread.currentThread().getStackTrace()[group].getMethodName();
+    /**
+     * Class and method that called the logging utils, looked up in the stack.
+     */
+    private static String getCallerDetails() {
+        for (StackTraceElement element : new Throwable().getStackTrace()) {
+            if (!LOGGING_UTILS_CLASS_NAME.equals(element.getClassName())) {
+                return element.getClassName() + "::" + element.getMethodName();
+            }
+        }
+        return "";
     }
 
     public String getExceptionDetails() {
@@ -134,18 +165,52 @@ public class LoggingUtils {
     }
 
     public String getExceptionDetails(int group) {
-        return testCaseDetails + getCurrentClassName(group) + "::" + getCurrentMethodName(group) + " -- ";
+        StackTraceElement element = getStackElement(group);
+        return getTestCaseDetails() + element.getClassName() + "::" + element.getMethodName() + " -- ";
     }
 
     private String getTestCaseLogDetails() {
-        String details = testCaseDetails;
-        if (logLevel.equals(LOG_LEVEL_TRACE_LOG)) {
-            details = details + getCurrentClassName(THREAD_COUNT_LOG_LEVEL)
-                    + "::" + getCurrentMethodName(THREAD_COUNT_LOG_LEVEL);
+        String details = getTestCaseDetails();
+        if (LOGGER.isTraceEnabled()) {
+            details = details + getCallerDetails();
         }
         return details;
     }
 
+    /**
+     * @param mode the log level (i.e. 'debug')
+     * @return true if the messages of the level are logged
+     */
+    public boolean isEnabled(String mode) {
+        boolean enabled;
+        switch (mode) {
+        case LOG_LEVEL_ERROR:
+            enabled = LOGGER.isErrorEnabled();
+            break;
+        case LOG_LEVEL_WARN:
+            enabled = LOGGER.isWarnEnabled();
+            break;
+        case LOG_LEVEL_INFO:
+            enabled = LOGGER.isInfoEnabled();
+            break;
+        case LOG_LEVEL_DEBUG:
+            enabled = LOGGER.isDebugEnabled();
+            break;
+        default:
+            enabled = LOGGER.isTraceEnabled();
+            break;
+        }
+        return enabled;
+    }
+
+    public boolean isDebugEnabled() {
+        return LOGGER.isDebugEnabled();
+    }
+
+    public boolean isTraceEnabled() {
+        return LOGGER.isTraceEnabled();
+    }
+
     public void info(String message) {
         log(LOG_LEVEL_INFO, message);
     }
@@ -167,15 +232,8 @@ public class LoggingUtils {
     }
 
     private void log(String mode, String message) {
-        try {
-            org.slf4j.Logger logger = LoggerFactory.getLogger(getCurrentClass(THREAD_COUNT_LOG_LEVEL));
-            Class[] cArg = new Class[1];
-            cArg[0] = String.class;
-            Method loggerMethod = logger.getClass().getMethod(mode, cArg);
-            loggerMethod.invoke(logger, getTestCaseLogDetails() + " -- " + message);
-        } catch (Exception oEx) {
-            throw new HeatException(getExceptionDetails() + oEx.getClass()
-                    + " / cause: '" + oEx.getCause() + "' / message: '" + oEx.getLocalizedMessage() + "'");
+        if (isEnabled(mode)) {
+            write(mode, getTestCaseLogDetails() + " -- " + message, null);
         }
     }
 
@@ -200,19 +258,29 @@ public class LoggingUtils {
     }
 
     private void log(String mode, String message, Object... params) {
-        try {
-            org.slf4j.Logger logger = LoggerFactory.getLogger(getCurrentClass(THREAD_COUNT_LOG_LEVEL));
-            Class[] cArg = new Class[2];
-            cArg[0] = String.class;
-            cArg[1] = Object[].class;
-            Method loggerMethod = logger.getClass().getMethod(mode, cArg);
-            loggerMethod.invoke(logger, getTestCaseLogDetails() + " -- " + message, params);
-        } catch (Exception oEx) {
-            throw new HeatException(getExceptionDetails() + oEx.getClass()
-                    + " / cause: '" + oEx.getCause() + "' / message: '" + oEx.getLocalizedMessage() + "'");
+        if (isEnabled(mode)) {
+            write(mode, getTestCaseLogDetails() + " -- " + message, params);
         }
     }
 
-
+    private static void write(String mode, String message, Object[] params) {
+        switch (mode) {
+        case LOG_LEVEL_ERROR:
+            LOGGER.error(message, params);
+            break;
+        case LOG_LEVEL_WARN:
+            LOGGER.warn(message, params);
+            break;
+        case LOG_LEVEL_INFO:
+            LOGGER.info(message, params);
+            break;
+        case LOG_LEVEL_DEBUG:
+            LOGGER.debug(message, params);
+            break;
+        default:
+            LOGGER.trace(message, params);
+            break;
+        }
+    }
 
 }
@@ -15,6 +15,8 @@
  */
 package com.hotels.heat.core.validations;
 
+import java.util.function.Supplier;
+
 import com.hotels.heat.core.handlers.AssertionHandler;
 import com.hotels.heat.core.utils.InputConverter;
 import com.hotels.heat.core.utils.log.LoggingUtils;
@@ -55,7 +57,7 @@ public class ArithmeticalValidator {
      * @param operation is the check (&lt;,=,&gt;,&gt;=,etc.).
      * @param stringToCheck is an item to validate from response A.
      * @param stringExpected is an item to validate from response B.
-     * @param validationMessage is the description of the check.
+     * @param validationMessage is the supplier of the description of the check, called only if the check fails.
      * @param formatOfTypeCheckInput A String represent the type of input for mathematical check (int, double, boolean)
      * @return true if the check is OK, false otherwise
      */
@@ -63,33 +65,33 @@ public class ArithmeticalValidator {
             String operation,
             String stringToCheck,
             String stringExpected,
-            String validationMessage,
+            Supplier<String> validationMessage,
             String formatOfTypeCheckInput) {
         boolean isCheckOk = true;
         logUtils.trace("Requested operation '{}'", operation);
         switch (operation) {
         case MATH_OPERATOR_GREATER_THAN:
-            isCheckOk = assertionHandler.assertion(isBlocking, "assertTrue", validationMessage,
-                    converter.convertToDouble(stringToCheck) > converter.convertToDouble(stringExpected));
+            isCheckOk = assertionHandler.assertTrue(isBlocking,
+                    converter.convertToDouble(stringToCheck) > converter.convertToDouble(stringExpected), validationMessage);
             break;
         case MATH_OPERATOR_GREATER_THAN_OR_EQUAL_TO:
-            isCheckOk = assertionHandler.assertion(isBlocking, "assertTrue", validationMessage,
-                    converter.convertToDouble(stringToCheck) >= converter.convertToDouble(stringExpected));
+            isCheckOk = assertionHandler.assertTrue(isBlocking,
+                    converter.convertToDouble(stringToCheck) >= converter.convertToDouble(stringExpected), validationMessage);
             break;
         case MATH_OPERATOR_LESS_THAN:
-            isCheckOk = assertionHandler.assertion(isBlocking, "assertTrue", validationMessage,
-                    converter.convertToDouble(stringToCheck) < converter.convertToDouble(stringExpected));
+            isCheckOk = assertionHandler.assertTrue(isBlocking,
+                    converter.convertToDouble(stringToCheck) < converter.convertToDouble(stringExpected), validationMessage);
             break;
         case MATH_OPERATOR_LESS_THAN_OR_EQUAL_TO:
-            isCheckOk = assertionHandler.assertion(isBlocking, "assertTrue", validationMessage,
-                    converter.convertToDouble(stringToCheck) <= converter.convertToDouble(stringExpected));
+            isCheckOk = assertionHandler.assertTrue(isBlocking,
+                    converter.convertToDouble(stringToCheck) <= converter.convertToDouble(stringExpected), validationMessage);
             break;
         case MATH_OPERATOR_EQUAL_TO:
             isCheckOk = mathEqualCheck(isBlocking, stringToCheck, stringExpected, validationMessage, formatOfTypeCheckInput);
             break;
         case MATH_OPERATOR_NOT_EQUAL_TO:
-            isCheckOk = assertionHandler.assertion(isBlocking, "assertNotEquals", validationMessage,
-                    converter.convertToInt(stringToCheck), converter.convertToInt(stringExpected));
+            isCheckOk = assertionHandler.assertNotEquals(isBlocking,
+                    converter.convertToInt(stringToCheck), converter.convertToInt(stringExpected), validationMessage);
             break;
         default:
             logUtils.trace("None of the operations matched, proceed with other validator classes.");
@@ -99,26 +101,27 @@ public class ArithmeticalValidator {
         return isCheckOk;
     }
 
-    private boolean mathEqualCheck(boolean isBlocking, String stringToCheck, String stringExpected, String validationMessage, String formatOfTypeCheckInput) {
+    private boolean mathEqualCheck(boolean isBlocking, String stringToCheck, String stringExpected, Supplier<String> validationMessage,
+                                   String formatOfTypeCheckInput) {
         boolean isCheckOk;
         String formatOfTypeCheck = formatOfTypeCheckInput != null ? formatOfTypeCheckInput : "int";
         logUtils.trace("Check type is '{}'", formatOfTypeCheck);
         switch (formatOfTypeCheck) {
         case DOUBLE_FORMAT_NUMBER:
-            isCheckOk = assertionHandler.assertion(isBlocking, "assertEquals", validationMessage,
-                    converter.convertToBigDecimal(stringToCheck), converter.convertToBigDecimal(stringExpected));
+            isCheckOk = assertionHandler.assertEquals(isBlocking,
+                    converter.convertToBigDecimal(stringToCheck), converter.convertToBigDecimal(stringExpected), validationMessage);
             break;
         case INT_FORMAT_NUMBER:
-            isCheckOk = assertionHandler.assertion(isBlocking, "assertEquals", validationMessage,
-                    converter.convertToInt(stringToCheck), converter.convertToInt(stringExpected));
+            isCheckOk = assertionHandler.assertEquals(isBlocking,
+                    converter.convertToInt(stringToCheck), converter.convertToInt(stringExpected), validationMessage);
             break;
         case BOOLEAN_FORMAT_NUMBER:
-            isCheckOk = assertionHandler.assertion(isBlocking, "assertEquals", validationMessage,
-                    converter.convertToBoolean(stringToCheck), converter.convertToBoolean(stringExpected));
+            isCheckOk = assertionHandler.assertEquals(isBlocking,
+                    converter.convertToBoolean(stringToCheck), converter.convertToBoolean(stringExpected), validationMessage);
             break;
         default:
-            isCheckOk = assertionHandler.assertion(isBlocking, "assertTrue", validationMessage,
-                    stringToCheck.equals(stringExpected));
+            isCheckOk = assertionHandler.assertTrue(isBlocking,
+                    stringToCheck.equals(stringExpected), validationMessage);
             break;
         }
         return isCheckOk;
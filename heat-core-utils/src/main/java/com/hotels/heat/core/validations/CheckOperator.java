@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2015-2017 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.validations;
+
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Operations of the field checks, as written in the 'operation' element of a check block.
+ */
+public enum CheckOperator {
+
+    EQUAL_TO(ArithmeticalValidator.MATH_OPERATOR_EQUAL_TO, true),
+    NOT_EQUAL_TO(ArithmeticalValidator.MATH_OPERATOR_NOT_EQUAL_TO, true),
+    LESS_THAN(ArithmeticalValidator.MATH_OPERATOR_LESS_THAN, true),
+    LESS_THAN_OR_EQUAL_TO(ArithmeticalValidator.MATH_OPERATOR_LESS_THAN_OR_EQUAL_TO, true),
+    GREATER_THAN_OR_EQUAL_TO(ArithmeticalValidator.MATH_OPERATOR_GREATER_THAN_OR_EQUAL_TO, true),
+    GREATER_THAN(ArithmeticalValidator.MATH_OPERATOR_GREATER_THAN, true),
+    EQUALS_TO(StringValidator.STRING_OPERATOR_EQUALS_TO, false),
+    NOT_EQUALS_TO(StringValidator.STRING_OPERATOR_NOT_EQUALS_TO, false),
+    CONTAINS(StringValidator.STRING_OPERATOR_CONTAINS, false),
+    NOT_CONTAINS(StringValidator.STRING_OPERATOR_NOT_CONTAINS, false);
+
+    private static final Map<String, CheckOperator> BY_SYMBOL = new HashMap();
+
+    static {
+        for (CheckOperator operator : values()) {
+            BY_SYMBOL.put(operator.symbol, operator);
+        }
+    }
+
+    private final String symbol;
+    private final boolean mathematical;
+
+    CheckOperator(String symbol, boolean mathematical) {
+        this.symbol = symbol;
+        this.mathematical = mathematical;
+    }
+
+    /**
+     * Retrieves the operator written in a check block.
+     * @param symbol the operation of the check block (i.e. '&gt;=' or 'not contains')
+     * @return the operator, null if the operation is not supported
+     */
+    public static CheckOperator fromSymbol(String symbol) {
+        return BY_SYMBOL.get(symbol);
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * @return true if the operator is executed by the {@link ArithmeticalValidator}, false if by the {@link StringValidator}
+     */
+    public boolean isMathematical() {
+        return mathematical;
+    }
+
+    /**
+     * @return true if the operator checks the elements of a list of expected values
+     */
+    public boolean isContainment() {
+        return this == CONTAINS || this == NOT_CONTAINS;
+    }
+
+}
@@ -15,6 +15,8 @@
  */
 package com.hotels.heat.core.validations;
 
+import java.util.function.Supplier;
+
 import com.hotels.heat.core.handlers.AssertionHandler;
 import com.hotels.heat.core.utils.log.LoggingUtils;
 
@@ -47,18 +49,18 @@ public class StringValidator {
      * @param operation is the check (contains, does not contains, etc.).
      * @param stringToCheck is an item to validate from response A.
      * @param stringExpected is an item to validate from response B.
-     * @param checkDescription is the description of the check.
+     * @param checkDescription is the supplier of the description of the check, called only if the check fails.
      * @return true if the check is OK, false otherwise
      */
-    public boolean stringEqualChecks(boolean isBlocking, String operation, String stringToCheck, String stringExpected, String checkDescription) {
+    public boolean stringEqualChecks(boolean isBlocking, String operation, String stringToCheck, String stringExpected, Supplier<String> checkDescription) {
         logUtils.trace("Requested operation '{}'", operation);
         boolean isCheckOk = true;
         switch (operation) {
         case StringValidator.STRING_OPERATOR_NOT_EQUALS_TO:
-            isCheckOk = assertionHandler.assertion(isBlocking, "assertNotEquals", checkDescription, stringToCheck, stringExpected);
+            isCheckOk = assertionHandler.assertNotEquals(isBlocking, stringToCheck, stringExpected, checkDescription);
             break;
         case StringValidator.STRING_OPERATOR_EQUALS_TO:
-            isCheckOk = assertionHandler.assertion(isBlocking, "assertEquals", checkDescription, stringToCheck, stringExpected);
+            isCheckOk = assertionHandler.assertEquals(isBlocking, stringToCheck, stringExpected, checkDescription);
             break;
         default:
             logUtils.trace("None of the operations matched, proceed with other validator classes.");
@@ -0,0 +1,156 @@
+/**
+ * Copyright (C) 2015-2017 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.checks;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.hotels.heat.core.environment.EnvironmentHandler;
+import com.hotels.heat.core.handlers.TestSuiteHandler;
+import com.hotels.heat.core.utils.RestAssuredRequestMaker;
+
+import io.restassured.response.Response;
+
+/**
+ * Unit Tests for {@link BasicFlowChecks}.
+ */
+public class BasicFlowChecksTest {
+
+    private static final long STEP_DURATION_MS = 300;
+
+    private EnvironmentHandler previousEnvironmentHandler;
+
+    @BeforeMethod
+    public void setUp() {
+        previousEnvironmentHandler = TestSuiteHandler.getInstance().getEnvironmentHandler();
+        TestSuiteHandler.getInstance().setEnvironmentHandler(new EnvironmentHandler("envPropFilePath"));
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        TestSuiteHandler.getInstance().setEnvironmentHandler(previousEnvironmentHandler);
+        TestSuiteHandler.getInstance().getTestCaseUtils().getBeforeStepVariables().clear();
+    }
+
+    @Test
+    public void testStepDependencies() {
+        BasicFlowChecks underTest = new BasicFlowChecks(TestSuiteHandler.getInstance().getLogUtils(), null, null);
+        // forward reference: ignored
+        addStep(underTest, 1, step("${getStep(3).getOutputParam(id)}"));
+        addStep(underTest, 2, step("/hotels/${getStep(1).getOutputParam(id)}"));
+        Map<String, Object> step3 = step("/search");
+        step3.put("dependsOn", "1, 2");
+        addStep(underTest, 3, step3);
+        // dependsOn as a list, references in nested fields, forward and missing steps ignored
+        Map<String, Object> step4 = step("/search?q=${getStep(5).getOutputParam(id)}");
+        step4.put("dependsOn", Arrays.asList(3, 9));
+        Map<String, Object> queryParameters = new HashMap();
+        queryParameters.put("hotel", "${getStep(2).getOutputParam(hotelId)}");
+        step4.put("queryParameters", queryParameters);
+        addStep(underTest, 4, step4);
+        addStep(underTest, 5, step("/book"));
+
+        Map<Integer, Set<Integer>> dependencies = underTest.getStepDependencies();
+
+        Assert.assertEquals(dependencies.get(1), Collections.emptySet());
+        Assert.assertEquals(dependencies.get(2), new TreeSet(Arrays.asList(1)));
+        Assert.assertEquals(dependencies.get(3), new TreeSet(Arrays.asList(1, 2)));
+        Assert.assertEquals(dependencies.get(4), new TreeSet(Arrays.asList(2, 3)));
+        Assert.assertEquals(dependencies.get(5), Collections.emptySet());
+    }
+
+    @Test
+    public void testStepsRunAfterTheirDependencies() {
+        RecordingFlowChecks underTest = new RecordingFlowChecks();
+        addStep(underTest, 1, step("/hotels"));
+        addStep(underTest, 2, step("/hotels/${getStep(1).getOutputParam(id)}"));
+        Map<String, Object> step3 = step("/book");
+        step3.put("dependsOn", "2");
+        addStep(underTest, 3, step3);
+        addStep(underTest, 4, step("/search"));
+
+        underTest.executeStepsByDependencies();
+
+        Assert.assertTrue(underTest.starts.get(2) >= underTest.ends.get(1), "step 2 started before the end of step 1");
+        Assert.assertTrue(underTest.starts.get(3) >= underTest.ends.get(2), "step 3 started before the end of step 2");
+        Assert.assertTrue(underTest.starts.get(4) < underTest.ends.get(1), "independent step 4 waited for step 1");
+    }
+
+    @Test
+    public void testBeforeStepVariablesClearedWhenTheStepFails() {
+        BasicFlowChecks underTest = new BasicFlowChecks(TestSuiteHandler.getInstance().getLogUtils(), null, null);
+        Map<String, Object> step1 = step("/hotels");
+        Map<String, Object> beforeStep = new HashMap();
+        beforeStep.put("HOTEL", "Hotel");
+        step1.put("beforeStep", beforeStep);
+        step1.put("delayBefore", "not a number");
+        addStep(underTest, 1, step1);
+
+        try {
+            underTest.executeStep(1, "step1", null);
+            Assert.fail("the step should fail");
+        } catch (NumberFormatException expected) {
+            Assert.assertTrue(TestSuiteHandler.getInstance().getTestCaseUtils().getBeforeStepVariables().isEmpty());
+        }
+    }
+
+    private static Map<String, Object> step(String url) {
+        Map<String, Object> step = new HashMap();
+        step.put("url", url);
+        return step;
+    }
+
+    private static void addStep(BasicFlowChecks flowChecks, int stepNumber, Map<String, Object> step) {
+        step.put("stepNumber", String.valueOf(stepNumber));
+        flowChecks.getSteps().put(stepNumber, "step" + stepNumber);
+        flowChecks.getInputJsonObjs().put("step" + stepNumber, step);
+    }
+
+    /**
+     * Records when each step starts and ends, without sending any request.
+     */
+    private static class RecordingFlowChecks extends BasicFlowChecks {
+
+        private final Map<Integer, Long> starts = new ConcurrentHashMap();
+        private final Map<Integer, Long> ends = new ConcurrentHashMap();
+
+        RecordingFlowChecks() {
+            super(TestSuiteHandler.getInstance().getLogUtils(), null, null);
+        }
+
+        @Override
+        Response executeStep(Integer blockID, String singleBlockName, RestAssuredRequestMaker requestMaker) {
+            starts.put(blockID, System.nanoTime());
+            try {
+                Thread.sleep(STEP_DURATION_MS);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            ends.put(blockID, System.nanoTime());
+            return null;
+        }
+    }
+}
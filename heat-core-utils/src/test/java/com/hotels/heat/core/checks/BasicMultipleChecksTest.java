@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2015-2017 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.checks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.hotels.heat.core.environment.EnvironmentHandler;
+import com.hotels.heat.core.handlers.TestSuiteHandler;
+import com.hotels.heat.core.specificexception.HeatException;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+
+/**
+ * Unit Tests for {@link BasicMultipleChecks}.
+ */
+public class BasicMultipleChecksTest {
+
+    private static final String WEBAPP = "WEBAPP_UNDER_TEST";
+    private static final String ENVIRONMENT = "ENV_UNDER_TEST";
+
+    private EnvironmentHandler previousEnvironmentHandler;
+    private String previousEnvironment;
+
+    @BeforeMethod
+    public void setUp() {
+        previousEnvironmentHandler = TestSuiteHandler.getInstance().getEnvironmentHandler();
+        previousEnvironment = System.getProperty("environment");
+        System.setProperty("environment", ENVIRONMENT);
+        EnvironmentHandler eh = new EnvironmentHandler("src/test/resources/environmentSettingsForTest/environment.properties");
+        eh.setEnabledEnvironments(ENVIRONMENT);
+        TestSuiteHandler.getInstance().setEnvironmentHandler(eh);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        TestSuiteHandler.getInstance().setEnvironmentHandler(previousEnvironmentHandler);
+        if (previousEnvironment == null) {
+            System.clearProperty("environment");
+        } else {
+            System.setProperty("environment", previousEnvironment);
+        }
+    }
+
+    @Test
+    public void testAllTheBlocksAreRetrieved() {
+        StubbedBlocksChecks underTest = new StubbedBlocksChecks();
+
+        Map<String, Response> responses = underTest.retrieveInfo(testCase("A", "B"));
+
+        Assert.assertEquals(responses.keySet(), underTest.completedBlocks.keySet());
+        Assert.assertEquals(responses.size(), 2);
+    }
+
+    @Test
+    public void testFailedBlocksFailTheTestCase() {
+        StubbedBlocksChecks underTest = new StubbedBlocksChecks();
+        try {
+            underTest.retrieveInfo(testCase("A", "FAIL_HEAT", "B", "FAIL_RUNTIME"));
+            Assert.fail("the failed blocks have to fail the test case");
+        } catch (HeatException expected) {
+            Assert.assertTrue(expected.getMessage().contains("block 'FAIL_HEAT': 'service down'"), expected.getMessage());
+            Assert.assertTrue(expected.getMessage().contains("block 'FAIL_RUNTIME': 'connection refused'"), expected.getMessage());
+        }
+        // the other blocks are completed anyway
+        Assert.assertTrue(underTest.completedBlocks.containsKey("A"));
+        Assert.assertTrue(underTest.completedBlocks.containsKey("B"));
+    }
+
+    private static Map<String, Object> testCase(String... blockNames) {
+        List<Object> blocks = new ArrayList();
+        for (String blockName : blockNames) {
+            Map<String, Object> block = new HashMap();
+            block.put("webappName", WEBAPP);
+            block.put("objectName", blockName);
+            block.put("url", "/" + blockName);
+            blocks.add(block);
+        }
+        Map<String, Object> testCase = new HashMap();
+        testCase.put("objectsToCompare", blocks);
+        return testCase;
+    }
+
+    /**
+     * Answers the blocks without sending any request: the blocks whose name starts with 'FAIL' fail.
+     */
+    private static class StubbedBlocksChecks extends BasicMultipleChecks {
+
+        private final Map<String, Response> completedBlocks = new ConcurrentHashMap();
+
+        StubbedBlocksChecks() {
+            super(null);
+        }
+
+        @Override
+        Response retrieveTimedBlockRsp(String serviceId) {
+            if ("FAIL_HEAT".equals(serviceId)) {
+                throw new HeatException("service down");
+            }
+            if ("FAIL_RUNTIME".equals(serviceId)) {
+                throw new IllegalStateException("connection refused");
+            }
+            ResponseBuilder rspBuilder = new ResponseBuilder();
+            rspBuilder.setBody("{\"block\" : \"" + serviceId + "\"}");
+            rspBuilder.setStatusCode(200);
+            Response rsp = rspBuilder.build();
+            completedBlocks.put(serviceId, rsp);
+            return rsp;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) 2015-2017 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.checks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.hotels.heat.core.runner.TestCaseContext;
+import com.hotels.heat.core.specificexception.HeatException;
+
+/**
+ * Unit Tests for {@link CheckPlan}.
+ */
+public class CheckPlanTest {
+
+    @Test
+    public void testChecksOfTheTestCaseAreCompiledOnce() {
+        List fieldChecks = new ArrayList(Arrays.asList(checkBlock("status", "OK")));
+        Map<String, Object> testCase = testCase("001", expects(fieldChecks));
+
+        CheckPlan underTest = CheckPlan.compile(testCase);
+
+        Assert.assertSame(underTest.getFieldChecks(fieldChecks), underTest.getFieldChecks(fieldChecks));
+        Assert.assertEquals(underTest.getFieldChecks(fieldChecks).get(0).getDescription(), "status");
+    }
+
+    @Test
+    public void testFlowStepsAndCompareExpectsAreCompiled() {
+        List stepChecks = new ArrayList(Arrays.asList(checkBlock("step status", "OK")));
+        Map<String, Object> step = new HashMap();
+        step.put("expects", expects(stepChecks));
+        List compareChecks = new ArrayList(Arrays.asList(checkBlock("compare", "OK")));
+        Map<String, Object> testCase = testCase("001", compareChecks);
+        testCase.put("e2eFlowSteps", Arrays.asList(step));
+
+        CheckPlan underTest = CheckPlan.compile(testCase);
+
+        Assert.assertSame(underTest.getFieldChecks(stepChecks), underTest.getFieldChecks(stepChecks));
+        Assert.assertSame(underTest.getFieldChecks(compareChecks), underTest.getFieldChecks(compareChecks));
+    }
+
+    @Test
+    public void testUnknownChecksAreCompiledOnDemand() {
+        CheckPlan underTest = CheckPlan.compile(testCase("001", expects(new ArrayList())));
+        List copiedChecks = Arrays.asList(checkBlock("copied", "OK"));
+
+        Assert.assertEquals(underTest.getFieldChecks(copiedChecks).get(0).getDescription(), "copied");
+        Assert.assertNotSame(underTest.getFieldChecks(copiedChecks), underTest.getFieldChecks(copiedChecks));
+    }
+
+    @Test
+    public void testCurrentPlan() {
+        CheckPlan checkPlan = CheckPlan.compile(testCase("001", expects(new ArrayList())));
+        try {
+            TestCaseContext.open("SUITE", "001").setCheckPlan(checkPlan);
+            Assert.assertSame(CheckPlan.current(), checkPlan);
+            Assert.assertSame(TestCaseContext.current().copy().getCheckPlan(), checkPlan);
+        } finally {
+            TestCaseContext.close();
+        }
+        Assert.assertNotNull(CheckPlan.current());
+    }
+
+    @Test(expectedExceptions = HeatException.class, expectedExceptionsMessageRegExp = "test case '002' -- .*'status'.*")
+    public void testMalformedCheckFailsTheCompilation() {
+        Map<String, Object> block = checkBlock("status", "OK");
+        block.put("operation", "like");
+        CheckPlan.compile(testCase("002", expects(Arrays.asList(block))));
+    }
+
+    private static Map<String, Object> testCase(String testId, Object expects) {
+        Map<String, Object> testCase = new HashMap();
+        testCase.put("testId", testId);
+        testCase.put("expects", expects);
+        return testCase;
+    }
+
+    private static Map<String, Object> expects(List fieldChecks) {
+        Map<String, Object> expects = new HashMap();
+        expects.put("fieldCheck", fieldChecks);
+        return expects;
+    }
+
+    private static Map<String, Object> checkBlock(String description, String expectedValue) {
+        Map<String, Object> block = new HashMap();
+        block.put("description", description);
+        block.put("actualValue", "${path|status}");
+        block.put("expectedValue", expectedValue);
+        return block;
+    }
+
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright (C) 2015-2017 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.checks;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.hotels.heat.core.specificexception.HeatException;
+import com.hotels.heat.core.validations.CheckOperator;
+
+/**
+ * Unit Tests for {@link FieldCheck}.
+ */
+public class FieldCheckTest {
+
+    @Test
+    public void testDefaultsOfValueCheck() {
+        FieldCheck underTest = FieldCheck.compile(checkBlock("status", "${path|status}", "OK"));
+
+        Assert.assertEquals(underTest.getKind(), FieldCheck.Kind.VALUE);
+        Assert.assertEquals(underTest.getOperator(), CheckOperator.EQUALS_TO);
+        Assert.assertEquals(underTest.getFormat(), "int");
+        Assert.assertTrue(underTest.getConditions().isEmpty());
+        Assert.assertEquals(underTest.getDescription(), "status");
+    }
+
+    @Test
+    public void testResolvedOperatorAndFormat() {
+        Map<String, Object> block = checkBlock("price", "${path|price}", "10");
+        block.put("operation", "!=");
+        block.put("formatOfTypeCheck", "double");
+        FieldCheck underTest = FieldCheck.compile(block);
+
+        Assert.assertEquals(underTest.getOperator(), CheckOperator.NOT_EQUAL_TO);
+        Assert.assertTrue(underTest.getOperator().isMathematical());
+        Assert.assertEquals(underTest.getFormat(), "double");
+    }
+
+    @Test
+    public void testContainsAndCompareChecks() {
+        FieldCheck containsCheck = FieldCheck.compile(checkBlock("name", "${path|name}", Arrays.asList("Hotel")));
+        Assert.assertEquals(containsCheck.getKind(), FieldCheck.Kind.CONTAINS);
+        Assert.assertEquals(containsCheck.getOperator(), CheckOperator.CONTAINS);
+
+        Map<String, Object> compareBlock = checkBlock("same name", responseValue("A"), responseValue("B"));
+        FieldCheck compareCheck = FieldCheck.compile(compareBlock);
+        Assert.assertEquals(compareCheck.getKind(), FieldCheck.Kind.COMPARE);
+        Assert.assertEquals(compareCheck.getOperator(), CheckOperator.EQUAL_TO);
+        Assert.assertEquals(compareCheck.getFormat(), BasicMultipleChecks.DEFAULT_FORMAT_OF_TYPE_CHECK);
+    }
+
+    @Test
+    public void testConditionsAreCompiled() {
+        Map<String, Object> block = checkBlock("status", "${path|status}", "OK");
+        block.put("condition", Arrays.asList(checkBlock("type", "${path|type}", "hotel")));
+
+        Assert.assertEquals(FieldCheck.compile(block).getConditions().get(0).getDescription(), "type");
+    }
+
+    @Test(expectedExceptions = HeatException.class, expectedExceptionsMessageRegExp = ".*'status'.*are mandatory")
+    public void testMissingExpectedValue() {
+        Map<String, Object> block = checkBlock("status", "${path|status}", "OK");
+        block.remove("expectedValue");
+        FieldCheck.compile(block);
+    }
+
+    @Test(expectedExceptions = HeatException.class, expectedExceptionsMessageRegExp = ".*operation 'like' not supported")
+    public void testUnknownOperation() {
+        Map<String, Object> block = checkBlock("status", "${path|status}", "OK");
+        block.put("operation", "like");
+        FieldCheck.compile(block);
+    }
+
+    @Test(expectedExceptions = HeatException.class, expectedExceptionsMessageRegExp = ".*operation 'contains' not supported without a list.*")
+    public void testContainsWithoutList() {
+        Map<String, Object> block = checkBlock("name", "${path|name}", "Hotel");
+        block.put("operation", "contains");
+        FieldCheck.compile(block);
+    }
+
+    @Test(expectedExceptions = HeatException.class, expectedExceptionsMessageRegExp = ".*operation '>' not supported with a list.*")
+    public void testMathematicalOperationWithList() {
+        Map<String, Object> block = checkBlock("name", "${path|name}", Arrays.asList("Hotel"));
+        block.put("operation", ">");
+        FieldCheck.compile(block);
+    }
+
+    @Test(expectedExceptions = HeatException.class, expectedExceptionsMessageRegExp = ".*expected value '3' not supported")
+    public void testUnsupportedExpectedValue() {
+        FieldCheck.compile(checkBlock("count", "${path|count}", 3));
+    }
+
+    @Test(expectedExceptions = HeatException.class, expectedExceptionsMessageRegExp = ".*description' of a comparison is mandatory")
+    public void testCompareWithoutDescription() {
+        FieldCheck.compile(checkBlock(null, responseValue("A"), responseValue("B")));
+    }
+
+    private static Map<String, Object> checkBlock(String description, Object actualValue, Object expectedValue) {
+        Map<String, Object> block = new HashMap();
+        if (description != null) {
+            block.put("description", description);
+        }
+        block.put("actualValue", actualValue);
+        block.put("expectedValue", expectedValue);
+        return block;
+    }
+
+    private static Map<String, Object> responseValue(String objectName) {
+        Map<String, Object> value = new HashMap();
+        value.put("actualValue", "${path|name}");
+        value.put("referringObjectName", objectName);
+        return value;
+    }
+
+}
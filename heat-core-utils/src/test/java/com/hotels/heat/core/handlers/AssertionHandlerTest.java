@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.handlers;
+
+import java.math.BigDecimal;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.hotels.heat.core.runner.TestCaseContext;
+import com.hotels.heat.core.specificexception.HeatException;
+
+/**
+ * Unit Tests for {@link AssertionHandler}.
+ */
+public class AssertionHandlerTest {
+
+    private AssertionHandler underTest;
+    private TestCaseContext tcContext;
+
+    @BeforeMethod
+    public void setUp() {
+        underTest = new AssertionHandler();
+        tcContext = TestCaseContext.open("SUITE", "001");
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        TestCaseContext.close();
+    }
+
+    @Test
+    public void testPassedAssertionsDoNotBuildTheMessage() {
+        Assert.assertTrue(underTest.assertEquals(true, "a", "a", () -> {
+            throw new IllegalStateException("message built");
+        }));
+        Assert.assertTrue(underTest.assertNotEquals(true, 1, 2, () -> null));
+        Assert.assertTrue(underTest.assertTrue(true, true, () -> null));
+        Assert.assertTrue(underTest.assertFalse(true, false, () -> null));
+        Assert.assertTrue(underTest.assertEquals(true, null, null, () -> null));
+        Assert.assertTrue(tcContext.getSoftAssertionCollector().isEmpty());
+    }
+
+    @Test
+    public void testHardAssertionFailureMessages() {
+        assertHardFailure(() -> underTest.assertEquals(true, "OK", "KO", () -> "{status} -->"), "{status} --> expected [KO] but found [OK]");
+        assertHardFailure(() -> underTest.assertEquals(true, new BigDecimal("1.0"), new BigDecimal("1.00"), () -> "check: price"),
+            "check: price expected [1.00] but found [1.0]");
+        assertHardFailure(() -> underTest.assertNotEquals(true, 1, 1, () -> "different values"), "different values");
+        assertHardFailure(() -> underTest.assertTrue(true, false, () -> "condition"), "condition expected [true] but found [false]");
+        assertHardFailure(() -> underTest.assertFalse(true, true, () -> "condition"), "condition expected [false] but found [true]");
+        assertHardFailure(() -> underTest.fail(true, () -> "failed"), "failed");
+    }
+
+    @Test
+    public void testSoftAssertionFailuresAreCollected() {
+        Assert.assertFalse(underTest.assertEquals(false, "OK", "KO", () -> "{status} -->"));
+        Assert.assertFalse(underTest.fail(false, () -> "failed"));
+        Assert.assertTrue(underTest.assertTrue(false, true, () -> "condition"));
+
+        Assert.assertEquals(tcContext.getSoftAssertionCollector().getFailures().toString(),
+            "[{status} --> expected [KO] but found [OK], failed]");
+        Assert.assertSame(tcContext.copy().getSoftAssertionCollector(), tcContext.getSoftAssertionCollector());
+    }
+
+    @Test
+    public void testSoftAssertionFailuresAreDrained() {
+        Assert.assertFalse(underTest.fail(false, () -> "failed"));
+
+        Assert.assertEquals(tcContext.getSoftAssertionCollector().drainFailures().toString(), "[failed]");
+        Assert.assertTrue(tcContext.getSoftAssertionCollector().isEmpty());
+        Assert.assertTrue(tcContext.getSoftAssertionCollector().drainFailures().isEmpty());
+    }
+
+    @Test
+    public void testAssertionByName() {
+        Assert.assertTrue(underTest.assertion(false, "assertEquals", "equals", 1, 1));
+        Assert.assertFalse(underTest.assertion(false, "assertTrue", "true", false));
+        Assert.assertFalse(underTest.assertion(false, "fail", "failed"));
+        Assert.assertEquals(tcContext.getSoftAssertionCollector().getFailures().toString(), "[true expected [true] but found [false], failed]");
+    }
+
+    @Test(expectedExceptions = HeatException.class, expectedExceptionsMessageRegExp = ".*assertion 'assertSame' with 2 objects not supported")
+    public void testUnsupportedAssertionByName() {
+        underTest.assertion(true, "assertSame", "same", 1, 1);
+    }
+
+    private static void assertHardFailure(Runnable assertion, String expectedMessage) {
+        try {
+            assertion.run();
+            Assert.fail("the assertion has not failed");
+        } catch (HeatException oEx) {
+            Assert.assertEquals(oEx.getMessage(), expectedMessage);
+        }
+    }
+
+}
@@ -19,6 +19,11 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
@@ -133,6 +138,42 @@ public class PlaceholderHandlerTest {
     }
 
 
+    @Test (enabled = true)
+    public void testCsvRowsResolvedConcurrently() throws Exception {
+        Map<String, Object> beforeSuiteVariables = new HashMap();
+        beforeSuiteVariables.put("name", "suiteName");
+        beforeSuiteVariables.put("city", "Rome");
+        TestSuiteHandler.getInstance().getTestCaseUtils().setBeforeSuiteVariables(beforeSuiteVariables);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CyclicBarrier barrier = new CyclicBarrier(2);
+            Future<Boolean> firstRow = executor.submit(csvRowResolution(barrier, "row0"));
+            Future<Boolean> secondRow = executor.submit(csvRowResolution(barrier, "row1"));
+            Assert.assertTrue(firstRow.get(), "the first csv row has resolved a value of another row");
+            Assert.assertTrue(secondRow.get(), "the second csv row has resolved a value of another row");
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(beforeSuiteVariables.get("name"), "suiteName", "the csv rows must not change the suite variables");
+        Assert.assertEquals(beforeSuiteVariables.size(), 2);
+    }
+
+    private static Callable<Boolean> csvRowResolution(CyclicBarrier barrier, String rowValue) {
+        return () -> {
+            PlaceholderHandler placeholderHandler = new PlaceholderHandler();
+            Map<String, Object> csvRow = new HashMap();
+            csvRow.put("name", rowValue);
+            placeholderHandler.addCsvFileVariables(csvRow);
+            barrier.await();
+            boolean isRowIsolated = true;
+            for (int i = 0; i < 500 && isRowIsolated; i++) {
+                isRowIsolated = (rowValue + "_Rome").equals(placeholderHandler.placeholderProcessString("${preload[name]}_${preload[city]}"));
+            }
+            return isRowIsolated;
+        };
+    }
+
     @Test(enabled = true)
     public void testGetPreloadNotExistentString() {
         underTest = new PlaceholderHandler();
@@ -0,0 +1,140 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.handlers;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.hotels.heat.core.heatmodules.HeatPlaceholderModule;
+import com.hotels.heat.core.heatmodules.HeatPlaceholderModuleProvider;
+
+/**
+ * Unit Tests for {@link PlaceholderModuleRegistry}.
+ */
+public class PlaceholderModuleRegistryTest {
+
+    @AfterMethod
+    public void restoreRegistry() {
+        PlaceholderModuleRegistry.reload();
+    }
+
+    @Test
+    public void testLoadedOncePerJvm() {
+        Assert.assertSame(PlaceholderModuleRegistry.getInstance(), PlaceholderModuleRegistry.getInstance());
+        PlaceholderModuleRegistry reloaded = PlaceholderModuleRegistry.reload();
+        Assert.assertSame(PlaceholderModuleRegistry.getInstance(), reloaded);
+    }
+
+    @Test
+    public void testDeterministicOrder() {
+        PlaceholderModuleRegistry underTest = PlaceholderModuleRegistry.reload(
+            Arrays.asList(new SecondProvider(), new FirstProvider()));
+        Assert.assertEquals(underTest.getProviderMap().keySet().toString(), "[${FIRST, ${SHARED, ${SECOND]");
+        // the placeholder handled by both the providers goes to the first one in class name order
+        Assert.assertTrue(underTest.getProviderMap().get("${SHARED") instanceof FirstProvider);
+    }
+
+    @Test
+    public void testLookupCounts() {
+        PlaceholderModuleRegistry underTest = PlaceholderModuleRegistry.reload(
+            Arrays.asList(new SecondProvider(), new FirstProvider()));
+        Assert.assertEquals(underTest.lookup("value ${SECOND[1]}").getKey(), "${SECOND");
+        Assert.assertEquals(underTest.lookup("value ${SECOND[2]}").getKey(), "${SECOND");
+        Assert.assertNull(underTest.lookup("no module placeholder"));
+        Assert.assertEquals(underTest.getLookups(), 3);
+        Assert.assertEquals(underTest.getLookupCounts().toString(), "{${SECOND=2}");
+    }
+
+    @Test
+    public void testMatchOfAllTheModules() {
+        PlaceholderModuleRegistry underTest = PlaceholderModuleRegistry.reload(
+            Arrays.asList(new SecondProvider(), new FirstProvider(), new ThirdProvider()));
+        List<Map.Entry<String, HeatPlaceholderModuleProvider>> matches = underTest.match("${SECOND[1]} ${FIRST[2]} ${SECOND[3]}");
+        Assert.assertEquals(matches.size(), 2);
+        // ordered by position in the string, one entry for each module
+        Assert.assertEquals(matches.get(0).getKey(), "${SECOND");
+        Assert.assertTrue(matches.get(0).getValue() instanceof SecondProvider);
+        Assert.assertEquals(matches.get(1).getKey(), "${FIRST");
+        Assert.assertTrue(matches.get(1).getValue() instanceof FirstProvider);
+        Assert.assertEquals(underTest.getLookupCounts().toString(), "{${FIRST=1, ${SECOND=2}");
+    }
+
+    @Test
+    public void testMatchOfTheLongestPlaceholder() {
+        PlaceholderModuleRegistry underTest = PlaceholderModuleRegistry.reload(
+            Arrays.asList(new FirstProvider(), new ThirdProvider()));
+        List<Map.Entry<String, HeatPlaceholderModuleProvider>> matches = underTest.match("${FIRST_DAY[1]} ${FIRST");
+        Assert.assertEquals(matches.size(), 2);
+        Assert.assertEquals(matches.get(0).getKey(), "${FIRST_DAY");
+        Assert.assertTrue(matches.get(0).getValue() instanceof ThirdProvider);
+        Assert.assertEquals(matches.get(1).getKey(), "${FIRST");
+        // a partial match of the longer placeholder falls back to the shorter one
+        Assert.assertEquals(underTest.match("${FIRST_DA").get(0).getKey(), "${FIRST");
+        Assert.assertTrue(underTest.match("no module placeholder $").isEmpty());
+    }
+
+    /**
+     * Provider used to check the order of the registry.
+     */
+    private static class FirstProvider implements HeatPlaceholderModuleProvider {
+        @Override
+        public List<String> getHandledPlaceholders() {
+            return Arrays.asList("${FIRST", "${SHARED");
+        }
+
+        @Override
+        public HeatPlaceholderModule getModuleInstance() {
+            return (stringToProcess, testDetails) -> Collections.singletonMap("first", stringToProcess);
+        }
+    }
+
+    /**
+     * Provider used to check the order of the registry.
+     */
+    private static class SecondProvider implements HeatPlaceholderModuleProvider {
+        @Override
+        public List<String> getHandledPlaceholders() {
+            return Arrays.asList("${SHARED", "${SECOND");
+        }
+
+        @Override
+        public HeatPlaceholderModule getModuleInstance() {
+            return (stringToProcess, testDetails) -> Collections.<String, String>singletonMap("second", stringToProcess);
+        }
+    }
+
+    /**
+     * Provider of a placeholder starting as a placeholder of another provider.
+     */
+    private static class ThirdProvider implements HeatPlaceholderModuleProvider {
+        @Override
+        public List<String> getHandledPlaceholders() {
+            return Collections.singletonList("${FIRST_DAY");
+        }
+
+        @Override
+        public HeatPlaceholderModule getModuleInstance() {
+            return (stringToProcess, testDetails) -> Collections.singletonMap("third", stringToProcess);
+        }
+    }
+
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.handlers;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.hotels.heat.core.heatmodules.HeatPlaceholderModule;
+import com.hotels.heat.core.heatmodules.HeatPlaceholderModuleProvider;
+import com.hotels.heat.core.heatmodules.PlaceholderCacheScope;
+import com.hotels.heat.core.runner.TestCaseContext;
+
+/**
+ * Unit Tests for {@link PlaceholderResultCache}.
+ */
+public class PlaceholderResultCacheTest {
+
+    private static final Map<String, String> RESULT = Collections.singletonMap("DEFAULT", "value");
+
+    private final PlaceholderResultCache underTest = PlaceholderResultCache.getInstance();
+
+    @BeforeMethod
+    public void setUp() {
+        underTest.clear();
+        TestCaseContext.open("suite", "001");
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        TestCaseContext.close();
+        underTest.clear();
+    }
+
+    @Test
+    public void testStringScopeIsNotCached() {
+        Assert.assertNull(underTest.keyOf(new ScopedProvider(PlaceholderCacheScope.STRING), "${SCOPED}"));
+    }
+
+    @Test
+    public void testTestCaseScope() {
+        ScopedProvider provider = new ScopedProvider(PlaceholderCacheScope.TEST_CASE);
+        underTest.put(underTest.keyOf(provider, "${SCOPED}"), RESULT);
+        Assert.assertEquals(underTest.get(underTest.keyOf(provider, "${SCOPED}")), RESULT);
+        Assert.assertNull(underTest.get(underTest.keyOf(provider, "${SCOPED} other")));
+        // another provider with the same scope does not share the results
+        Assert.assertNull(underTest.get(underTest.keyOf(new ScopedProvider(PlaceholderCacheScope.TEST_CASE), "${SCOPED}")));
+
+        TestCaseContext.open("suite", "002");
+        Assert.assertNull(underTest.get(underTest.keyOf(provider, "${SCOPED}")));
+    }
+
+    @Test
+    public void testSuiteScope() {
+        ScopedProvider provider = new ScopedProvider(PlaceholderCacheScope.SUITE);
+        underTest.put(underTest.keyOf(provider, "${SCOPED}"), RESULT);
+        TestCaseContext.open("suite", "002");
+        Assert.assertEquals(underTest.get(underTest.keyOf(provider, "${SCOPED}")), RESULT);
+
+        underTest.evictSuite("suite");
+        Assert.assertNull(underTest.get(underTest.keyOf(provider, "${SCOPED}")));
+    }
+
+    @Test
+    public void testNoTestCaseRunning() {
+        TestCaseContext.close();
+        Assert.assertNull(underTest.keyOf(new ScopedProvider(PlaceholderCacheScope.TEST_CASE), "${SCOPED}"));
+        Assert.assertNull(underTest.keyOf(new ScopedProvider(PlaceholderCacheScope.SUITE), "${SCOPED}"));
+    }
+
+    @Test
+    public void testTtlScope() throws InterruptedException {
+        ScopedProvider provider = new ScopedProvider(PlaceholderCacheScope.TTL);
+        underTest.put(underTest.keyOf(provider, "${SCOPED}"), RESULT);
+        TestCaseContext.close();
+        Assert.assertEquals(underTest.get(underTest.keyOf(provider, "${SCOPED}")), RESULT);
+
+        provider.ttl = Duration.ofMillis(1);
+        underTest.put(underTest.keyOf(provider, "${SCOPED}"), RESULT);
+        Thread.sleep(5);
+        Assert.assertNull(underTest.get(underTest.keyOf(provider, "${SCOPED}")));
+    }
+
+    @Test
+    public void testEvictProvider() {
+        ScopedProvider provider = new ScopedProvider(PlaceholderCacheScope.TEST_CASE);
+        ScopedProvider otherProvider = new ScopedProvider(PlaceholderCacheScope.TEST_CASE);
+        underTest.put(underTest.keyOf(provider, "${SCOPED}"), RESULT);
+        underTest.put(underTest.keyOf(otherProvider, "${SCOPED}"), RESULT);
+
+        underTest.evictProvider(provider);
+        Assert.assertNull(underTest.get(underTest.keyOf(provider, "${SCOPED}")));
+        Assert.assertEquals(underTest.get(underTest.keyOf(otherProvider, "${SCOPED}")), RESULT);
+    }
+
+    /**
+     * Provider declaring the given cache scope.
+     */
+    private static class ScopedProvider implements HeatPlaceholderModuleProvider {
+        private final PlaceholderCacheScope scope;
+        private Duration ttl = Duration.ofMinutes(1);
+
+        ScopedProvider(PlaceholderCacheScope scope) {
+            this.scope = scope;
+        }
+
+        @Override
+        public List<String> getHandledPlaceholders() {
+            return Collections.singletonList("${SCOPED");
+        }
+
+        @Override
+        public HeatPlaceholderModule getModuleInstance() {
+            return (stringToProcess, testDetails) -> RESULT;
+        }
+
+        @Override
+        public PlaceholderCacheScope getCacheScope(String stringToProcess) {
+            return scope;
+        }
+
+        @Override
+        public Duration getCacheTtl() {
+            return ttl;
+        }
+    }
+
+}
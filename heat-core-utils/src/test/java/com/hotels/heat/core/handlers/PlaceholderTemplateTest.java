@@ -0,0 +1,156 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.handlers;
+
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import com.hotels.heat.core.handlers.PlaceholderTemplate.PlaceholderType;
+
+/**
+ * Unit tests for {@link PlaceholderTemplate}.
+ */
+public class PlaceholderTemplateTest {
+
+    @Test
+    public void testNoPlaceholder() {
+        PlaceholderTemplate template = PlaceholderTemplate.compile("pippo_${TODAY}");
+        assertFalse(template.isPlaceholderPresent());
+        assertEquals(template.render(node -> "X"), "pippo_${TODAY}");
+    }
+
+    @Test
+    public void testTemplateIsCached() {
+        assertSame(PlaceholderTemplate.compile("A_${preload[var]}"), PlaceholderTemplate.compile("A_${preload[var]}"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedTemplatesAreEvicted() {
+        PlaceholderTemplate hot = PlaceholderTemplate.compile("HOT_${preload[var]}");
+        PlaceholderTemplate cold = PlaceholderTemplate.compile("COLD_${preload[var]}");
+        for (int i = 0; i < PlaceholderTemplate.MAX_CACHED_TEMPLATES; i++) {
+            PlaceholderTemplate.compile("ROW_" + i + "_${preload[var]}");
+            if (i % 1000 == 0) {
+                assertSame(PlaceholderTemplate.compile("HOT_${preload[var]}"), hot);
+            }
+        }
+        assertSame(PlaceholderTemplate.compile("HOT_${preload[var]}"), hot);
+        assertNotSame(PlaceholderTemplate.compile("COLD_${preload[var]}"), cold);
+    }
+
+    @Test
+    public void testStringsWithoutPlaceholdersAreNotCached() {
+        assertNotSame(PlaceholderTemplate.compile("resolved value"), PlaceholderTemplate.compile("resolved value"));
+    }
+
+    @Test
+    public void testTokenization() {
+        PlaceholderTemplate template = PlaceholderTemplate.compile(
+            "A_${getStep(1).getOutputParam(out)}_B_${path[array[0].field]}_C_${preload[var].get(field)}_D_${cookie[c]}${header[h]}");
+        List<PlaceholderTemplate.Node> nodes = template.getNodes();
+        assertEquals(nodes.size(), 9);
+
+        assertEquals(nodes.get(1).getType(), PlaceholderType.GET_STEP);
+        assertEquals(nodes.get(1).getName(), "1");
+        assertEquals(nodes.get(1).getArgument(), "out");
+
+        assertEquals(nodes.get(3).getType(), PlaceholderType.PATH);
+        assertEquals(nodes.get(3).getName(), "array[0].field");
+
+        assertEquals(nodes.get(5).getType(), PlaceholderType.PRELOAD);
+        assertEquals(nodes.get(5).getName(), "var");
+        assertEquals(nodes.get(5).getArgument(), "field");
+
+        assertEquals(nodes.get(7).getType(), PlaceholderType.COOKIE);
+        assertEquals(nodes.get(7).getText(), "${cookie[c]}");
+        assertEquals(nodes.get(8).getType(), PlaceholderType.HEADER);
+        assertEquals(nodes.get(8).getName(), "h");
+    }
+
+    @Test
+    public void testFold() {
+        PlaceholderTemplate template = PlaceholderTemplate.compile("A_${preload[var]}_B_${path[field]}_${preload[other]}");
+        PlaceholderTemplate folded = template.fold(node -> node.getType() == PlaceholderType.PRELOAD, node -> "<" + node.getName() + ">");
+
+        assertEquals(folded.getRawString(), "A_<var>_B_${path[field]}_<other>");
+        assertEquals(folded.getNodes().size(), 3);
+        assertEquals(folded.getNodes().get(0).getText(), "A_<var>_B_");
+        assertEquals(folded.getNodes().get(1).getType(), PlaceholderType.PATH);
+        assertEquals(folded.render(node -> "X"), "A_<var>_B_X_<other>");
+        // nothing to fold
+        assertSame(template.fold(node -> false, node -> "X"), template);
+    }
+
+    @Test
+    public void testFoldedValuesAreNotParsed() {
+        PlaceholderTemplate folded = PlaceholderTemplate.compile("${preload[var]}")
+            .fold(node -> true, node -> "${path[field]}");
+        assertFalse(folded.isPlaceholderPresent());
+        assertEquals(folded.render(node -> "X"), "${path[field]}");
+    }
+
+    @Test
+    public void testPreloadWithoutField() {
+        PlaceholderTemplate.Node node = PlaceholderTemplate.compile("${preload[var]}").getNodes().get(0);
+        assertEquals(node.getType(), PlaceholderType.PRELOAD);
+        assertNull(node.getArgument());
+    }
+
+    @Test
+    public void testRender() {
+        PlaceholderTemplate template = PlaceholderTemplate.compile("PIPPO_${preload[a]}_PLUTO_${preload[b]}_${NoCheck}");
+        assertTrue(template.isPlaceholderPresent());
+        assertEquals(template.render(node -> "a".equals(node.getName()) ? "1" : null), "PIPPO_1_PLUTO__${NoCheck}");
+    }
+
+    @Test
+    public void testRenderSinglePlaceholder() {
+        PlaceholderTemplate template = PlaceholderTemplate.compile("${preload[a]}");
+        assertEquals(template.render(node -> "value"), "value");
+        assertEquals(template.render(node -> null), "");
+    }
+
+    @Test
+    public void testRenderLargeBody() {
+        StringBuilder body = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            body.append("{\"field").append(i).append("\":\"${preload[var").append(i).append("]}\"},");
+            expected.append("{\"field").append(i).append("\":\"").append(i % 3 == 0 ? "" : "value" + i).append("\"},");
+        }
+        PlaceholderTemplate template = PlaceholderTemplate.compile(body.toString());
+        String rendered = template.render(node -> {
+            int index = Integer.parseInt(node.getName().substring("var".length()));
+            return index % 3 == 0 ? null : "value" + index;
+        });
+        assertEquals(rendered, expected.toString());
+    }
+
+    @Test
+    public void testMalformedPlaceholdersAreLiterals() {
+        PlaceholderTemplate template = PlaceholderTemplate.compile("${preload[a}_${cookie[c]_${getStep(1)}");
+        assertFalse(template.isPlaceholderPresent());
+    }
+
+}
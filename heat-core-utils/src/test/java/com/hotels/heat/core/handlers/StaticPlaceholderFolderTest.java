@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.handlers;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit Tests for {@link StaticPlaceholderFolder}.
+ */
+public class StaticPlaceholderFolderTest {
+
+    @Test
+    public void testOnlySuiteVariablesAreFolded() {
+        Map<String, Object> suiteVariables = new HashMap();
+        suiteVariables.put("region", "EU");
+        StaticPlaceholderFolder underTest = new StaticPlaceholderFolder(suiteVariables);
+        // the folder keeps the values of the suite load
+        suiteVariables.put("region", "US");
+
+        PlaceholderTemplate folded = underTest.fold(PlaceholderTemplate.compile("${preload[region]}-${preload[csvColumn]}-${path[id]}"),
+            node -> underTest.getSuiteVariables().get(node.getName()).toString());
+
+        Assert.assertEquals(folded.getRawString(), "EU-${preload[csvColumn]}-${path[id]}");
+        Assert.assertSame(underTest.fold(PlaceholderTemplate.compile("${preload[region]}-${preload[csvColumn]}-${path[id]}"),
+            node -> "not used"), folded);
+    }
+
+    @Test
+    public void testStaticPlaceholders() {
+        Map<String, Object> suiteVariables = new HashMap();
+        suiteVariables.put("region", "EU");
+        StaticPlaceholderFolder underTest = new StaticPlaceholderFolder(suiteVariables);
+        Assert.assertTrue(underTest.isStatic(PlaceholderTemplate.compile("${preload[region].get(code)}").getNodes().get(0)));
+        Assert.assertFalse(underTest.isStatic(PlaceholderTemplate.compile("${preload[other]}").getNodes().get(0)));
+        Assert.assertFalse(underTest.isStatic(PlaceholderTemplate.compile("${header[region]}").getNodes().get(0)));
+        Assert.assertFalse(new StaticPlaceholderFolder(null).isStatic(PlaceholderTemplate.compile("${preload[region]}").getNodes().get(0)));
+    }
+
+}
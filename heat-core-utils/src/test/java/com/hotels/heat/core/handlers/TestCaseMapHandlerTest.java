@@ -0,0 +1,146 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.handlers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.hotels.heat.core.dto.HeatTestDetails;
+import com.hotels.heat.core.environment.EnvironmentHandler;
+import com.hotels.heat.core.heatmodules.HeatPlaceholderModule;
+import com.hotels.heat.core.heatmodules.HeatPlaceholderModuleProvider;
+import com.hotels.heat.core.heatmodules.PlaceholderCacheScope;
+import com.hotels.heat.core.runner.TestCaseContext;
+
+/**
+ * Unit Tests for {@link TestCaseMapHandler}.
+ */
+public class TestCaseMapHandlerTest {
+
+    private static final List<Collection<String>> BATCHES = new ArrayList();
+
+    private EnvironmentHandler previousEnvironmentHandler;
+
+    @BeforeMethod
+    public void setUp() {
+        previousEnvironmentHandler = TestSuiteHandler.getInstance().getEnvironmentHandler();
+        TestSuiteHandler.getInstance().setEnvironmentHandler(new EnvironmentHandler((PropertyHandler) null));
+        PlaceholderModuleRegistry.reload(Collections.singletonList(new UpperCaseProvider(PlaceholderCacheScope.STRING)));
+        BATCHES.clear();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        TestSuiteHandler.getInstance().setEnvironmentHandler(previousEnvironmentHandler);
+        PlaceholderModuleRegistry.reload();
+        PlaceholderResultCache.getInstance().clear();
+        TestCaseContext.close();
+    }
+
+    @Test
+    public void testModuleInvokedOncePerTestCase() {
+        Map<String, Object> queryParameters = new HashMap();
+        queryParameters.put("first", "${UPPER[a]}");
+        queryParameters.put("second", "${UPPER[b]}");
+        queryParameters.put("plain", "c");
+        Map<String, Object> testCase = new HashMap();
+        testCase.put("queryParameters", queryParameters);
+        testCase.put("list", new ArrayList(Arrays.asList("${UPPER[d]}", "e")));
+        testCase.put("skipped", "${UPPER[f]}");
+
+        Map<String, Object> output = new TestCaseMapHandler(testCase, new PlaceholderHandler(), Arrays.asList("skipped"))
+            .retrieveProcessedMap();
+
+        Assert.assertEquals(BATCHES.size(), 1);
+        Assert.assertEquals(BATCHES.get(0).size(), 3);
+        Map<String, Object> processedParameters = (Map<String, Object>) output.get("queryParameters");
+        Assert.assertEquals(((Map) processedParameters.get("first")).get(PlaceholderHandler.DEFAULT_PRELOADED_VALUE), "A");
+        Assert.assertEquals(((Map) processedParameters.get("second")).get(PlaceholderHandler.DEFAULT_PRELOADED_VALUE), "B");
+        Assert.assertEquals(processedParameters.get("plain"), "c");
+        Assert.assertEquals(((Map) ((List) output.get("list")).get(0)).get(PlaceholderHandler.DEFAULT_PRELOADED_VALUE), "D");
+        Assert.assertEquals(output.get("skipped"), "${UPPER[f]}");
+    }
+
+    @Test
+    public void testModuleResultsReusedInTheTestCase() {
+        PlaceholderModuleRegistry.reload(Collections.singletonList(new UpperCaseProvider(PlaceholderCacheScope.TEST_CASE)));
+        TestCaseContext.open("suite", "001");
+        Map<String, Object> testCase = new HashMap();
+        testCase.put("first", "${UPPER[a]}");
+
+        new TestCaseMapHandler(new HashMap(testCase), new PlaceholderHandler()).retrieveProcessedMap();
+        Map<String, Object> output = new TestCaseMapHandler(new HashMap(testCase), new PlaceholderHandler()).retrieveProcessedMap();
+
+        Assert.assertEquals(BATCHES.size(), 1);
+        Assert.assertEquals(((Map) output.get("first")).get(PlaceholderHandler.DEFAULT_PRELOADED_VALUE), "A");
+
+        TestCaseContext.open("suite", "002");
+        new TestCaseMapHandler(new HashMap(testCase), new PlaceholderHandler()).retrieveProcessedMap();
+        Assert.assertEquals(BATCHES.size(), 2);
+    }
+
+    /**
+     * Provider of a module that resolves '${UPPER[x]}' in 'X', recording the batches it processes.
+     */
+    private static class UpperCaseProvider implements HeatPlaceholderModuleProvider {
+        private final PlaceholderCacheScope scope;
+
+        UpperCaseProvider(PlaceholderCacheScope scope) {
+            this.scope = scope;
+        }
+
+        @Override
+        public PlaceholderCacheScope getCacheScope(String stringToProcess) {
+            return scope;
+        }
+
+        @Override
+        public List<String> getHandledPlaceholders() {
+            return Collections.singletonList("${UPPER");
+        }
+
+        @Override
+        public HeatPlaceholderModule getModuleInstance() {
+            return new HeatPlaceholderModule() {
+                @Override
+                public Map<String, String> process(String stringToProcess, HeatTestDetails testDetails) {
+                    return Collections.singletonMap(PlaceholderHandler.DEFAULT_PRELOADED_VALUE,
+                        stringToProcess.replaceAll("\\$\\{UPPER\\[(.*?)\\]\\}", "$1").toUpperCase());
+                }
+
+                @Override
+                public Map<String, Map<String, String>> processAll(Collection<String> stringsToProcess, HeatTestDetails testDetails) {
+                    BATCHES.add(new ArrayList(stringsToProcess));
+                    Map<String, Map<String, String>> processedStrings = new LinkedHashMap();
+                    stringsToProcess.forEach(stringToProcess -> processedStrings.put(stringToProcess, process(stringToProcess, testDetails)));
+                    return processedStrings;
+                }
+            };
+        }
+    }
+
+}
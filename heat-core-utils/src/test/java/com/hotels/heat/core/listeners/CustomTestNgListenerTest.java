@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2015-2017 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.listeners;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.testng.internal.annotations.TestAnnotation;
+
+import com.hotels.heat.core.runner.TestBaseRunner;
+
+/**
+ * Unit Tests for {@link CustomTestNgListener}.
+ */
+public class CustomTestNgListenerTest {
+
+    @AfterMethod
+    public void tearDown() {
+        System.clearProperty(TestBaseRunner.SYS_PROP_PARALLEL_TEST_CASES);
+    }
+
+    @Test
+    public void testParallelProviderIsLazyWithOneTestCaseAtATime() {
+        System.clearProperty(TestBaseRunner.SYS_PROP_PARALLEL_TEST_CASES);
+        Assert.assertEquals(transformedProvider(TestBaseRunner.PARALLEL_PROVIDER), TestBaseRunner.PROVIDER);
+        System.setProperty(TestBaseRunner.SYS_PROP_PARALLEL_TEST_CASES, "1");
+        Assert.assertEquals(transformedProvider(TestBaseRunner.PARALLEL_PROVIDER), TestBaseRunner.PROVIDER);
+    }
+
+    @Test
+    public void testParallelProviderIsKeptWhenParallelismIsRequested() {
+        System.setProperty(TestBaseRunner.SYS_PROP_PARALLEL_TEST_CASES, "4");
+        Assert.assertEquals(transformedProvider(TestBaseRunner.PARALLEL_PROVIDER), TestBaseRunner.PARALLEL_PROVIDER);
+        Assert.assertEquals(transformedProvider(TestBaseRunner.PROVIDER), TestBaseRunner.PROVIDER);
+    }
+
+    private String transformedProvider(String dataProvider) {
+        TestAnnotation annotation = new TestAnnotation();
+        annotation.setDataProvider(dataProvider);
+        new CustomTestNgListener().transform(annotation, null, null, null);
+        return annotation.getDataProvider();
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright (C) 2015-2017 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.runner;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.hotels.heat.core.specificexception.HeatException;
+
+/**
+ * Unit Tests for {@link LoadMode}.
+ */
+public class LoadModeTest {
+
+    @AfterMethod
+    public void tearDown() {
+        TestCaseContext.close();
+    }
+
+    @Test
+    public void testSoftAssertionsOfEachSampledResponseAreCounted() {
+        TestCaseContext tcContext = TestCaseContext.open("SUITE", "001");
+        LoadMode.failOnSoftAssertions(tcContext);
+
+        tcContext.getSoftAssertionCollector().add("{status} --> expected [KO] but found [OK]");
+        tcContext.getSoftAssertionCollector().add("{code} --> expected [1] but found [2]");
+        try {
+            LoadMode.failOnSoftAssertions(tcContext);
+            Assert.fail("the failed soft assertions have to fail the check of the response");
+        } catch (HeatException expected) {
+            Assert.assertEquals(expected.getMessage(), "failed soft assertions: 2, first: '{status} --> expected [KO] but found [OK]'");
+        }
+        Assert.assertTrue(tcContext.getSoftAssertionCollector().isEmpty());
+
+        // the next sampled response starts from an empty collector
+        LoadMode.failOnSoftAssertions(tcContext);
+        LoadMode.failOnSoftAssertions(null);
+    }
+
+}
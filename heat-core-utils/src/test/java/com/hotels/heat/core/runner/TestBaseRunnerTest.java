@@ -18,6 +18,7 @@ package com.hotels.heat.core.runner;
 import org.junit.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
+import org.testng.xml.XmlSuite;
 
 import com.hotels.heat.core.environment.EnvironmentHandler;
 import com.hotels.heat.core.handlers.TestSuiteHandler;
@@ -125,5 +126,21 @@ public class TestBaseRunnerTest {
         Assert.assertTrue(underTest.isTestCaseSkippable("test_suite_nameXXX", "001", "SVC_NAME", "http://my.service.com/svc"));
     }
 
+    @Test
+    public void testDataProviderThreadCountIsKeptWithoutParallelTestCases() {
+        XmlSuite xmlSuite = new XmlSuite();
+        xmlSuite.setDataProviderThreadCount(7);
+        try {
+            System.clearProperty(TestBaseRunner.SYS_PROP_PARALLEL_TEST_CASES);
+            TestBaseRunner.setParallelTestCases(xmlSuite);
+            Assert.assertEquals(7, xmlSuite.getDataProviderThreadCount());
+
+            System.setProperty(TestBaseRunner.SYS_PROP_PARALLEL_TEST_CASES, "3");
+            TestBaseRunner.setParallelTestCases(xmlSuite);
+            Assert.assertEquals(3, xmlSuite.getDataProviderThreadCount());
+        } finally {
+            System.clearProperty(TestBaseRunner.SYS_PROP_PARALLEL_TEST_CASES);
+        }
+    }
 
 }
@@ -0,0 +1,62 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.hotels.heat.core.specificexception.HeatException;
+import com.hotels.heat.core.utils.log.LoggingUtils;
+
+/**
+ * Unit Tests for {@link CsvRowStore}.
+ */
+public class CsvRowStoreTest {
+
+    @Test
+    public void testRowsByIndex() throws IOException {
+        CsvRowStore underTest = new CsvRowStore(new StringReader("name,value\nfirst,1\n\"second, quoted\",2,extra\n"));
+        Assert.assertEquals(underTest.size(), 2);
+        Assert.assertEquals(underTest.getHeader().toString(), "[name, value]");
+        Map<String, String> row = underTest.getRow(1);
+        Assert.assertEquals(row.get("name"), "second, quoted");
+        Assert.assertEquals(row.size(), 2);
+        // each request gets its own copy of the row
+        underTest.getRow(0).put("name", "changed");
+        Assert.assertEquals(underTest.getRow(0).get("name"), "first");
+    }
+
+    @Test(expectedExceptions = HeatException.class)
+    public void testRowOutOfRange() throws IOException {
+        new CsvRowStore(new StringReader("name,value\nfirst,1\n")).getRow(1);
+    }
+
+    @Test
+    public void testCsvFileIsReadOnce() {
+        TestCaseUtils testCaseUtils = new TestCaseUtils();
+        testCaseUtils.setLogUtils(new LoggingUtils());
+        CsvRowStore rowStore = testCaseUtils.getCsvRowStore("files/csvRows.csv");
+        Assert.assertEquals(rowStore.size(), 3);
+        Assert.assertEquals(rowStore.getRow(2).get("name"), "third");
+        Assert.assertSame(testCaseUtils.getCsvRowStore("files/csvRows.csv"), rowStore);
+        Assert.assertEquals(testCaseUtils.getCsvRowStore("files/missing.csv").size(), 0);
+    }
+
+}
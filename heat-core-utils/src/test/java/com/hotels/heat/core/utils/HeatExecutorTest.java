@@ -0,0 +1,131 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.hotels.heat.core.runner.TestCaseContext;
+import com.hotels.heat.core.specificexception.HeatException;
+
+/**
+ * Unit Tests for {@link HeatExecutor}.
+ */
+public class HeatExecutorTest {
+
+    @AfterMethod
+    public void tearDown() {
+        TestCaseContext.close();
+    }
+
+    @Test
+    public void testCallKeepsTestCaseContext() {
+        TestCaseContext.open("SUITE", "001");
+        String testCaseId = HeatExecutor.getInstance().call(() -> TestCaseContext.current().getTestCaseId());
+        Assert.assertEquals(testCaseId, "001");
+    }
+
+    @Test
+    public void testSupplyAsyncRunsOnAnotherThread() {
+        TestCaseContext.open("SUITE", "002");
+        Thread caller = Thread.currentThread();
+        CompletableFuture<String> future = HeatExecutor.getInstance().supplyAsync(() -> {
+            Assert.assertNotSame(Thread.currentThread(), caller);
+            return TestCaseContext.current().getTestCaseId();
+        });
+        Assert.assertEquals(HeatExecutor.getResult(future, 5000), "002");
+    }
+
+    @Test(expectedExceptions = HeatException.class, expectedExceptionsMessageRegExp = "async request failed")
+    public void testSupplyAsyncCompletesExceptionally() {
+        HeatExecutor.getResult(HeatExecutor.getInstance().supplyAsync(() -> {
+            throw new HeatException("async request failed");
+        }));
+    }
+
+    @Test
+    public void testSupplyAsyncFanOutIsBounded() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CompletableFuture<Integer>> futures = new ArrayList();
+        for (int request = 0; request < HeatExecutor.DEFAULT_POOL_SIZE * 2; request++) {
+            futures.add(HeatExecutor.getInstance().supplyAsync(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                return running.decrementAndGet();
+            }));
+        }
+        futures.forEach(future -> HeatExecutor.getResult(future, 5000));
+        Assert.assertTrue(maxRunning.get() <= HeatExecutor.DEFAULT_POOL_SIZE);
+    }
+
+    @Test
+    public void testSubmitAllRespectsMaxConcurrency() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Map<String, Callable<String>> tasks = new LinkedHashMap();
+        for (String block : new String[]{"A", "B", "C"}) {
+            tasks.put(block, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                running.decrementAndGet();
+                return block.toLowerCase();
+            });
+        }
+        Map<String, Future<String>> futures = HeatExecutor.getInstance().submitAll(tasks, 2);
+        Assert.assertEquals(futures.keySet().toString(), "[A, B, C]");
+        Assert.assertEquals(HeatExecutor.getResult(futures.get("C"), 5000), "c");
+        Assert.assertTrue(maxRunning.get() <= 2);
+    }
+
+    @Test(expectedExceptions = HeatException.class)
+    public void testTimeout() {
+        Map<String, Callable<String>> tasks = new LinkedHashMap();
+        tasks.put("SLOW", () -> {
+            Thread.sleep(5000);
+            return "slow";
+        });
+        HeatExecutor.getResult(HeatExecutor.getInstance().submitAll(tasks, 1).get("SLOW"), 10);
+    }
+
+    @Test(expectedExceptions = HeatException.class, expectedExceptionsMessageRegExp = "request failed")
+    public void testHeatExceptionIsRethrown() {
+        HeatExecutor.getInstance().call(() -> {
+            throw new HeatException("request failed");
+        });
+    }
+
+    @Test(expectedExceptions = HeatException.class)
+    public void testCheckedExceptionIsWrapped() {
+        FutureTask<String> task = new FutureTask(() -> {
+            throw new Exception("checked");
+        });
+        task.run();
+        HeatExecutor.getResult(task);
+    }
+
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import io.restassured.path.json.JsonPath;
+import io.restassured.path.json.config.JsonPathConfig;
+
+/**
+ * Unit Tests for {@link JsonPathExpression}.
+ */
+public class JsonPathExpressionTest {
+
+    private static final String JSON = "{\"results\":[{\"geometry\":{\"location\":{\"lat\":45.4642035,\"lng\":9}},\"types\":[\"city\",\"political\"]},"
+        + "{\"geometry\":{\"location\":{\"lat\":-33.86,\"lng\":151.2093}},\"types\":[\"city\"]},{\"name\":\"no geometry\"}],"
+        + "\"status\":\"OK\",\"count\":12345678901,\"empty\":null,\"size\":3,\"my-field\":\"hyphen\"}";
+
+    private final JsonPath jsonPath = new JsonPath(JSON).using(new JsonPathConfig(JsonPathConfig.NumberReturnType.BIG_DECIMAL));
+    private final JsonDocument document = new JsonDocument(new JsonPath(JSON).using(new JsonPathConfig(JsonPathConfig.NumberReturnType.BIG_DECIMAL)));
+
+    @DataProvider(name = "paths")
+    public Object[][] paths() {
+        return new Object[][] {
+            {"results[0].geometry.location.lat", true},
+            {"results[1].geometry.location.lng", true},
+            {"results[0].types[1]", true},
+            {"results[7].geometry", true},
+            {"results.geometry.location.lat", true},
+            {"results[2].geometry.location", true},
+            {"results.types", true},
+            {"status", true},
+            {"count", true},
+            {"empty.field", true},
+            {"size", true},
+            {"missing", true},
+            {"$", true},
+            {"results[-1].name", false},
+            {"results.size()", false},
+            {"results.findAll { it.name }.name", false},
+            {"'my-field'", false},
+        };
+    }
+
+    @Test(dataProvider = "paths")
+    public void testSameResultOfGPath(String path, boolean simple) {
+        Assert.assertEquals(JsonPathExpression.compile(path).isSimple(), simple, path);
+        Object expected = jsonPath.get(path);
+        Object actual = document.get(path);
+        Assert.assertEquals(String.valueOf(actual), String.valueOf(expected), path);
+        if (expected != null) {
+            Assert.assertEquals(actual.getClass(), expected.getClass(), path);
+        }
+    }
+
+    @Test
+    public void testCompiledOnce() {
+        Assert.assertSame(JsonPathExpression.compile("results[0].types"), JsonPathExpression.compile("results[0].types"));
+    }
+
+    @Test
+    public void testRootArray() {
+        JsonDocument arrayDocument = new JsonDocument(new JsonPath("[{\"x\":1},{\"x\":2}]"));
+        Assert.assertEquals(arrayDocument.get("[1].x"), (Object) 2);
+        Assert.assertEquals(arrayDocument.get("x").toString(), "[1, 2]");
+    }
+
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2015-2017 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils;
+
+import java.util.Arrays;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+
+import io.restassured.path.json.JsonPath;
+
+/**
+ * Unit Tests for {@link JsonSchemaCache}.
+ */
+public class JsonSchemaCacheTest {
+
+    private static final String SCHEMA_PATH = "testJsonSchema/responseSchema.json";
+
+    @Test
+    public void testSchemaIsCompiledOnce() {
+        JsonSchemaCache underTest = new JsonSchemaCache();
+        underTest.preload(Arrays.asList(SCHEMA_PATH, "testJsonSchema/missing.json"));
+
+        JsonSchema jsonSchema = underTest.getSchema(SCHEMA_PATH);
+        Assert.assertNotNull(jsonSchema);
+        Assert.assertSame(underTest.getSchema(SCHEMA_PATH), jsonSchema);
+        Assert.assertNull(underTest.getSchema("testJsonSchema/missing.json"));
+    }
+
+    @Test
+    public void testValidationOnParsedDocument() throws Exception {
+        JsonSchema jsonSchema = new JsonSchemaCache().getSchema(SCHEMA_PATH);
+
+        ProcessingReport validReport = JsonSchemaCache.validate(jsonSchema,
+            new JsonDocument(JsonPath.from("{\"result\": \"KO\", \"error_keys\": [\"key1\", \"key2\"]}")));
+        Assert.assertTrue(validReport.isSuccess());
+
+        ProcessingReport invalidReport = JsonSchemaCache.validate(jsonSchema,
+            new JsonDocument(JsonPath.from("{\"error_message\": \"missing result\", \"code\": 1.5}")));
+        Assert.assertFalse(invalidReport.isSuccess());
+        Assert.assertTrue(invalidReport.toString().contains("result"));
+    }
+
+}
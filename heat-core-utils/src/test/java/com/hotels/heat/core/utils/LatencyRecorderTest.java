@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.hotels.heat.core.specificexception.HeatException;
+
+/**
+ * Unit Tests for {@link LatencyRecorder}.
+ */
+public class LatencyRecorderTest {
+
+    private final LatencyRecorder latencyRecorder = LatencyRecorder.getInstance();
+
+    @AfterMethod
+    public void resetRecorder() {
+        latencyRecorder.reset();
+    }
+
+    @Test
+    public void testRecordByServiceAndStep() {
+        latencyRecorder.record("service1", "suite.step1", LatencyRecorder.Phase.NETWORK, TimeUnit.MILLISECONDS.toNanos(2));
+        latencyRecorder.record("service1", "suite.step2", LatencyRecorder.Phase.NETWORK, TimeUnit.MILLISECONDS.toNanos(4));
+        latencyRecorder.record(null, "suite.step2", LatencyRecorder.Phase.CHECKS, TimeUnit.MILLISECONDS.toNanos(1));
+
+        Map<String, Map<LatencyRecorder.Phase, Histogram>> services = latencyRecorder.getServiceHistograms();
+        Assert.assertEquals(services.keySet().toString(), "[service1]");
+        Histogram network = services.get("service1").get(LatencyRecorder.Phase.NETWORK);
+        Assert.assertEquals(network.getTotalCount(), 2);
+        Assert.assertTrue(network.valuesAreEquivalent(network.getMaxValue(), 4000), "max: " + network.getMaxValue());
+        Assert.assertFalse(services.get("service1").containsKey(LatencyRecorder.Phase.CHECKS));
+
+        Map<String, Map<LatencyRecorder.Phase, Histogram>> steps = latencyRecorder.getStepHistograms();
+        Assert.assertEquals(steps.keySet().toString(), "[suite.step1, suite.step2]");
+        Assert.assertEquals(steps.get("suite.step2").keySet().toString(), "[NETWORK, CHECKS]");
+    }
+
+    @Test
+    public void testTimeRecordsAlsoFailures() {
+        Assert.assertEquals(latencyRecorder.time("service1", null, LatencyRecorder.Phase.RESOLVE, () -> "resolved"), "resolved");
+        try {
+            latencyRecorder.time("service1", null, LatencyRecorder.Phase.RESOLVE, () -> {
+                throw new HeatException("wrong placeholder");
+            });
+            Assert.fail("the failure of the action has to be propagated");
+        } catch (HeatException oEx) {
+            Assert.assertEquals(oEx.getMessage(), "wrong placeholder");
+        }
+        Assert.assertEquals(latencyRecorder.getServiceHistograms().get("service1").get(LatencyRecorder.Phase.RESOLVE).getTotalCount(), 2);
+        Assert.assertTrue(latencyRecorder.getStepHistograms().isEmpty());
+    }
+
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.hotels.heat.core.specificexception.HeatException;
+
+/**
+ * Unit Tests for {@link LoadGenerator}.
+ */
+public class LoadGeneratorTest {
+
+    @Test
+    public void testOpenModelKeepsTheRate() {
+        LoadGenerator loadGenerator = new LoadGenerator(LoadGenerator.MODEL_OPEN, 100, 0, 500, 0);
+        LoadGenerator.LoadResult result = loadGenerator.run(() -> CompletableFuture.completedFuture("OK"), rsp -> { });
+        Assert.assertTrue(result.getRequests() >= 45 && result.getRequests() <= 51, "requests: " + result.getRequests());
+        Assert.assertEquals(result.getLatencyHistogram().getTotalCount(), result.getRequests());
+        Assert.assertEquals(result.getErrors(), 0);
+    }
+
+    @Test
+    public void testClosedModelLimitsTheUsers() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        LoadGenerator loadGenerator = new LoadGenerator(LoadGenerator.MODEL_CLOSED, 0, 3, 300, 0);
+        LoadGenerator.LoadResult result = loadGenerator.run(() -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException oEx) {
+                    Thread.currentThread().interrupt();
+                }
+                inFlight.decrementAndGet();
+                return "OK";
+            });
+        }, rsp -> { });
+        Assert.assertTrue(result.getRequests() > 3);
+        Assert.assertTrue(maxInFlight.get() <= 3, "max in flight: " + maxInFlight.get());
+    }
+
+    @Test
+    public void testSampledChecksAndErrors() {
+        AtomicInteger counter = new AtomicInteger();
+        LoadGenerator loadGenerator = new LoadGenerator(LoadGenerator.MODEL_OPEN, 200, 0, 200, 2);
+        LoadGenerator.LoadResult result = loadGenerator.run(() -> {
+            CompletableFuture<Integer> future = new CompletableFuture();
+            int requestNumber = counter.incrementAndGet();
+            if (requestNumber % 5 == 0) {
+                future.completeExceptionally(new IllegalStateException("connection refused"));
+            } else {
+                future.complete(requestNumber);
+            }
+            return future;
+        }, rsp -> {
+            if (rsp % 3 == 0) {
+                throw new HeatException("wrong response " + rsp);
+            }
+        });
+        Assert.assertEquals(result.getErrors(), result.getRequests() / 5);
+        Assert.assertEquals(result.getCheckedResponses(), (result.getRequests() - result.getErrors()) / 2);
+        Assert.assertTrue(result.getCheckFailures() > 0);
+        Assert.assertTrue(result.getFirstCheckFailure().startsWith("wrong response"));
+    }
+
+    @Test(expectedExceptions = HeatException.class)
+    public void testWrongModel() {
+        new LoadGenerator("ramp", 10, 1, 1000, 0);
+    }
+
+}
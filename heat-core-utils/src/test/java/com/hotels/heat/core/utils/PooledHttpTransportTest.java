@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.hotels.heat.core.specificexception.HeatException;
+import com.sun.net.httpserver.HttpServer;
+
+import io.restassured.RestAssured;
+
+/**
+ * Unit Tests for {@link PooledHttpTransport}.
+ */
+public class PooledHttpTransportTest {
+
+    private HttpServer server;
+    private String baseUri;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = "{\"status\":\"OK\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+        baseUri = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterClass
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testConnectionsAreReused() {
+        PooledHttpTransport transport = new PooledHttpTransport(new Properties());
+        try {
+            for (int i = 0; i < 3; i++) {
+                String status = transport.configure(RestAssured.given().baseUri(baseUri), false).get("/").path("status");
+                Assert.assertEquals(status, "OK");
+            }
+            Assert.assertEquals(transport.getNewConnections(), 1);
+            Assert.assertEquals(transport.getReusedConnections(), 2);
+        } finally {
+            transport.shutdown();
+        }
+    }
+
+    @Test(expectedExceptions = HeatException.class)
+    public void testWrongPoolSize() {
+        Properties properties = new Properties();
+        properties.setProperty(PooledHttpTransport.PROP_POOL_MAX_TOTAL, "many");
+        new PooledHttpTransport(properties);
+    }
+
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.hotels.heat.core.handlers.TestSuiteHandler;
+import com.hotels.heat.core.runner.TestCaseContext;
+
+import io.restassured.http.Method;
+
+/**
+ * Unit Tests for {@link RequestDiagnostics}.
+ */
+public class RequestDiagnosticsTest {
+
+    @AfterMethod
+    public void closeContext() {
+        TestCaseContext.close();
+    }
+
+    @Test
+    public void testRingBufferKeepsTheLastExchanges() {
+        RequestDiagnostics underTest = new RequestDiagnostics(3);
+        TestCaseContext.open("SUITE", "001");
+        underTest.record(null, null, Method.GET, "/first", null, "body1");
+        underTest.record(null, null, Method.GET, "/second", null, "body2");
+        TestCaseContext.open("SUITE", "002");
+        underTest.record(null, null, Method.POST, "/third", null, "body3");
+        TestCaseContext.open("SUITE", "001");
+        underTest.record(null, null, Method.GET, "/fourth", null, "body4");
+
+        List<RequestDiagnostics.Exchange> exchanges = underTest.getExchanges("SUITE", "001");
+        Assert.assertEquals(exchanges.size(), 2);
+        Assert.assertEquals(exchanges.get(0).getUrl(), "/second");
+        Assert.assertEquals(exchanges.get(1).getUrl(), "/fourth");
+        Assert.assertEquals(exchanges.get(1).getResponseBody(), "body4");
+        Assert.assertNull(exchanges.get(1).getStatusCode());
+        Assert.assertEquals(underTest.getExchanges("SUITE", "002").get(0).getHttpMethod(), Method.POST);
+        Assert.assertTrue(underTest.getExchanges("SUITE", "003").isEmpty());
+    }
+
+    @Test
+    public void testDisabledBuffer() {
+        RequestDiagnostics underTest = new RequestDiagnostics(0);
+        TestCaseContext.open("SUITE", "001");
+        underTest.record(null, null, Method.GET, "/first", null, "body1");
+        underTest.dump("SUITE", "001");
+
+        Assert.assertTrue(underTest.getExchanges("SUITE", "001").isEmpty());
+    }
+
+    @Test
+    public void testDiagnosticsBuiltOnDemand() {
+        Map<String, Object> queryParams = new HashMap();
+        queryParams.put("q", "hotel");
+        TestRequest testRequest = new TestRequest("http://localhost/search");
+        testRequest.setHttpMethod(Method.GET);
+        testRequest.setQueryParams(queryParams);
+        testRequest.setHeadersParams(new HashMap());
+        testRequest.setCookieParams(new HashMap());
+
+        RequestDiagnostics underTest = new RequestDiagnostics(2);
+        underTest.record(testRequest, null, Method.GET, "http://localhost/search", null, null);
+        underTest.record(null, null, Method.GET, "http://localhost/other", null, null);
+
+        List<RequestDiagnostics.Exchange> exchanges = underTest.getExchanges(null, null);
+        Assert.assertEquals(exchanges.get(0).toCURL(TestSuiteHandler.getInstance().getLogUtils()), "curl -kv -G -d 'q=hotel' 'http://localhost/search'");
+        Assert.assertEquals(exchanges.get(1).toCURL(TestSuiteHandler.getInstance().getLogUtils()), "");
+        Assert.assertEquals(exchanges.get(1).getRequestDetails(), "");
+    }
+
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils;
+
+import java.math.BigDecimal;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.hotels.heat.core.runner.TestCaseContext;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+
+/**
+ * Unit Tests for {@link ResponseJsonCache}.
+ */
+public class ResponseJsonCacheTest {
+
+    @AfterMethod
+    public void closeContext() {
+        TestCaseContext.close();
+    }
+
+    @Test
+    public void testResponseParsedOncePerTestCase() {
+        Response rsp = buildResponse("{\"price\":10.50,\"rooms\":[{\"name\":\"r1\"},{\"name\":\"r2\"}]}");
+        TestCaseContext tcContext = TestCaseContext.open("suite", "001");
+
+        JsonDocument document = ResponseJsonCache.documentOf(rsp);
+        Assert.assertSame(ResponseJsonCache.documentOf(rsp), document);
+        Assert.assertSame(tcContext.copy().getResponseJsonCache().getDocument(rsp), document);
+        Assert.assertEquals(document.get("price"), new BigDecimal("10.50"));
+        Assert.assertEquals(document.get("rooms.name").toString(), "[r1, r2]");
+
+        Response otherRsp = buildResponse("{\"price\":10.50,\"rooms\":[]}");
+        Assert.assertNotSame(ResponseJsonCache.documentOf(otherRsp), document);
+
+        TestCaseContext.open("suite", "002");
+        Assert.assertNotSame(ResponseJsonCache.documentOf(rsp), document);
+    }
+
+    @Test
+    public void testNoCacheWithoutTestCase() {
+        Response rsp = buildResponse("{\"status\":\"OK\"}");
+        Assert.assertNotSame(ResponseJsonCache.documentOf(rsp), ResponseJsonCache.documentOf(rsp));
+        Assert.assertEquals(ResponseJsonCache.documentOf(rsp).get("status"), "OK");
+    }
+
+    private static Response buildResponse(String body) {
+        return new ResponseBuilder().setStatusCode(200).setContentType("application/json").setBody(body).build();
+    }
+
+}
@@ -15,6 +15,12 @@
  */
 package com.hotels.heat.core.utils;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -22,6 +28,7 @@ import org.testng.annotations.Test;
 import com.hotels.heat.core.environment.EnvironmentHandler;
 import com.hotels.heat.core.handlers.TestSuiteHandler;
 import com.hotels.heat.core.runner.TestBaseRunner;
+import com.hotels.heat.core.specificexception.HeatException;
 
 
 /**
@@ -107,4 +114,24 @@ public class TestCaseUtilsTest {
         Assert.assertTrue(underTest.isTestSuiteRunnable("testSuite2"));
         Assert.assertFalse(underTest.isTestSuiteRunnable("testSuiteXXX"));
     }
+
+    @Test
+    public void testMalformedCheckFailsOnlyItsTestCase() {
+        underTest.setLogUtils(TestSuiteHandler.getInstance().getLogUtils());
+        // the test cases are loaded as the data provider of jsonReader does
+        List<Map> testCases = new ArrayList();
+        File suiteFile = new File(getClass().getResource("/inputJsonFileForTest/MalformedCheckSuiteTest.json").getPath());
+        Iterator<Object[]> provider = underTest.compileCheckPlans(new TestSuiteJsonReader(suiteFile).testCaseIterator(csvFile -> 0));
+        provider.forEachRemaining(testCase -> testCases.add((Map) testCase[0]));
+
+        Assert.assertEquals(testCases.size(), 3);
+        Assert.assertNotNull(underTest.takeCheckPlan(testCases.get(0)));
+        try {
+            underTest.takeCheckPlan(testCases.get(1));
+            Assert.fail("the malformed check has to fail its test case");
+        } catch (HeatException expected) {
+            Assert.assertTrue(expected.getMessage().contains("test case '002'"), expected.getMessage());
+        }
+        Assert.assertNotNull(underTest.takeCheckPlan(testCases.get(2)));
+    }
 }
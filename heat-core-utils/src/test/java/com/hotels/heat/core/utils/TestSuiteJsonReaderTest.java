@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.hotels.heat.core.specificexception.HeatException;
+
+/**
+ * Unit Tests for {@link TestSuiteJsonReader}.
+ */
+public class TestSuiteJsonReaderTest {
+
+    private static final String STREAMING_SUITE = "/inputJsonFileForTest/StreamingSuiteTest.json";
+
+    @Test
+    public void testSectionsAfterTheTestCases() {
+        TestSuiteJsonReader underTest = new TestSuiteJsonReader(getResourceFile(STREAMING_SUITE));
+        Assert.assertEquals(((Map) underTest.getSection("generalSettings")).get("httpMethod"), "POST");
+        Assert.assertEquals(((Map) underTest.getSection("beforeTestSuite")).get("region"), "EU");
+        Assert.assertNull(underTest.getSection("jsonSchemas"));
+    }
+
+    @Test
+    public void testCsvTestCasesAreExpanded() {
+        TestSuiteJsonReader underTest = new TestSuiteJsonReader(getResourceFile(STREAMING_SUITE));
+        List<Map> testCases = new ArrayList();
+        Iterator<Object[]> iterator = underTest.testCaseIterator(csvFile -> csvFile.equals("files/csvRows.csv") ? 3 : 0);
+        iterator.forEachRemaining(testCase -> testCases.add((Map) testCase[0]));
+
+        Assert.assertEquals(testCases.size(), 4);
+        Assert.assertEquals(testCases.get(0).get("testId"), "001");
+        Assert.assertEquals(testCases.get(1).get("testId"), "002_000");
+        Assert.assertEquals(testCases.get(3).get("testId"), "002_002");
+        Assert.assertEquals(testCases.get(3).get("url"), "/csv");
+        // every row has its own copy of the test case
+        ((Map) testCases.get(1).get("expects")).put("responseCode", 404);
+        Assert.assertEquals(((Map) testCases.get(2).get("expects")).get("responseCode"), 200);
+    }
+
+    @Test
+    public void testValuesHaveTheJsonPathTypes() {
+        TestSuiteJsonReader underTest = new TestSuiteJsonReader(getResourceFile(STREAMING_SUITE));
+        Map expects = (Map) ((Map) underTest.testCaseIterator(csvFile -> 0).next()[0]).get("expects");
+        Assert.assertEquals(expects.get("responseCode"), 200);
+        Assert.assertEquals(expects.get("ratio"), 1.5f);
+        Assert.assertEquals(((Map) ((List) expects.get("fieldCheck")).get(0)).get("expectedValue"), "field_json_value");
+        Assert.assertEquals(expects.getClass(), HashMap.class);
+        Assert.assertEquals(expects.get("fieldCheck").getClass(), ArrayList.class);
+    }
+
+    @Test(expectedExceptions = HeatException.class)
+    public void testSuiteWithoutTestCases() {
+        new TestSuiteJsonReader(getResourceFile("/testJsonSchema/responseSchema.json"));
+    }
+
+    private File getResourceFile(String path) {
+        return new File(getClass().getResource(path).getPath());
+    }
+
+}
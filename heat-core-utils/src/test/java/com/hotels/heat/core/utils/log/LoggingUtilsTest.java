@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.utils.log;
+
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.hotels.heat.core.runner.TestCaseContext;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+/**
+ * Unit Tests for {@link LoggingUtils}.
+ */
+public class LoggingUtilsTest {
+
+    private Logger logger;
+    private ListAppender<ILoggingEvent> appender;
+    private LoggingUtils underTest;
+
+    @BeforeMethod
+    public void setUp() {
+        underTest = new LoggingUtils();
+        logger = (Logger) LoggerFactory.getLogger(LoggingUtils.class);
+        appender = new ListAppender();
+        appender.start();
+        logger.addAppender(appender);
+        TestCaseContext.open("SUITE", "001");
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        logger.detachAppender(appender);
+        logger.setLevel(null);
+        TestCaseContext.close();
+    }
+
+    @Test
+    public void testDisabledLevelsAreDiscarded() {
+        logger.setLevel(Level.INFO);
+        underTest.debug("debug message");
+        underTest.trace("trace message {}", "param");
+        underTest.info("info message");
+
+        Assert.assertFalse(underTest.isDebugEnabled());
+        Assert.assertEquals(appender.list.size(), 1);
+        Assert.assertEquals(appender.list.get(0).getLevel(), Level.INFO);
+        Assert.assertEquals(appender.list.get(0).getFormattedMessage(), "[SUITE.001]  -- info message");
+    }
+
+    @Test
+    public void testParametersAndPlaceholdersInMessages() {
+        logger.setLevel(Level.DEBUG);
+        underTest.warning("value '{}' for '{}'", "v", "k");
+        underTest.debug("substitution '${preload[VAR]}' {}");
+
+        Assert.assertEquals(appender.list.get(0).getLevel(), Level.WARN);
+        Assert.assertEquals(appender.list.get(0).getFormattedMessage(), "[SUITE.001]  -- value 'v' for 'k'");
+        Assert.assertEquals(appender.list.get(1).getFormattedMessage(), "[SUITE.001]  -- substitution '${preload[VAR]}' {}");
+    }
+
+    @Test
+    public void testCallerOnlyAtTraceLevel() {
+        logger.setLevel(Level.DEBUG);
+        underTest.debug("message");
+        logger.setLevel(Level.TRACE);
+        underTest.debug("message");
+
+        Assert.assertEquals(appender.list.get(0).getFormattedMessage(), "[SUITE.001]  -- message");
+        Assert.assertEquals(appender.list.get(1).getFormattedMessage(),
+            "[SUITE.001] " + LoggingUtilsTest.class.getName() + "::testCallerOnlyAtTraceLevel -- message");
+    }
+
+    @Test
+    public void testExceptionDetails() {
+        Assert.assertEquals(underTest.getExceptionDetails(),
+            "[SUITE.001] " + LoggingUtilsTest.class.getName() + "::testExceptionDetails -- ");
+    }
+
+}
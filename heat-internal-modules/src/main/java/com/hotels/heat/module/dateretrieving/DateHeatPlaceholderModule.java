@@ -15,7 +15,9 @@
  */
 package com.hotels.heat.module.dateretrieving;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import com.hotels.heat.core.dto.HeatTestDetails;
@@ -44,10 +46,25 @@ public final class DateHeatPlaceholderModule implements HeatPlaceholderModule {
 
     @Override
     public Map<String, String> process(String stringToProcess, HeatTestDetails testDetails) {
-        Map<String, String> processedMap = new HashMap();
-        processedMap.put(DateHeatPlaceholderModule.DEFAULT_PRELOADED_VALUE, stringToProcess);
+        return process(stringToProcess, new DateHandler(testDetails.getTestDescription()));
+    }
 
+    /**
+     * Processes all the strings with the same DateHandler.
+     */
+    @Override
+    public Map<String, Map<String, String>> processAll(Collection<String> stringsToProcess, HeatTestDetails testDetails) {
         DateHandler dateHandler = new DateHandler(testDetails.getTestDescription());
+        Map<String, Map<String, String>> processedStrings = new LinkedHashMap();
+        for (String stringToProcess : stringsToProcess) {
+            processedStrings.computeIfAbsent(stringToProcess, key -> process(key, dateHandler));
+        }
+        return processedStrings;
+    }
+
+    private Map<String, String> process(String stringToProcess, DateHandler dateHandler) {
+        Map<String, String> processedMap = new HashMap();
+        processedMap.put(DateHeatPlaceholderModule.DEFAULT_PRELOADED_VALUE, stringToProcess);
         if (stringToProcess.contains(DateHeatPlaceholderModule.TODAY_PLACEHOLDER)) {
             processedMap.put(DateHeatPlaceholderModule.DEFAULT_PRELOADED_VALUE, dateHandler.changeDatesPlaceholders(true, stringToProcess));
         }
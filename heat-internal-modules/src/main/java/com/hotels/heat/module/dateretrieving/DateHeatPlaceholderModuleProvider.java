@@ -20,6 +20,7 @@ import java.util.List;
 
 import com.hotels.heat.core.heatmodules.HeatPlaceholderModule;
 import com.hotels.heat.core.heatmodules.HeatPlaceholderModuleProvider;
+import com.hotels.heat.core.heatmodules.PlaceholderCacheScope;
 
 /**
  * Provider for the module that manages dates.
@@ -38,4 +39,14 @@ public class DateHeatPlaceholderModuleProvider implements HeatPlaceholderModuleP
         return DateHeatPlaceholderModule.getInstance();
     }
 
+    /**
+     * The date placeholders are resolved once per suite: all the test cases of a suite use the same date, even if the run goes over midnight.
+     * @param stringToProcess the string to process
+     * @return SUITE
+     */
+    @Override
+    public PlaceholderCacheScope getCacheScope(String stringToProcess) {
+        return PlaceholderCacheScope.SUITE;
+    }
+
 }
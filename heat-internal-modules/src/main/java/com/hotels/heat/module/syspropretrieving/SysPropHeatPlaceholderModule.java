@@ -15,7 +15,9 @@
  */
 package com.hotels.heat.module.syspropretrieving;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import com.hotels.heat.core.dto.HeatTestDetails;
@@ -44,10 +46,25 @@ public final class SysPropHeatPlaceholderModule implements HeatPlaceholderModule
 
     @Override
     public Map<String, String> process(String stringToProcess, HeatTestDetails testDetails) {
-        Map<String, String> processedMap = new HashMap();
-        processedMap.put(SysPropHeatPlaceholderModule.DEFAULT_PRELOADED_VALUE, stringToProcess);
+        return process(stringToProcess, new SysPropHandler(testDetails.getTestDescription()));
+    }
 
+    /**
+     * Processes all the strings with the same SysPropHandler.
+     */
+    @Override
+    public Map<String, Map<String, String>> processAll(Collection<String> stringsToProcess, HeatTestDetails testDetails) {
         SysPropHandler sysPropHandler = new SysPropHandler(testDetails.getTestDescription());
+        Map<String, Map<String, String>> processedStrings = new LinkedHashMap();
+        for (String stringToProcess : stringsToProcess) {
+            processedStrings.computeIfAbsent(stringToProcess, key -> process(key, sysPropHandler));
+        }
+        return processedStrings;
+    }
+
+    private Map<String, String> process(String stringToProcess, SysPropHandler sysPropHandler) {
+        Map<String, String> processedMap = new HashMap();
+        processedMap.put(SysPropHeatPlaceholderModule.DEFAULT_PRELOADED_VALUE, stringToProcess);
         if (stringToProcess.contains(SysPropHeatPlaceholderModule.SYS_PROP_PLACEHOLDER)) {
             processedMap.put(SysPropHeatPlaceholderModule.DEFAULT_PRELOADED_VALUE, sysPropHandler.processString(stringToProcess));
         }
@@ -20,6 +20,7 @@ import java.util.List;
 
 import com.hotels.heat.core.heatmodules.HeatPlaceholderModule;
 import com.hotels.heat.core.heatmodules.HeatPlaceholderModuleProvider;
+import com.hotels.heat.core.heatmodules.PlaceholderCacheScope;
 
 /**
  * Provider of the internal module that manages system property retrieving.
@@ -38,4 +39,14 @@ public class SysPropHeatPlaceholderModuleProvider implements HeatPlaceholderModu
         return SysPropHeatPlaceholderModule.getInstance();
     }
 
+    /**
+     * The system properties do not change during the run: each placeholder is resolved once per suite.
+     * @param stringToProcess the string to process
+     * @return SUITE
+     */
+    @Override
+    public PlaceholderCacheScope getCacheScope(String stringToProcess) {
+        return PlaceholderCacheScope.SUITE;
+    }
+
 }
@@ -81,7 +81,7 @@ public final class WiremockSupportModule implements HeatPlaceholderModule {
     }
 
 
-    private WiremockAction getActionToRun(String stringToProcess) {
+    WiremockAction getActionToRun(String stringToProcess) {
         WiremockAction wiremockAction = WiremockAction.UNKNOWN;
         String actionName = tcUtils.regexpExtractor(stringToProcess, "\\$\\{" + WIREMOCK_PLACEHOLDER + "\\[.*?\\]\\.(.*?)\\}", 1);
         String actionNameUpperCase = actionName.toUpperCase();
@@ -20,6 +20,7 @@ import java.util.List;
 
 import com.hotels.heat.core.heatmodules.HeatPlaceholderModule;
 import com.hotels.heat.core.heatmodules.HeatPlaceholderModuleProvider;
+import com.hotels.heat.core.heatmodules.PlaceholderCacheScope;
 
 /**
  * Wiremock Support Module Provider.
@@ -42,5 +43,17 @@ public class WiremockSupportModuleProvider  implements HeatPlaceholderModuleProv
         return WiremockSupportModule.getInstance();
     }
 
+    /**
+     * The list of the requests received by the mock is read only once in a test case (or flow step), while the reset actions
+     * are executed every time.
+     * @param stringToProcess the string to process
+     * @return TEST_CASE for the 'requests' action, STRING otherwise
+     */
+    @Override
+    public PlaceholderCacheScope getCacheScope(String stringToProcess) {
+        return WiremockSupportModule.getInstance().getActionToRun(stringToProcess) == WiremockAction.REQUESTS
+            ? PlaceholderCacheScope.TEST_CASE : PlaceholderCacheScope.STRING;
+    }
+
 }
 
@@ -15,6 +15,8 @@
  */
 package com.hotels.heat.core.heatmodules;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import com.hotels.heat.core.dto.HeatTestDetails;
@@ -23,4 +25,20 @@ public interface HeatPlaceholderModule extends HeatModule {
 
     public Map<String, String> process(String stringToProcess, HeatTestDetails testDetails);
 
+    /**
+     * Processes a batch of strings in one call, i.e. all the strings of a test case containing the placeholders of the module.
+     * The default implementation calls {@link #process(String, HeatTestDetails)} for each string; the modules that can resolve
+     * many placeholders at once (i.e. with a single request to a backend) can override it.
+     * @param stringsToProcess the strings to process; equal strings are processed only once
+     * @param testDetails the details of the running test
+     * @return for each string to process, the same map returned by {@link #process(String, HeatTestDetails)}
+     */
+    default Map<String, Map<String, String>> processAll(Collection<String> stringsToProcess, HeatTestDetails testDetails) {
+        Map<String, Map<String, String>> processedStrings = new LinkedHashMap();
+        for (String stringToProcess : stringsToProcess) {
+            processedStrings.computeIfAbsent(stringToProcess, key -> process(key, testDetails));
+        }
+        return processedStrings;
+    }
+
 }
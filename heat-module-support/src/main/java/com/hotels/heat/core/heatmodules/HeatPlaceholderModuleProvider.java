@@ -15,7 +15,7 @@
  */
 package com.hotels.heat.core.heatmodules;
 
-
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -27,5 +27,21 @@ public interface HeatPlaceholderModuleProvider {
 
     HeatPlaceholderModule getModuleInstance();
 
+    /**
+     * Scope in which the result of the module for a string can be reused. Only the modules whose results do not change in
+     * the scope, and whose invocations have no side effects, should declare a scope different from STRING.
+     * @param stringToProcess the string to process
+     * @return the cache scope of the result, STRING (not reused) by default
+     */
+    default PlaceholderCacheScope getCacheScope(String stringToProcess) {
+        return PlaceholderCacheScope.STRING;
+    }
+
+    /**
+     * @return the time to live of the results with cache scope TTL
+     */
+    default Duration getCacheTtl() {
+        return Duration.ZERO;
+    }
 
 }
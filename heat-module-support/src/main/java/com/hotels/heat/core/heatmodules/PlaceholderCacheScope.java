@@ -0,0 +1,31 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.heat.core.heatmodules;
+
+/**
+ * Scope in which the result of a placeholder module can be reused for the same string, without invoking the module again.
+ * The scope is declared by the module provider (see {@link HeatPlaceholderModuleProvider#getCacheScope(String)}).
+ */
+public enum PlaceholderCacheScope {
+    /** the module is invoked for each string: only the equal strings of the same batch share the result (default). */
+    STRING,
+    /** the result is reused in the same test case (in the same step, for the flow mode test cases). */
+    TEST_CASE,
+    /** the result is reused in the same test suite. */
+    SUITE,
+    /** the result is reused until its time to live expires (see {@link HeatPlaceholderModuleProvider#getCacheTtl()}). */
+    TTL
+}